@@ -0,0 +1,51 @@
+#!/bin/sh
+# Startup benchmark: time to the first routed response and resident memory after startup, for the
+# standard launch (java -jar) against the fast-start launch (AOT + AppCDS). Run inside the
+# fast-start image, which carries both:
+#   docker run --rm --entrypoint sh <image> startup-benchmark.sh [runs]
+# Both launches use the production profiles (the standard one without faststart). A routed response
+# is any HTTP status from a gateway route; upstreams need not be reachable.
+set -eu
+
+RUNS=${1:-5}
+PORT=${BENCHMARK_PORT:-8090}
+ROUTED_URL="http://127.0.0.1:$PORT/api/v1/users/health"
+
+. ./training-env.sh
+
+now_ms() {
+    date +%s%3N
+}
+
+measure() {
+    mode=$1
+    start=$(now_ms)
+    if [ "$mode" = standard ]; then
+        java -Dspring.profiles.active="${PROFILES%,faststart}" -Dserver.port="$PORT" -jar app.jar >/dev/null 2>&1 &
+    else
+        java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true \
+            -Dspring.profiles.active="$PROFILES" -Dserver.port="$PORT" \
+            -cp "$(cat classpath)" com.iam.gateway.ApiGatewayApplication >/dev/null 2>&1 &
+    fi
+    pid=$!
+
+    while [ "$(curl -s -o /dev/null -m 2 -w '%{http_code}' "$ROUTED_URL" || true)" = 000 ]; do
+        sleep 0.02
+    done
+    first=$(($(now_ms) - start))
+
+    sleep 2 # let startup-time allocations settle before reading RSS
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+
+    kill -TERM "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$mode $first $((rss / 1024))"
+}
+
+echo "mode first_routed_ms rss_mb"
+i=0
+while [ "$i" -lt "$RUNS" ]; do
+    measure standard
+    measure faststart
+    i=$((i + 1))
+done
@@ -0,0 +1,14 @@
+# Sourced by train-cds.sh and startup-benchmark.sh. The fast-start jar is AOT-processed with the
+# production profiles, so the training and benchmark runs use them too (a dev run would load other
+# beans and classes than production). Production settings without defaults get local placeholders;
+# none of these services is reachable at image build time. Values already set are kept.
+PROFILES=${FASTSTART_PROFILES:-prod,faststart}
+
+export REDIS_HOST="${REDIS_HOST:-127.0.0.1}"
+export REDIS_PASSWORD="${REDIS_PASSWORD:-}"
+export REDIS_SSL="${REDIS_SSL:-false}"
+export USER_SERVICE_URL="${USER_SERVICE_URL:-http://127.0.0.1:9}"
+export AUTH_SERVICE_URL="${AUTH_SERVICE_URL:-http://127.0.0.1:9}"
+export ORGANIZATION_SERVICE_URL="${ORGANIZATION_SERVICE_URL:-http://127.0.0.1:9}"
+export CHAT_SERVICE_URL="${CHAT_SERVICE_URL:-http://127.0.0.1:9}"
+export JWT_SECRET="${JWT_SECRET:-cds-training-secret-not-used-outside-the-image-build-0123456789abcdef}"
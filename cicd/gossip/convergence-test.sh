@@ -0,0 +1,126 @@
+#!/bin/sh
+# Gossip rate-limit convergence test: starts several gateway nodes on localhost in edge mode, spreads
+# rate-limited requests across them, and measures how far each node's view of the shared G-counters
+# lags behind the nodes that own the counts, during the load and after it stops.
+#   convergence-test.sh <app.jar> [nodes] [requests]
+# Requires curl and jq. Upstreams need not be reachable: the limiter runs before routing, so
+# consumption is counted even when the circuit breaker answers with a fallback.
+#
+# Error is reported in counts and as a fraction of the total: for every member slot, the largest
+# difference between the owner's value and any other node's copy of it.
+set -eu
+
+JAR=${1:?usage: convergence-test.sh <app.jar> [nodes] [requests]}
+NODES=${2:-3}
+REQUESTS=${3:-3000}
+HTTP_BASE=${GOSSIP_TEST_HTTP_PORT:-8100}
+GOSSIP_BASE=${GOSSIP_TEST_GOSSIP_PORT:-7900}
+INTERVAL=${GOSSIP_TEST_INTERVAL:-50ms}
+LOAD_PATH=/api/v1/auth/login
+METRICS_PATH=/api/v1/gateway/metrics
+
+now_ms() {
+    date +%s%3N
+}
+
+members=""
+i=1
+while [ "$i" -le "$NODES" ]; do
+    members="${members:+$members,}127.0.0.1:$((GOSSIP_BASE + i))"
+    i=$((i + 1))
+done
+
+pids=""
+cleanup() {
+    for pid in $pids; do
+        kill -TERM "$pid" 2>/dev/null || true
+    done
+    wait 2>/dev/null || true
+}
+trap cleanup EXIT INT TERM
+
+# Large budget with a long window: nothing is rejected and no window rolls over during the test
+i=1
+while [ "$i" -le "$NODES" ]; do
+    java -Dspring.profiles.active=dev,edge \
+        -Dserver.port=$((HTTP_BASE + i)) \
+        -Dserver.shutdown=immediate \
+        -Dgateway.rate-limit.gossip.self=127.0.0.1:$((GOSSIP_BASE + i)) \
+        -Dgateway.rate-limit.gossip.members="$members" \
+        -Dgateway.rate-limit.gossip.interval="$INTERVAL" \
+        -Dgateway.rate-limit.replenish-rate=10000 \
+        -Dgateway.rate-limit.burst-capacity=10000000 \
+        -Dgateway.rate-limit.heavy-hitter.enabled=false \
+        -Dgateway.warmup.enabled=false \
+        -Dgateway.drain.enabled=false \
+        -jar "$JAR" >"gossip-node-$i.log" 2>&1 &
+    pids="$pids $!"
+    i=$((i + 1))
+done
+
+i=1
+while [ "$i" -le "$NODES" ]; do
+    until curl -sf -o /dev/null -m 2 "http://127.0.0.1:$((HTTP_BASE + i))$METRICS_PATH"; do
+        sleep 0.2
+    done
+    i=$((i + 1))
+done
+
+# Largest difference, over all slots, between the owner's count and any other node's copy
+divergence() {
+    views=""
+    i=1
+    while [ "$i" -le "$NODES" ]; do
+        view=$(curl -s -m 2 "http://127.0.0.1:$((HTTP_BASE + i))$METRICS_PATH" \
+            | jq -c '[.data.rate_limit_gossip.members[].slot_total]')
+        views="$views$view
+"
+        i=$((i + 1))
+    done
+    printf '%s' "$views" | jq -s -r '
+        . as $v
+        | ([range(0; $v | length) as $slot | $v[$slot][$slot] as $own
+            | $v[] | ($own - .[$slot]) | if . < 0 then -. else . end] | max) as $error
+        | ([range(0; $v | length) as $slot | $v[$slot][$slot]] | add) as $total
+        | "\($error) \($total) \(if $total > 0 then ($error / $total * 10000 | round / 10000) else 0 end)"'
+}
+
+echo "nodes=$NODES requests=$REQUESTS gossip_interval=$INTERVAL"
+echo "phase t_ms error_counts total_counts error_fraction"
+
+start=$(now_ms)
+(
+    n=0
+    while [ "$n" -lt "$REQUESTS" ]; do
+        node=$((n % NODES + 1))
+        curl -s -o /dev/null -m 5 -X POST -H 'Content-Type: application/json' -d '{}' \
+            "http://127.0.0.1:$((HTTP_BASE + node))$LOAD_PATH" &
+        if [ $((n % 32)) -eq 31 ]; then
+            wait
+        fi
+        n=$((n + 1))
+    done
+    wait
+) &
+load=$!
+
+while kill -0 "$load" 2>/dev/null; do
+    echo "load $(($(now_ms) - start)) $(divergence)"
+    sleep 0.2
+done
+wait "$load" || true
+
+stopped=$(now_ms)
+while :; do
+    result=$(divergence)
+    echo "settle $(($(now_ms) - stopped)) $result"
+    if [ "${result%% *}" = 0 ]; then
+        echo "converged $(($(now_ms) - stopped)) ms after the load stopped"
+        break
+    fi
+    if [ $(($(now_ms) - stopped)) -gt 10000 ]; then
+        echo "not converged within 10 s"
+        exit 1
+    fi
+    sleep 0.02
+done
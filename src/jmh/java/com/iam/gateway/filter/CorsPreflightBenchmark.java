@@ -0,0 +1,94 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One CORS preflight (OPTIONS with Origin, Access-Control-Request-Method and -Headers) answered by
+ * Spring's CorsWebFilter and by PrecomputedCorsWebFilter, both configured from the same gateway.cors:
+ * five exact origins plus one wildcard pattern. origin=exact hits an exact entry, origin=pattern only the
+ * wildcard. The exchange is built inside each benchmark, so both include the same request setup; run with
+ * -prof gc and read gc.alloc.rate.norm for bytes per preflight.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorsPreflightBenchmark {
+
+    private static final String ALLOWED_ORIGINS = "https://app.example.com,https://admin.example.com,"
+            + "https://console.example.com,https://partner.example.net,http://localhost:3000,https://*.preview.example.com";
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    @Param({"exact", "pattern"})
+    public String origin;
+
+    private String requestOrigin;
+    private CorsWebFilter springFilter;
+    private PrecomputedCorsWebFilter precomputedFilter;
+
+    @Setup
+    public void setUp() {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        ApiGatewayProperties.Cors cors = properties.getCors();
+        cors.setAllowedOrigins(ALLOWED_ORIGINS);
+        precomputedFilter = new PrecomputedCorsWebFilter(properties);
+
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(List.of(ALLOWED_ORIGINS.split(",")));
+        configuration.setAllowedMethods(List.of(cors.getAllowedMethods()));
+        configuration.setAllowedHeaders(List.of(cors.getAllowedHeaders()));
+        configuration.setExposedHeaders(List.of(cors.getExposedHeaders()));
+        configuration.setAllowCredentials(cors.isAllowCredentials());
+        configuration.setMaxAge(cors.getMaxAge());
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        springFilter = new CorsWebFilter(source);
+
+        requestOrigin = "exact".equals(origin) ? "https://console.example.com" : "https://pr-1234.preview.example.com";
+    }
+
+    @Benchmark
+    public MockServerWebExchange springCorsWebFilter() {
+        MockServerWebExchange exchange = preflight();
+        springFilter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public MockServerWebExchange precomputedCorsWebFilter() {
+        MockServerWebExchange exchange = preflight();
+        precomputedFilter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange preflight() {
+        return MockServerWebExchange.from(MockServerHttpRequest.options("https://gateway.example.com/api/v1/users/42")
+                .header(HttpHeaders.ORIGIN, requestOrigin)
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "Authorization, Content-Type, Idempotency-Key"));
+    }
+}
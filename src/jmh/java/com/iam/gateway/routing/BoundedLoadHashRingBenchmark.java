@@ -0,0 +1,112 @@
+package com.iam.gateway.routing;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost and load skew of the bounded-load ring with 1,000 instances. The lookup benchmarks hash
+ * keys built in a reused StringBuilder, so they measure hashing plus the binary search and nothing else.
+ * {@link #distributeKeys} places 10M keys once per iteration and reports the busiest and idlest
+ * instance relative to the mean, in per mille, as aux counters (maxPerMilleOfMean, minPerMilleOfMean).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedLoadHashRingBenchmark {
+
+    private static final int INSTANCES = 1000;
+    private static final int KEYS = 10_000_000;
+
+    @Param({"40", "160"})
+    public int virtualNodes;
+
+    private BoundedLoadHashRing ring;
+    private final StringBuilder key = new StringBuilder(16);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<URI> instances = new ArrayList<>(INSTANCES);
+        for (int i = 0; i < INSTANCES; i++) {
+            instances.add(URI.create("http://10.1." + (i / 250) + "." + (i % 250) + ":8080"));
+        }
+        ring = new BoundedLoadHashRing(instances, virtualNodes, 1.25);
+    }
+
+    @Benchmark
+    public int primary() {
+        return ring.primary(nextKey());
+    }
+
+    @Benchmark
+    public int acquireAndRelease() {
+        int instance = ring.acquire(nextKey());
+        ring.release(instance);
+        return instance;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void distributeKeys(Skew skew) {
+        int[] counts = new int[INSTANCES];
+        for (int i = 0; i < KEYS; i++) {
+            key.setLength(0);
+            key.append("user-").append(i);
+            counts[ring.primary(key)]++;
+        }
+        double mean = (double) KEYS / INSTANCES;
+        int max = 0;
+        int min = Integer.MAX_VALUE;
+        for (int count : counts) {
+            max = Math.max(max, count);
+            min = Math.min(min, count);
+        }
+        skew.maxPerMilleOfMean = Math.round(max * 1000 / mean);
+        skew.minPerMilleOfMean = Math.round(min * 1000 / mean);
+    }
+
+    private CharSequence nextKey() {
+        key.setLength(0);
+        key.append("user-").append(next++ % KEYS);
+        return key;
+    }
+
+    /**
+     * Spread of the last 10M-key placement; 1000 means exactly the mean load
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Skew {
+
+        public long maxPerMilleOfMean;
+        public long minPerMilleOfMean;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            maxPerMilleOfMean = 0;
+            minPerMilleOfMean = 0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.iam.gateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iam.gateway.config.ApiGatewayProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifying one HS256 access token: FastJwtVerifier.verify against the jjwt parse that
+ * JwtTokenProvider.validateToken performs (signing key from Keys.hmacShaKeyFor over the secret bytes,
+ * result wrapped in a Mono, failures surfacing as exceptions). The parser is built once here; any
+ * per-call work the provider does beyond the parse is not included, so the measured gap is a lower bound.
+ * token=valid, expired (good signature, exp in the past) or malformed (payload is not JSON). Run with
+ * -prof gc and read gc.alloc.rate.norm for bytes per verification.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-that-is-long-enough-for-every-hmac-algorithm!!";
+
+    @Param({"valid", "expired", "malformed"})
+    public String token;
+
+    private String value;
+    private JwtKeyring keyring;
+    private FastJwtVerifier fastJwtVerifier;
+    private JwtParser parser;
+
+    @Setup
+    public void setUp() throws Exception {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getJwt().setSecret(SECRET);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        keyring = new JwtKeyring(properties, null, new ObjectMapper(), meterRegistry);
+        fastJwtVerifier = new FastJwtVerifier(properties, keyring, meterRegistry);
+
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        long now = System.currentTimeMillis();
+        value = switch (token) {
+            case "valid" -> Jwts.builder().setSubject("alice").claim("roles", List.of("USER"))
+                    .setIssuedAt(new Date(now)).setExpiration(new Date(now + 3_600_000))
+                    .signWith(key, SignatureAlgorithm.HS256).compact();
+            case "expired" -> Jwts.builder().setSubject("alice").claim("roles", List.of("USER"))
+                    .setIssuedAt(new Date(now - 7_200_000)).setExpiration(new Date(now - 3_600_000))
+                    .signWith(key, SignatureAlgorithm.HS256).compact();
+            default -> "eyJhbGciOiJIUzI1NiJ9.bm90LWpzb24.c2lnbmF0dXJl";
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        keyring.destroy();
+    }
+
+    @Benchmark
+    public JwtVerification fastJwtVerifier() {
+        return fastJwtVerifier.verify(value);
+    }
+
+    @Benchmark
+    public Claims providerParse() {
+        return Mono.fromCallable(() -> parser.parseClaimsJws(value).getBody())
+                .onErrorResume(e -> Mono.empty())
+                .block();
+    }
+}
@@ -0,0 +1,178 @@
+package com.iam.gateway.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency Store - Shared record of Idempotency-Keys and their responses
+ * - Redis holds the source of truth: a pending marker (SET NX, short TTL) while the original runs,
+ *   then the completed response for the configured TTL
+ * - Completed entries are also kept in a small local cache so hot retries skip Redis
+ * - Duplicates of a request running on this instance wait on an in-process signal; duplicates of one
+ *   running elsewhere poll Redis until it completes or the wait times out
+ * - Without Redis (edge mode) the store is off and requests pass through without deduplication
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private final ApiGatewayProperties.Idempotency settings;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, IdempotentResponse> hotKeys;
+    private final Map<String, Sinks.One<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(ApiGatewayProperties properties, @Nullable ReactiveRedisTemplate<String, String> redisTemplate,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.settings = properties.getIdempotency();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.hotKeys = Caffeine.newBuilder()
+                .maximumSize(settings.getLocalMaxEntries())
+                .expireAfterWrite(settings.getLocalTtl())
+                .build();
+
+        Gauge.builder(GatewayConstants.IDEMPOTENCY_METRIC_PREFIX + ".in_flight", inFlight, Map::size)
+                .register(meterRegistry);
+
+        if (settings.isEnabled() && redisTemplate == null) {
+            log.warn("gateway.idempotency is enabled but Redis is not configured; Idempotency-Keys are ignored");
+        }
+        log.info("Idempotency store initialized (enabled: {}, ttl: {}, routes: {})",
+                isEnabled(), settings.getTtl(), settings.getRoutes());
+    }
+
+    public boolean isEnabledFor(String routeId) {
+        return isEnabled() && settings.getRoutes().contains(routeId);
+    }
+
+    private boolean isEnabled() {
+        return settings.isEnabled() && redisTemplate != null;
+    }
+
+    public ApiGatewayProperties.Idempotency getSettings() {
+        return settings;
+    }
+
+    /**
+     * Current state of a key: local hot cache first, then Redis
+     */
+    public Mono<IdempotentResponse> lookup(String key) {
+        IdempotentResponse local = hotKeys.getIfPresent(key);
+        if (local != null) {
+            return Mono.just(local);
+        }
+        return redisTemplate.opsForValue().get(redisKey(key))
+                .flatMap(this::decode)
+                .doOnNext(entry -> {
+                    if (entry.completed()) {
+                        hotKeys.put(key, entry);
+                    }
+                });
+    }
+
+    /**
+     * Claim a key for this request; true when this caller owns it and must run the request
+     */
+    public Mono<Boolean> tryAcquire(String key, String fingerprint) {
+        return encode(IdempotentResponse.pending(fingerprint))
+                .flatMap(value -> redisTemplate.opsForValue().setIfAbsent(redisKey(key), value, settings.getInFlightTtl()))
+                .doOnNext(acquired -> {
+                    if (acquired) {
+                        inFlight.put(key, Sinks.one());
+                    }
+                });
+    }
+
+    /**
+     * Store the owner's response and release any local waiters
+     */
+    public Mono<Void> complete(String key, IdempotentResponse response) {
+        hotKeys.put(key, response);
+        Sinks.One<IdempotentResponse> waiters = inFlight.remove(key);
+        if (waiters != null) {
+            waiters.tryEmitValue(response);
+        }
+        return encode(response)
+                .flatMap(value -> redisTemplate.opsForValue().set(redisKey(key), value, settings.getTtl()))
+                .then();
+    }
+
+    /**
+     * Forget a key whose request produced nothing worth replaying, so the next retry runs again
+     */
+    public Mono<Void> release(String key) {
+        Sinks.One<IdempotentResponse> waiters = inFlight.remove(key);
+        if (waiters != null) {
+            waiters.tryEmitEmpty();
+        }
+        return redisTemplate.opsForValue().delete(redisKey(key)).then();
+    }
+
+    /**
+     * Wait for the original request to complete; empty if it was released or the wait timed out
+     */
+    public Mono<IdempotentResponse> awaitCompletion(String key) {
+        Sinks.One<IdempotentResponse> local = inFlight.get(key);
+        Mono<IdempotentResponse> completion = local != null
+                ? local.asMono()
+                : Flux.interval(settings.getPollInterval())
+                        .concatMap(tick -> redisTemplate.opsForValue().get(redisKey(key))
+                                .flatMap(this::decode)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty()))
+                        .filter(entry -> entry.isEmpty() || entry.get().completed())
+                        .next()
+                        .flatMap(Mono::justOrEmpty);
+        return completion.timeout(settings.getWaitTimeout(), Mono.empty());
+    }
+
+    public void recordOutcome(String outcome) {
+        outcomeCounters.computeIfAbsent(outcome, name -> Counter.builder(GatewayConstants.IDEMPOTENCY_METRIC_PREFIX + ".requests")
+                        .tag(GatewayConstants.METRIC_TAG_OUTCOME, name)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private String redisKey(String key) {
+        return GatewayConstants.REDIS_IDEMPOTENCY_PREFIX + key;
+    }
+
+    private Mono<String> encode(IdempotentResponse response) {
+        try {
+            return Mono.just(objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private Mono<IdempotentResponse> decode(String value) {
+        try {
+            return Mono.just(objectMapper.readValue(value, IdempotentResponse.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable idempotency entry: {}", e.getMessage());
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.iam.gateway.cache;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Idempotent Response - State of one Idempotency-Key
+ * A pending entry only carries the request fingerprint; a completed one also carries the stored response
+ * status, replayable headers and body.
+ */
+public record IdempotentResponse(
+        boolean completed,
+        String fingerprint,
+        int status,
+        Map<String, List<String>> headers,
+        byte[] body,
+        long storedAtMillis
+) {
+
+    public static IdempotentResponse pending(String fingerprint) {
+        return new IdempotentResponse(false, fingerprint, 0, null, null, System.currentTimeMillis());
+    }
+
+    public static IdempotentResponse completed(String fingerprint, int status, Map<String, List<String>> headers, byte[] body) {
+        return new IdempotentResponse(true, fingerprint, status, headers, body, System.currentTimeMillis());
+    }
+}
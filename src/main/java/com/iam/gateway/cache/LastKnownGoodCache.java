@@ -0,0 +1,137 @@
+package com.iam.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last-Known-Good Cache - Bounded store of successful GET responses served when a circuit opens
+ * - Total memory bounded by max-bytes (entries weighed by body size)
+ * - Each entry expires after its route's TTL
+ * - Stale serves are counted per route
+ */
+@Component
+@Slf4j
+public class LastKnownGoodCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final ApiGatewayProperties.StaleCache settings;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, StaleResponse> cache;
+    private final Map<String, Counter> staleServeCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> storeCounters = new ConcurrentHashMap<>();
+
+    public LastKnownGoodCache(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getFallback().getStaleCache();
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaxBytes())
+                .<String, StaleResponse>weigher((key, response) -> response.body().length + key.length() + ENTRY_OVERHEAD_BYTES)
+                .expireAfter(new RouteTtlExpiry())
+                .build();
+
+        Gauge.builder(GatewayConstants.STALE_CACHE_METRIC_PREFIX + ".bytes", this, LastKnownGoodCache::usedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(GatewayConstants.STALE_CACHE_METRIC_PREFIX + ".entries", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+
+        log.info("Last-known-good cache initialized (enabled: {}, maxBytes: {}, maxEntryBytes: {}, routes: {})",
+                settings.isEnabled(), settings.getMaxBytes(), settings.getMaxEntryBytes(), settings.getRoutes());
+    }
+
+    /**
+     * Whether a route records last-known-good copies
+     */
+    public boolean isEnabledFor(String routeId) {
+        return settings.isEnabled() && settings.getRoutes().containsKey(routeId);
+    }
+
+    public int getMaxEntryBytes() {
+        return settings.getMaxEntryBytes();
+    }
+
+    public void store(String key, String routeId, int status, String contentType, String contentEncoding, byte[] body) {
+        Duration ttl = settings.getRoutes().get(routeId);
+        if (ttl == null || body.length > settings.getMaxEntryBytes()) {
+            return;
+        }
+        cache.put(key, new StaleResponse(routeId, status, contentType, contentEncoding, body,
+                System.currentTimeMillis(), ttl.toNanos()));
+        counter(storeCounters, ".stored", routeId).increment();
+    }
+
+    public StaleResponse lookup(String key) {
+        return key != null ? cache.getIfPresent(key) : null;
+    }
+
+    public void recordStaleServe(String routeId) {
+        counter(staleServeCounters, ".served", routeId).increment();
+    }
+
+    /**
+     * Configuration and counters for the gateway metrics endpoint
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Long> serves = new HashMap<>();
+        staleServeCounters.forEach((routeId, counter) -> serves.put(routeId, (long) counter.count()));
+
+        Map<String, String> ttls = new HashMap<>();
+        settings.getRoutes().forEach((routeId, ttl) -> ttls.put(routeId, ttl.toString()));
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put(GatewayConstants.ENABLED_KEY, settings.isEnabled());
+        snapshot.put(GatewayConstants.MAX_BYTES_KEY, settings.getMaxBytes());
+        snapshot.put(GatewayConstants.USED_BYTES_KEY, usedBytes());
+        snapshot.put(GatewayConstants.ENTRIES_KEY, cache.estimatedSize());
+        snapshot.put(GatewayConstants.ROUTE_TTLS_KEY, ttls);
+        snapshot.put(GatewayConstants.STALE_SERVES_KEY, serves);
+        return snapshot;
+    }
+
+    private long usedBytes() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private Counter counter(Map<String, Counter> counters, String suffix, String routeId) {
+        return counters.computeIfAbsent(routeId, id -> Counter.builder(GatewayConstants.STALE_CACHE_METRIC_PREFIX + suffix)
+                .tag(GatewayConstants.METRIC_TAG_ROUTE, id)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Entries carry their route TTL; reads do not extend it
+     */
+    private static class RouteTtlExpiry implements Expiry<String, StaleResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, StaleResponse response, long currentTime) {
+            return response.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, StaleResponse response, long currentTime, long currentDuration) {
+            return response.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, StaleResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.iam.gateway.cache;
+
+/**
+ * Stale Response - Last-known-good copy of a successful GET response
+ * The body is kept exactly as the upstream encoded it; contentEncoding is null for identity.
+ */
+public record StaleResponse(
+        String routeId,
+        int status,
+        String contentType,
+        String contentEncoding,
+        byte[] body,
+        long storedAtMillis,
+        long ttlNanos
+) {
+
+    public long ageSeconds() {
+        return Math.max(0, (System.currentTimeMillis() - storedAtMillis) / 1000);
+    }
+}
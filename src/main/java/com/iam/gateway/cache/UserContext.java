@@ -0,0 +1,48 @@
+package com.iam.gateway.cache;
+
+import com.iam.gateway.constants.GatewayConstants;
+
+import java.util.List;
+
+/**
+ * User Context - Roles and organization membership for an authenticated subject
+ * Header values and the permission bitset are built once at load time so requests never rebuild them
+ */
+public record UserContext(
+        String subject,
+        List<String> roles,
+        List<String> organizationIds,
+        String rolesHeader,
+        String organizationIdsHeader,
+        long[] permissionBits,
+        boolean resolved
+) {
+
+    private static final long[] NO_PERMISSIONS = new long[0];
+
+    public static UserContext of(String subject, List<String> roles, List<String> organizationIds, long[] permissionBits) {
+        return new UserContext(
+                subject,
+                List.copyOf(roles),
+                List.copyOf(organizationIds),
+                String.join(GatewayConstants.USER_CONTEXT_VALUE_SEPARATOR, roles),
+                String.join(GatewayConstants.USER_CONTEXT_VALUE_SEPARATOR, organizationIds),
+                permissionBits,
+                true
+        );
+    }
+
+    /**
+     * Synthetic context for warm-up requests - resolved, without roles or organizations; never cached
+     */
+    public static UserContext warmup(String subject) {
+        return new UserContext(subject, List.of(), List.of(), "", "", NO_PERMISSIONS, true);
+    }
+
+    /**
+     * Negative entry - user-service had no context for this subject (or could not be reached)
+     */
+    public static UserContext unresolved(String subject) {
+        return new UserContext(subject, List.of(), List.of(), "", "", NO_PERMISSIONS, false);
+    }
+}
@@ -0,0 +1,171 @@
+package com.iam.gateway.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.security.AuthorizationPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Refresh-ahead User Context Cache
+ * Loads roles and organization IDs from user-service, keyed by JWT subject.
+ * - Bounded by maximum size
+ * - Entries are refreshed asynchronously after refresh-after; readers keep getting the current value
+ * - Concurrent misses for the same subject share a single in-flight load (no stampede)
+ * - Missing users are cached as unresolved entries for negative-ttl; failed loads are not cached,
+ *   the caller gets an unresolved context and the next request tries again
+ * - A load made for a request runs in that request's Reactor context, so the user-service call joins its
+ *   trace (a shared load joins the first caller's); background refreshes start their own trace
+ */
+@Component
+@Slf4j
+public class UserContextCache {
+
+    private final ApiGatewayProperties.UserContext settings;
+    private final WebClient userServiceClient;
+    private final AuthorizationPolicy authorizationPolicy;
+    private final AsyncLoadingCache<String, UserContext> cache;
+
+    public UserContextCache(ApiGatewayProperties properties,
+                            WebClient.Builder webClientBuilder,
+                            AuthorizationPolicy authorizationPolicy,
+                            MeterRegistry meterRegistry) {
+        this.settings = properties.getUserContext();
+        this.authorizationPolicy = authorizationPolicy;
+        this.userServiceClient = webClientBuilder.clone()
+                .baseUrl(properties.getServices().getUserServiceUrl())
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .refreshAfterWrite(settings.getRefreshAfter())
+                .expireAfter(new UserContextExpiry())
+                .recordStats()
+                .buildAsync(new UserContextLoader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, GatewayConstants.USER_CONTEXT_CACHE_NAME);
+        log.info("User context cache initialized (enabled: {}, maximumSize: {}, refreshAfter: {}, expireAfter: {})",
+                settings.isEnabled(), settings.getMaximumSize(), settings.getRefreshAfter(), settings.getExpireAfter());
+    }
+
+    /**
+     * Get the context for a subject. Completes immediately for cached subjects, including
+     * while a background refresh is in flight.
+     */
+    public Mono<UserContext> get(String subject) {
+        if (!settings.isEnabled()) {
+            return Mono.just(UserContext.unresolved(subject));
+        }
+        // The future is subscribed outside this pipeline, so hand it the caller's context explicitly;
+        // suppressCancel: the future is shared by every caller waiting on the same subject
+        return Mono.deferContextual(context -> Mono.fromFuture(
+                        cache.get(subject, (key, executor) -> fetch(key).contextWrite(context).toFuture()), true))
+                .onErrorResume(error -> {
+                    log.warn("User context load failed for subject {}: {}", subject, error.toString());
+                    return Mono.just(UserContext.unresolved(subject));
+                });
+    }
+
+    /**
+     * Drop a subject so the next request reloads it (e.g. after a role change)
+     */
+    public void invalidate(String subject) {
+        cache.synchronous().invalidate(subject);
+    }
+
+    private Mono<UserContext> fetch(String subject) {
+        return userServiceClient.get()
+                .uri(settings.getContextPath(), Map.of(GatewayConstants.USER_CONTEXT_SUBJECT_VARIABLE, subject))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(body -> toUserContext(subject, body))
+                .defaultIfEmpty(UserContext.unresolved(subject))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(UserContext.unresolved(subject)))
+                .timeout(settings.getLoadTimeout());
+    }
+
+    private UserContext toUserContext(String subject, JsonNode body) {
+        // user-service may wrap the payload in an ApiResponse envelope
+        JsonNode data = body.has(GatewayConstants.USER_CONTEXT_DATA_FIELD)
+                ? body.get(GatewayConstants.USER_CONTEXT_DATA_FIELD)
+                : body;
+        List<String> roles = textValues(data.get(GatewayConstants.USER_CONTEXT_ROLES_FIELD));
+        return UserContext.of(
+                subject,
+                roles,
+                textValues(data.get(GatewayConstants.USER_CONTEXT_ORG_IDS_FIELD)),
+                authorizationPolicy.compileRoles(roles)
+        );
+    }
+
+    private List<String> textValues(JsonNode node) {
+        if (node == null || !node.isArray()) {
+            return List.of();
+        }
+        List<String> values = new ArrayList<>(node.size());
+        node.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    /**
+     * Failed loads complete exceptionally: Caffeine drops a failed first load and keeps the old value on a failed reload.
+     * Request-path loads go through get(); this loader serves refreshes, which belong to no request.
+     */
+    private class UserContextLoader implements AsyncCacheLoader<String, UserContext> {
+
+        @Override
+        public CompletableFuture<UserContext> asyncLoad(String subject, Executor executor) {
+            return fetch(subject).toFuture();
+        }
+
+        @Override
+        public CompletableFuture<UserContext> asyncReload(String subject, UserContext oldValue, Executor executor) {
+            return fetch(subject)
+                    .doOnError(error -> log.debug("User context refresh failed for subject {}, keeping cached value: {}",
+                            subject, error.toString()))
+                    .toFuture();
+        }
+    }
+
+    /**
+     * Resolved entries live for expire-after, unresolved (negative) entries for negative-ttl
+     */
+    private class UserContextExpiry implements Expiry<String, UserContext> {
+
+        @Override
+        public long expireAfterCreate(String subject, UserContext context, long currentTime) {
+            return ttlFor(context);
+        }
+
+        @Override
+        public long expireAfterUpdate(String subject, UserContext context, long currentTime, long currentDuration) {
+            return ttlFor(context);
+        }
+
+        @Override
+        public long expireAfterRead(String subject, UserContext context, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long ttlFor(UserContext context) {
+            return context.resolved()
+                    ? settings.getExpireAfter().toNanos()
+                    : settings.getNegativeTtl().toNanos();
+        }
+    }
+}
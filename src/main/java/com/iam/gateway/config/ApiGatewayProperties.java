@@ -3,6 +3,10 @@ package com.iam.gateway.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Centralized Configuration Properties for API Gateway
@@ -18,6 +22,22 @@ public class ApiGatewayProperties {
     private Jwt jwt = new Jwt();
     private Fallback fallback = new Fallback();
     private WebClient webClient = new WebClient();
+    private UserContext userContext = new UserContext();
+    private Authorization authorization = new Authorization();
+    private Bulkhead bulkhead = new Bulkhead();
+    private Transport transport = new Transport();
+    private Dns dns = new Dns();
+    private EventLoopMonitor eventLoopMonitor = new EventLoopMonitor();
+    private LoadShedding loadShedding = new LoadShedding();
+    private ServerTiming serverTiming = new ServerTiming();
+    private Tracing tracing = new Tracing();
+    private Warmup warmup = new Warmup();
+    private Drain drain = new Drain();
+    private Deadline deadline = new Deadline();
+    private Mirror mirror = new Mirror();
+    private Batch batch = new Batch();
+    private Idempotency idempotency = new Idempotency();
+    private StickyRouting stickyRouting = new StickyRouting();
 
     @Data
     public static class Services {
@@ -31,7 +51,7 @@ public class ApiGatewayProperties {
     @Data
     public static class Cors {
         private String allowedOrigins = "*";
-        private String[] allowedMethods = {"GET", "POST", "PUT", "DELETE", "OPTIONS"};
+        private String[] allowedMethods = {"GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"}; // "*" = any
         private String[] allowedHeaders = {"*"};
         private String[] exposedHeaders = {"Authorization", "X-Gateway-Response", "X-Gateway-Version", "X-Service-Route"};
         private boolean allowCredentials = true;
@@ -43,19 +63,77 @@ public class ApiGatewayProperties {
         private int replenishRate = 10;
         private int burstCapacity = 20;
         private int requestedTokens = 1;
+        private RateLimitMode mode = RateLimitMode.REDIS;
+        private Gossip gossip = new Gossip();
+        private HeavyHitter heavyHitter = new HeavyHitter();
+    }
+
+    public enum RateLimitMode {
+        REDIS, // token buckets in Redis
+        GOSSIP // G-counters shared between gateway nodes over UDP; no Redis on the request path
+    }
+
+    @Data
+    public static class Gossip {
+        private String self; // host:port of this node; must appear in members
+        private List<String> members = new ArrayList<>(); // host:port of every node, same list and order everywhere
+        private String bindHost = "0.0.0.0";
+        private Duration interval = Duration.ofMillis(50); // changed counters reach peers within this
+        private int fullSyncRounds = 20; // every Nth round sends all counters, repairing lost datagrams
+        private int maxDatagramBytes = 1400; // stay under a typical MTU
+        private Duration peerTimeout = Duration.ofSeconds(5); // a peer silent this long marks gossip unhealthy
+        private Duration seedTimeout = Duration.ofSeconds(1); // startup wait for a peer's counters; 0 = don't wait
+    }
+
+    @Data
+    public static class HeavyHitter {
+        private boolean enabled = true;
+        private int depth = 4;
+        private int width = 16384; // depth * width int counters, fixed regardless of attacker count
+        private Duration decayInterval = Duration.ofSeconds(10); // all counts halve every interval
+        private long ipThreshold = 300; // decayed count; steady state is about 2x the per-interval rate
+        private long usernameThreshold = 30;
+        private int topK = 50;
+        private List<String> paths = new ArrayList<>(List.of("/api/v1/auth/login"));
+        private int maxBodyBytes = 4096; // larger POST bodies on these paths are refused with 413
     }
 
     @Data
     public static class Jwt {
-        private String secret = "dev-secret-key";
+        private String secret = "dev-secret-key-for-local-development-only-do-not-use-in-production"; // HMAC needs >= 32/48/64 bytes for HS256/384/512
         private long expiration = 86400000; // 24 hours
         private long refreshExpiration = 604800000; // 7 days
+        private boolean fastPath = true; // verify keyring algorithms in the gateway without JwtTokenProvider
+        private boolean fastPathRejectionsFinal = false; // false = tokens the fast path rejects get a second look from JwtTokenProvider
+        private String secretEncoding = "utf-8"; // how HMAC secrets become key bytes: utf-8 or base64, as in JwtTokenProvider
+        private List<SigningKey> keys = new ArrayList<>(); // kid-indexed keys; tokens without kid use secret
+        private String keysFile = ""; // JSON {"keys":[...]} re-read when modified
+        private String keysRedisKey = ""; // Redis string holding the same JSON
+        private Duration keysReloadInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class SigningKey {
+        private String kid;
+        private String algorithm = "HS256"; // HS256/384/512, RS256/384/512, ES256/384/512
+        private String secret; // HMAC keys
+        private String publicKey; // RSA/EC keys, PEM SubjectPublicKeyInfo
     }
 
     @Data
     public static class Fallback {
         private int retryAfterSeconds = 60;
         private String defaultMessage = "Service temporarily unavailable";
+        private StaleCache staleCache = new StaleCache();
+    }
+
+    @Data
+    public static class StaleCache {
+        private boolean enabled = true;
+        private long maxBytes = 64L * 1024 * 1024; // 64MB across all routes
+        private int maxEntryBytes = 256 * 1024;
+        // Route ID -> how long a last-known-good copy may be served; only listed routes record
+        private Map<String, Duration> routes = new LinkedHashMap<>();
     }
 
     @Data
@@ -67,6 +145,237 @@ public class ApiGatewayProperties {
         private int maxInMemorySize = 1048576;
     }
 
+    @Data
+    public static class Transport {
+        private boolean nativeEnabled = true; // io_uring/epoll when the kernel supports it, NIO otherwise
+        private int serverSelectThreads = 1;
+        private int serverWorkerThreads = 0; // 0 = one per available processor
+        private int clientWorkerThreads = 0; // 0 = one per available processor
+        private boolean tcpNoDelay = true;
+        private boolean soReusePort = false; // native transports only
+        private int tcpFastOpenBacklog = 0; // 0 = TCP fast open disabled on the server socket
+        private boolean tcpFastOpenConnect = false;
+    }
+
+    @Data
+    public static class Dns {
+        private boolean enabled = true; // false = Reactor Netty's default resolver
+        private Duration positiveTtl = Duration.ofSeconds(30);
+        private Duration negativeTtl = Duration.ofSeconds(5);
+        private double refreshAhead = 0.8; // refresh in the background after this fraction of the TTL
+        private Duration maxStale = Duration.ofMinutes(5); // keep serving the last answer this long while DNS fails
+        private Duration idleEviction = Duration.ofMinutes(10); // hosts unused this long are dropped, not refreshed
+        private Duration queryTimeout = Duration.ofSeconds(2);
+        private Duration refreshInterval = Duration.ofSeconds(1);
+        private List<String> nameServers = new ArrayList<>(); // host:port; empty = system resolv.conf
+    }
+
+    @Data
+    public static class EventLoopMonitor {
+        private boolean enabled = true;
+        private Duration probeInterval = Duration.ofMillis(100);
+        private Duration stallThreshold = Duration.ofMillis(100);
+        private boolean blockingDetection = false; // capture stack traces of stalled loops (tests, diagnostics)
+        private int maxBlockingReports = 20;
+    }
+
+    @Data
+    public static class Batch {
+        private boolean enabled = true;
+        private int maxItems = 20;
+        private int maxConcurrency = 6; // sub-requests in flight per batch
+        private int maxItemBytes = 1048576;
+        private long maxResponseBytes = 4194304; // items past this budget are answered with 413
+        private Duration itemTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Idempotency {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofHours(24); // how long a stored response answers retries
+        private Duration inFlightTtl = Duration.ofSeconds(30); // pending marker expiry if the owner dies mid-request
+        private Duration waitTimeout = Duration.ofSeconds(10); // concurrent duplicates wait this long, then get 409
+        private Duration pollInterval = Duration.ofMillis(100); // Redis poll when the original runs on another instance
+        private int maxKeyLength = 255;
+        private int maxRequestBytes = 1048576;
+        private int maxResponseBytes = 262144; // larger responses are not stored; retries reach upstream
+        private int localMaxEntries = 10000;
+        private Duration localTtl = Duration.ofMinutes(1);
+        // JWT-protected routes only: keys are scoped by the authenticated subject, and public routes
+        // (login, token refresh) carry credentials that must never be stored or replayed
+        private List<String> routes = new ArrayList<>(List.of("user-service-protected", "organization-service"));
+    }
+
+    @Data
+    public static class StickyRouting {
+        private boolean enabled = true;
+        private int virtualNodes = 160; // ring points per instance; more = smoother spread, larger ring
+        private double loadFactor = 1.25; // an instance takes at most this multiple of the average in-flight load
+        private Map<String, StickyRoute> routes = new LinkedHashMap<>(); // route id -> upstream instances
+    }
+
+    @Data
+    public static class StickyRoute {
+        private String keyHeader = "X-User-Id";
+        private List<String> instances = new ArrayList<>(); // empty = route keeps its single configured URI
+    }
+
+    @Data
+    public static class ServerTiming {
+        private boolean enabled = false; // off: route filters are not wrapped at all
+        private double sampleRate = 0.0; // fraction of requests that get the Server-Timing header
+        private String debugHeader = "X-Debug-Timing"; // request header forcing the Server-Timing header
+    }
+
+    @Data
+    public static class Tracing {
+        private boolean accessLog = true; // one line per request with trace, span and request IDs
+        private int maxRequestIdLength = 128; // longer incoming X-Request-ID values are replaced by the trace ID
+    }
+
+    @Data
+    public static class Warmup {
+        private boolean enabled = true;
+        private WarmupTarget target = WarmupTarget.STUB;
+        private Duration timeBudget = Duration.ofSeconds(45); // readiness passes at the latest after this
+        private int concurrency = 16;
+        private int roundSize = 500;
+        private int minRequests = 3000;
+        private Duration jitPlateau = Duration.ofMillis(25); // compile time per round below which the JIT counts as settled
+        private int plateauRounds = 2; // consecutive settled rounds needed
+        private int syntheticUsers = 64; // distinct token subjects, so per-user rate limits admit enough traffic
+        private Duration requestTimeout = Duration.ofSeconds(2);
+        private int connectionsPerUpstream = 4; // opened concurrently, then kept in the routing pool
+        private String upstreamPath = "/actuator/health";
+        private boolean readOnly = true; // send only GET, HEAD and OPTIONS requests; others are skipped
+        private List<WarmupRequest> requests = new ArrayList<>();
+    }
+
+    @Data
+    public static class Drain {
+        private boolean enabled = true;
+        private Duration propagationDelay = Duration.ofSeconds(5); // keep serving while load balancers notice readiness is down
+        private Duration budget = Duration.ofSeconds(15); // in-flight requests still running after this are cut off
+        private Duration poolCloseTimeout = Duration.ofSeconds(3); // with the 5s shutdown phase: 28s, inside the default 30s grace period
+    }
+
+    public enum WarmupTarget {
+        STUB, // routed requests are answered by the gateway's loopback stub
+        UPSTREAM // routed requests go to the real upstreams (point requests at their warm-up endpoints)
+    }
+
+    @Data
+    public static class WarmupRequest {
+        private String method = "GET";
+        private String path;
+        private boolean authenticated = true; // send a synthetic JWT signed with gateway.jwt.secret
+        private String body;
+    }
+
+    @Data
+    public static class LoadShedding {
+        private boolean enabled = true;
+        private Duration evaluationInterval = Duration.ofMillis(50);
+        private Duration recoveryInterval = Duration.ofSeconds(1); // minimum time between step-downs
+        private Duration maxEventLoopLag = Duration.ofMillis(50);
+        private Duration recoverEventLoopLag = Duration.ofMillis(20);
+        private int maxInFlight = 5000;
+        private int recoverInFlight = 4000;
+        private int maxPendingAcquire = 200;
+        private int recoverPendingAcquire = 50;
+        private List<SheddingTier> tiers = new ArrayList<>(); // matched in order, first match wins
+    }
+
+    @Data
+    public static class SheddingTier {
+        private String name;
+        private int priority; // 0 = most important, never shed
+        private List<String> routeIds = new ArrayList<>();
+        private List<String> paths = new ArrayList<>();
+        private Boolean authenticated; // null = either
+    }
+
+    @Data
+    public static class Bulkhead {
+        private boolean enabled = true;
+        private BulkheadRoute defaults = new BulkheadRoute();
+        // Route ID -> limits; routes not listed use the defaults
+        private Map<String, BulkheadRoute> routes = new LinkedHashMap<>();
+
+        public BulkheadRoute forRoute(String routeId) {
+            return routes.getOrDefault(routeId, defaults);
+        }
+    }
+
+    @Data
+    public static class Deadline {
+        private boolean enabled = true;
+        private Duration defaultTimeout = Duration.ofSeconds(30);
+        private Duration minUpstreamBudget = Duration.ofMillis(10); // less left at routing time: 504 without calling upstream
+        // Route ID -> budget from arrival to upstream response headers; X-Request-Timeout can only shorten it
+        private Map<String, Duration> routes = new LinkedHashMap<>();
+
+        public Duration forRoute(String routeId) {
+            return routes.getOrDefault(routeId, defaultTimeout);
+        }
+    }
+
+    @Data
+    public static class Mirror {
+        private boolean enabled = false;
+        private int maxInFlight = 64; // shadow requests past this are dropped, never queued
+        private int maxConnections = 32; // own pool; never shares the routing pool
+        private int eventLoopThreads = 1; // own loops; never runs on the gateway's client loops
+        private int maxBodyBytes = 65536; // requests with larger bodies are not mirrored
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private Duration responseTimeout = Duration.ofSeconds(10);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        // Route ID -> shadow backend; only listed routes are mirrored
+        private Map<String, MirrorRoute> routes = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class MirrorRoute {
+        private String url; // shadow base URL; the request's path and query are appended
+        private double sampleRate = 0.01;
+    }
+
+    @Data
+    public static class BulkheadRoute {
+        private int maxConcurrent = 200;
+        private int maxQueue = 0; // 0 = reject as soon as all permits are taken
+        private Duration maxWait = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class UserContext {
+        private boolean enabled = true;
+        private String contextPath = "/api/v1/users/{subject}/context";
+        private long maximumSize = 100000;
+        private Duration refreshAfter = Duration.ofMinutes(4);
+        private Duration expireAfter = Duration.ofMinutes(10);
+        private Duration negativeTtl = Duration.ofSeconds(30);
+        private Duration loadTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Authorization {
+        private boolean enabled = true;
+        // Role -> granted permissions; roles not listed here grant nothing
+        private Map<String, List<String>> rolePermissions = new LinkedHashMap<>();
+        private List<Rule> rules = new ArrayList<>();
+
+        @Data
+        public static class Rule {
+            private String routeId;
+            private List<String> allOf = new ArrayList<>();
+            private List<String> anyOf = new ArrayList<>();
+            // When set, the path segment after this prefix must be one of the user's organization IDs
+            private String tenantPathPrefix;
+            private List<String> tenantBypass = new ArrayList<>();
+        }
+    }
+
     // ===================================================================
     // CONVENIENCE METHODS
     // ===================================================================
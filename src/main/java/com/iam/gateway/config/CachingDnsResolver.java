@@ -0,0 +1,329 @@
+package com.iam.gateway.config;
+
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.InetNameResolver;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.DnsServerAddressStreamProvider;
+import io.netty.resolver.dns.DnsServerAddressStreamProviders;
+import io.netty.resolver.dns.NoopAuthoritativeDnsServerCache;
+import io.netty.resolver.dns.NoopDnsCache;
+import io.netty.resolver.dns.NoopDnsCnameCache;
+import io.netty.resolver.dns.SequentialDnsServerAddressStreamProvider;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caching DNS Resolver - Shared async resolver for upstream hosts with a TTL cache we control
+ * - One Netty DnsNameResolver on its own event loop, with Netty's internal caches disabled
+ * - Positive answers are cached for positive-ttl and refreshed in the background once refresh-ahead
+ *   of the TTL has passed, so hot hosts never expire on the request path
+ * - When a refresh fails, the last good answer keeps being served for up to max-stale
+ * - Failures are cached for negative-ttl; concurrent misses for one host share a single query
+ * Both the routing HttpClient and the WebClient clients use it through GatewayTransport. When disabled
+ * no event loop, resolver or refresh schedule is created and clients keep Reactor Netty's default resolver.
+ */
+@Component
+@Slf4j
+public class CachingDnsResolver implements DisposableBean {
+
+    private final ApiGatewayProperties.Dns settings;
+    private final NioEventLoopGroup dnsLoop;
+    private final EventLoop loop;
+    private final DnsNameResolver dnsResolver;
+    private final AddressResolverGroup<InetSocketAddress> resolverGroup = new CachingResolverGroup();
+    private final Map<String, CachedLookup> cache = new ConcurrentHashMap<>();
+    private final Map<String, Future<List<InetAddress>>> inFlight = new ConcurrentHashMap<>();
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final long refreshAfterNanos;
+    private final long maxStaleNanos;
+    private final long idleEvictionNanos;
+
+    private final Timer resolutionSuccess;
+    private final Timer resolutionFailure;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter negativeHits;
+
+    public CachingDnsResolver(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getDns();
+        this.positiveTtlNanos = settings.getPositiveTtl().toNanos();
+        this.negativeTtlNanos = settings.getNegativeTtl().toNanos();
+        this.refreshAfterNanos = (long) (positiveTtlNanos * Math.min(1.0, Math.max(0.1, settings.getRefreshAhead())));
+        this.maxStaleNanos = settings.getMaxStale().toNanos();
+        this.idleEvictionNanos = settings.getIdleEviction().toNanos();
+
+        this.resolutionSuccess = resolutionTimer(meterRegistry, GatewayConstants.DNS_RESOLUTION_SUCCESS);
+        this.resolutionFailure = resolutionTimer(meterRegistry, GatewayConstants.DNS_RESOLUTION_FAILURE);
+        this.hits = lookupCounter(meterRegistry, GatewayConstants.DNS_LOOKUP_HIT);
+        this.staleHits = lookupCounter(meterRegistry, GatewayConstants.DNS_LOOKUP_STALE);
+        this.misses = lookupCounter(meterRegistry, GatewayConstants.DNS_LOOKUP_MISS);
+        this.negativeHits = lookupCounter(meterRegistry, GatewayConstants.DNS_LOOKUP_NEGATIVE);
+        Gauge.builder(GatewayConstants.DNS_METRIC_PREFIX + ".entries", cache, Map::size).register(meterRegistry);
+
+        if (!settings.isEnabled()) {
+            this.dnsLoop = null;
+            this.loop = null;
+            this.dnsResolver = null;
+            log.info("Upstream DNS cache disabled; clients use Reactor Netty's default resolver");
+            return;
+        }
+
+        this.dnsLoop = new NioEventLoopGroup(1, new DefaultThreadFactory(GatewayConstants.DNS_LOOP_PREFIX, true));
+        this.loop = dnsLoop.next();
+        this.dnsResolver = new DnsNameResolverBuilder(loop)
+                .channelType(NioDatagramChannel.class)
+                .socketChannelType(NioSocketChannel.class) // TCP fallback for truncated answers
+                .resolveCache(NoopDnsCache.INSTANCE)
+                .cnameCache(NoopDnsCnameCache.INSTANCE)
+                .authoritativeDnsServerCache(NoopAuthoritativeDnsServerCache.INSTANCE)
+                .queryTimeoutMillis(settings.getQueryTimeout().toMillis())
+                .nameServerProvider(nameServers())
+                .build();
+
+        long refreshMillis = settings.getRefreshInterval().toMillis();
+        loop.scheduleAtFixedRate(this::refreshDue, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+
+        log.info("Upstream DNS cache initialized (positiveTtl: {}, negativeTtl: {}, maxStale: {}, nameServers: {})",
+                settings.getPositiveTtl(), settings.getNegativeTtl(), settings.getMaxStale(),
+                settings.getNameServers().isEmpty() ? "system" : settings.getNameServers());
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Resolver group for HttpClient.resolver(...); resolvers are created per client event loop
+     */
+    public AddressResolverGroup<InetSocketAddress> addressResolverGroup() {
+        if (!settings.isEnabled()) {
+            throw new IllegalStateException("Upstream DNS cache is disabled");
+        }
+        return resolverGroup;
+    }
+
+    /**
+     * Resolve through the cache, completing the promise on a hit without touching the network
+     */
+    void resolveAll(String host, Promise<List<InetAddress>> promise) {
+        byte[] literal = NetUtil.createByteArrayFromIpAddressString(host);
+        if (literal != null) {
+            try {
+                promise.trySuccess(List.of(InetAddress.getByAddress(host, literal)));
+            } catch (UnknownHostException e) {
+                promise.tryFailure(e);
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        CachedLookup entry = cache.get(host);
+        if (entry != null) {
+            entry.lastUsed = now;
+            List<InetAddress> addresses = entry.addresses;
+            if (addresses != null && now - entry.resolvedAt < positiveTtlNanos + maxStaleNanos) {
+                if (now - entry.resolvedAt < positiveTtlNanos) {
+                    hits.increment();
+                } else {
+                    staleHits.increment();
+                }
+                if (now - entry.resolvedAt >= refreshAfterNanos) {
+                    refresh(host, entry);
+                }
+                promise.trySuccess(addresses);
+                return;
+            }
+            if (addresses == null && now - entry.failedAt < negativeTtlNanos) {
+                negativeHits.increment();
+                promise.tryFailure(new UnknownHostException(host));
+                return;
+            }
+        }
+
+        misses.increment();
+        query(host).addListener(future -> {
+            if (future.isSuccess()) {
+                @SuppressWarnings("unchecked")
+                List<InetAddress> resolved = (List<InetAddress>) future.getNow();
+                promise.trySuccess(resolved);
+            } else {
+                promise.tryFailure(future.cause());
+            }
+        });
+    }
+
+    /**
+     * One network query per host at a time; the result updates the cache, keeping stale answers on failure
+     */
+    private Future<List<InetAddress>> query(String host) {
+        Promise<List<InetAddress>> result = loop.newPromise();
+        Future<List<InetAddress>> existing = inFlight.putIfAbsent(host, result);
+        if (existing != null) {
+            return existing;
+        }
+
+        long started = System.nanoTime();
+        dnsResolver.resolveAll(host).addListener(future -> {
+            long now = System.nanoTime();
+            CachedLookup entry = cache.computeIfAbsent(host, name -> new CachedLookup(now));
+            if (future.isSuccess()) {
+                resolutionSuccess.record(now - started, TimeUnit.NANOSECONDS);
+                @SuppressWarnings("unchecked")
+                List<InetAddress> resolved = List.copyOf((List<InetAddress>) future.getNow());
+                entry.addresses = resolved;
+                entry.resolvedAt = now;
+                inFlight.remove(host, result);
+                result.trySuccess(resolved);
+                return;
+            }
+
+            resolutionFailure.record(now - started, TimeUnit.NANOSECONDS);
+            entry.failedAt = now;
+            if (entry.addresses != null && now - entry.resolvedAt >= positiveTtlNanos + maxStaleNanos) {
+                entry.addresses = null; // stale window exhausted; fall back to negative caching
+            }
+            List<InetAddress> stale = entry.addresses;
+            log.warn("DNS resolution failed for {}{}: {}", host, stale != null ? " (serving stale answer)" : "",
+                    future.cause().toString());
+            inFlight.remove(host, result);
+            if (stale != null) {
+                result.trySuccess(stale);
+            } else {
+                result.tryFailure(future.cause());
+            }
+        });
+        return result;
+    }
+
+    private void refresh(String host, CachedLookup entry) {
+        if (entry.refreshing.compareAndSet(false, true)) {
+            query(host).addListener(future -> entry.refreshing.set(false));
+        }
+    }
+
+    /**
+     * Periodic sweep: refresh hosts still in use before they expire, forget hosts nobody asks for
+     */
+    private void refreshDue() {
+        long now = System.nanoTime();
+        cache.forEach((host, entry) -> {
+            if (now - entry.lastUsed > idleEvictionNanos) {
+                cache.remove(host, entry);
+            } else if (entry.addresses != null && now - entry.resolvedAt >= refreshAfterNanos) {
+                refresh(host, entry);
+            }
+        });
+    }
+
+    private DnsServerAddressStreamProvider nameServers() {
+        if (settings.getNameServers().isEmpty()) {
+            return DnsServerAddressStreamProviders.platformDefault();
+        }
+        List<InetSocketAddress> servers = settings.getNameServers().stream()
+                .map(server -> {
+                    int separator = server.lastIndexOf(':');
+                    return separator > 0
+                            ? new InetSocketAddress(server.substring(0, separator), Integer.parseInt(server.substring(separator + 1)))
+                            : new InetSocketAddress(server, 53);
+                })
+                .toList();
+        return new SequentialDnsServerAddressStreamProvider(servers);
+    }
+
+    private static Timer resolutionTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder(GatewayConstants.DNS_METRIC_PREFIX + ".resolution")
+                .tag(GatewayConstants.METRIC_TAG_OUTCOME, result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(GatewayConstants.DNS_METRIC_PREFIX + ".lookups")
+                .tag(GatewayConstants.METRIC_TAG_OUTCOME, result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        if (dnsLoop == null) {
+            return;
+        }
+        dnsResolver.close();
+        dnsLoop.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Cache entry; addresses == null means the last resolution failed with no usable stale answer
+     */
+    private static final class CachedLookup {
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile List<InetAddress> addresses;
+        private volatile long resolvedAt;
+        private volatile long failedAt;
+        private volatile long lastUsed;
+
+        CachedLookup(long now) {
+            this.lastUsed = now;
+        }
+    }
+
+    /**
+     * Per-event-loop name resolvers all backed by the shared cache
+     */
+    private class CachingResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+        @Override
+        protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+            return new InetNameResolver(executor) {
+                @Override
+                protected void doResolve(String inetHost, Promise<InetAddress> promise) {
+                    Promise<List<InetAddress>> all = executor.newPromise();
+                    all.addListener(future -> {
+                        if (future.isSuccess()) {
+                            @SuppressWarnings("unchecked")
+                            List<InetAddress> addresses = (List<InetAddress>) future.getNow();
+                            promise.trySuccess(addresses.get(0));
+                        } else {
+                            promise.tryFailure(future.cause());
+                        }
+                    });
+                    resolveAll(inetHost, all);
+                }
+
+                @Override
+                protected void doResolveAll(String inetHost, Promise<List<InetAddress>> promise) {
+                    resolveAll(inetHost, promise);
+                }
+            }.asAddressResolver();
+        }
+    }
+}
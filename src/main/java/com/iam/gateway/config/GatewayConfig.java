@@ -2,14 +2,31 @@ package com.iam.gateway.config;
 
 import com.iam.gateway.constants.GatewayConstants;
 import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.filter.AuthorizationFilter;
+import com.iam.gateway.filter.BulkheadFilter;
+import com.iam.gateway.filter.CircuitBreakerFallbackFilter;
+import com.iam.gateway.filter.HeavyHitterFilter;
+import com.iam.gateway.filter.IdempotencyFilter;
 import com.iam.gateway.filter.JwtAuthenticationFilter;
+import com.iam.gateway.filter.LastKnownGoodFilter;
+import com.iam.gateway.filter.RequestDecorationFilter;
+import com.iam.gateway.filter.ServerTimingFilter;
+import com.iam.gateway.filter.TrafficMirrorFilter;
+import com.iam.gateway.ratelimit.GossipCounterStore;
+import com.iam.gateway.ratelimit.GossipRateLimiter;
+import com.iam.gateway.util.ClientAddress;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.web.server.ServerWebExchange;
 
 /**
  * Gateway Configuration - With Redis Rate Limiting
@@ -21,13 +38,25 @@ import org.springframework.context.annotation.Primary;
 public class GatewayConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final AuthorizationFilter authorizationFilter;
+    private final LastKnownGoodFilter lastKnownGoodFilter;
+    private final CircuitBreakerFallbackFilter circuitBreakerFallbackFilter;
+    private final BulkheadFilter bulkheadFilter;
+    private final HeavyHitterFilter heavyHitterFilter;
+    private final IdempotencyFilter idempotencyFilter;
+    private final ServerTimingFilter serverTimingFilter;
+    private final RequestDecorationFilter requestDecorationFilter;
+    private final TrafficMirrorFilter trafficMirrorFilter;
+    private final GossipCounterStore gossipCounterStore;
     private final ApiGatewayProperties properties;
 
     @Bean
-    public RouteLocator gatewayRoutes(RouteLocatorBuilder builder) {
+    public RouteLocator gatewayRoutes(RouteLocatorBuilder builder, RequestRateLimiterGatewayFilterFactory rateLimiterFactory) {
         log.info(GatewayMessages.LOG_CONFIGURING_ROUTES);
         log.info("User Service: {}", properties.getServices().getUserServiceUrl());
         log.info("Auth Service: {}", properties.getServices().getAuthServiceUrl());
+        log.info("Organization Service: {}", properties.getServices().getOrganizationServiceUrl());
+        log.info("Chat Service: {}", properties.getServices().getChatServiceUrl());
 
         return builder.routes()
                 // User Service - Protected Routes with JWT Authentication
@@ -36,18 +65,23 @@ public class GatewayConfig {
                         .and()
                         .not(p -> p.path(GatewayConstants.USERS_HEALTH_PATH)) // Exclude health check
                         .filters(f -> f
-                                .filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config()))
-                                .addRequestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
-                                .addRequestHeader(GatewayConstants.HEADER_SERVICE_ROUTE, GatewayConstants.USER_SERVICE)
-                                .addResponseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.USER_SERVICE)
-                                .requestRateLimiter(config -> config
-                                        .setRateLimiter(redisRateLimiter())
+                                .filter(requestDecorationFilter.apply(new RequestDecorationFilter.Config()
+                                        .requestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
+                                        .requestHeader(GatewayConstants.HEADER_SERVICE_ROUTE, GatewayConstants.USER_SERVICE)
+                                        .responseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.USER_SERVICE)))
+                                .filter(timed(GatewayConstants.STAGE_JWT, jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
+                                .filter(timed(GatewayConstants.STAGE_IDEMPOTENCY, idempotencyFilter.apply(new IdempotencyFilter.Config().routeId(GatewayConstants.USER_SERVICE_PROTECTED_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_RATE_LIMIT, rateLimiterFactory.apply(GatewayConstants.USER_SERVICE_PROTECTED_ROUTE, config -> config
+                                        .setRateLimiter(defaultRateLimiter())
                                         .setKeyResolver(userKeyResolver())
-                                )
-                                .circuitBreaker(config -> config
-                                        .setName(GatewayConstants.USER_SERVICE_CIRCUIT_BREAKER)
-                                        .setFallbackUri(GatewayConstants.USER_SERVICE_FALLBACK)
-                                )
+                                )))
+                                .filter(timed(GatewayConstants.STAGE_STALE_CACHE, lastKnownGoodFilter.apply(new LastKnownGoodFilter.Config().routeId(GatewayConstants.USER_SERVICE_PROTECTED_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_BULKHEAD, bulkheadFilter.apply(new BulkheadFilter.Config().routeId(GatewayConstants.USER_SERVICE_PROTECTED_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_CIRCUIT_BREAKER, circuitBreakerFallbackFilter.apply(new CircuitBreakerFallbackFilter.Config()
+                                        .name(GatewayConstants.USER_SERVICE_CIRCUIT_BREAKER)
+                                        .service(GatewayConstants.USER_SERVICE)
+                                )))
+                                .filter(timed(GatewayConstants.STAGE_MIRROR, trafficMirrorFilter.apply(new TrafficMirrorFilter.Config().routeId(GatewayConstants.USER_SERVICE_PROTECTED_ROUTE))))
                         )
                         .uri(properties.getServices().getUserServiceUrl())
                 )
@@ -56,8 +90,9 @@ public class GatewayConfig {
                 .route(GatewayConstants.USER_SERVICE_HEALTH_ROUTE, r -> r
                         .path(GatewayConstants.USERS_HEALTH_PATH)
                         .filters(f -> f
-                                .addRequestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
-                                .addResponseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.USER_SERVICE + "-health")
+                                .filter(requestDecorationFilter.apply(new RequestDecorationFilter.Config()
+                                        .requestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
+                                        .responseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.USER_SERVICE + "-health")))
                         )
                         .uri(properties.getServices().getUserServiceUrl())
                 )
@@ -66,34 +101,114 @@ public class GatewayConfig {
                 .route(GatewayConstants.AUTH_SERVICE_ROUTE, r -> r
                         .path(GatewayConstants.AUTH_API_PATH)
                         .filters(f -> f
-                                .addRequestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
-                                .addRequestHeader(GatewayConstants.HEADER_SERVICE_ROUTE, GatewayConstants.AUTH_SERVICE)
-                                .addResponseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.AUTH_SERVICE)
-                                .requestRateLimiter(config -> config
-                                        .setRateLimiter(redisRateLimiter())
+                                .filter(requestDecorationFilter.apply(new RequestDecorationFilter.Config()
+                                        .requestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
+                                        .requestHeader(GatewayConstants.HEADER_SERVICE_ROUTE, GatewayConstants.AUTH_SERVICE)
+                                        .responseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.AUTH_SERVICE)))
+                                .filter(timed(GatewayConstants.STAGE_HEAVY_HITTER, heavyHitterFilter.apply(new HeavyHitterFilter.Config())))
+                                .filter(timed(GatewayConstants.STAGE_RATE_LIMIT, rateLimiterFactory.apply(GatewayConstants.AUTH_SERVICE_ROUTE, config -> config
+                                        .setRateLimiter(defaultRateLimiter())
                                         .setKeyResolver(ipKeyResolver()) // Rate limit by IP for auth
-                                )
-                                .circuitBreaker(config -> config
-                                        .setName(GatewayConstants.AUTH_SERVICE_CIRCUIT_BREAKER)
-                                        .setFallbackUri(GatewayConstants.AUTH_SERVICE_FALLBACK)
-                                )
+                                )))
+                                .filter(timed(GatewayConstants.STAGE_BULKHEAD, bulkheadFilter.apply(new BulkheadFilter.Config().routeId(GatewayConstants.AUTH_SERVICE_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_CIRCUIT_BREAKER, circuitBreakerFallbackFilter.apply(new CircuitBreakerFallbackFilter.Config()
+                                        .name(GatewayConstants.AUTH_SERVICE_CIRCUIT_BREAKER)
+                                        .service(GatewayConstants.AUTH_SERVICE)
+                                )))
                         )
                         .uri(properties.getServices().getAuthServiceUrl())
                 )
 
+                // Admin Routes - JWT + role check on every request (served by User Service)
+                .route(GatewayConstants.ADMIN_ROUTES, r -> r
+                        .path(GatewayConstants.ADMIN_API_PATH)
+                        .filters(f -> f
+                                .filter(requestDecorationFilter.apply(new RequestDecorationFilter.Config()
+                                        .requestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
+                                        .requestHeader(GatewayConstants.HEADER_SERVICE_ROUTE, GatewayConstants.ADMIN_SERVICE)
+                                        .requestHeader(GatewayConstants.HEADER_REQUIRES_ADMIN, GatewayConstants.HEADER_VALUE_TRUE)
+                                        .responseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.ADMIN_SERVICE)))
+                                .filter(timed(GatewayConstants.STAGE_JWT, jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
+                                .filter(timed(GatewayConstants.STAGE_AUTHORIZATION, authorizationFilter.apply(new AuthorizationFilter.Config().routeId(GatewayConstants.ADMIN_ROUTES))))
+                                .filter(timed(GatewayConstants.STAGE_RATE_LIMIT, rateLimiterFactory.apply(GatewayConstants.ADMIN_ROUTES, config -> config
+                                        .setRateLimiter(adminRateLimiter())
+                                        .setKeyResolver(userKeyResolver())
+                                )))
+                                .filter(timed(GatewayConstants.STAGE_BULKHEAD, bulkheadFilter.apply(new BulkheadFilter.Config().routeId(GatewayConstants.ADMIN_ROUTES))))
+                                .filter(timed(GatewayConstants.STAGE_CIRCUIT_BREAKER, circuitBreakerFallbackFilter.apply(new CircuitBreakerFallbackFilter.Config()
+                                        .name(GatewayConstants.ADMIN_SERVICE_CIRCUIT_BREAKER)
+                                        .service(GatewayConstants.ADMIN_SERVICE)
+                                )))
+                        )
+                        .uri(properties.getServices().getUserServiceUrl())
+                )
+
+                // Organization Service - Tenant Routes with JWT + membership check
+                .route(GatewayConstants.ORGANIZATION_SERVICE_ROUTE, r -> r
+                        .path(GatewayConstants.ORGANIZATIONS_API_PATH)
+                        .filters(f -> f
+                                .filter(requestDecorationFilter.apply(new RequestDecorationFilter.Config()
+                                        .requestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
+                                        .requestHeader(GatewayConstants.HEADER_SERVICE_ROUTE, GatewayConstants.ORGANIZATION_SERVICE)
+                                        .responseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.ORGANIZATION_SERVICE)))
+                                .filter(timed(GatewayConstants.STAGE_JWT, jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
+                                .filter(timed(GatewayConstants.STAGE_AUTHORIZATION, authorizationFilter.apply(new AuthorizationFilter.Config().routeId(GatewayConstants.ORGANIZATION_SERVICE_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_IDEMPOTENCY, idempotencyFilter.apply(new IdempotencyFilter.Config().routeId(GatewayConstants.ORGANIZATION_SERVICE_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_RATE_LIMIT, rateLimiterFactory.apply(GatewayConstants.ORGANIZATION_SERVICE_ROUTE, config -> config
+                                        .setRateLimiter(defaultRateLimiter())
+                                        .setKeyResolver(userKeyResolver())
+                                )))
+                                .filter(timed(GatewayConstants.STAGE_STALE_CACHE, lastKnownGoodFilter.apply(new LastKnownGoodFilter.Config().routeId(GatewayConstants.ORGANIZATION_SERVICE_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_BULKHEAD, bulkheadFilter.apply(new BulkheadFilter.Config().routeId(GatewayConstants.ORGANIZATION_SERVICE_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_CIRCUIT_BREAKER, circuitBreakerFallbackFilter.apply(new CircuitBreakerFallbackFilter.Config()
+                                        .name(GatewayConstants.ORGANIZATION_SERVICE_CIRCUIT_BREAKER)
+                                        .service(GatewayConstants.ORGANIZATION_SERVICE)
+                                )))
+                        )
+                        .uri(properties.getServices().getOrganizationServiceUrl())
+                )
+
+                // Chat Service - Protected Routes (HTTP and WebSocket upgrades)
+                .route(GatewayConstants.CHAT_SERVICE_ROUTE, r -> r
+                        .path(GatewayConstants.CHAT_API_PATH)
+                        .filters(f -> f
+                                .filter(requestDecorationFilter.apply(new RequestDecorationFilter.Config()
+                                        .requestHeader(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
+                                        .requestHeader(GatewayConstants.HEADER_SERVICE_ROUTE, GatewayConstants.CHAT_SERVICE)
+                                        .responseHeader(GatewayConstants.HEADER_GATEWAY_RESPONSE, GatewayConstants.CHAT_SERVICE)))
+                                .filter(timed(GatewayConstants.STAGE_JWT, jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
+                                .filter(timed(GatewayConstants.STAGE_RATE_LIMIT, rateLimiterFactory.apply(GatewayConstants.CHAT_SERVICE_ROUTE, config -> config
+                                        .setRateLimiter(defaultRateLimiter())
+                                        .setKeyResolver(userKeyResolver())
+                                )))
+                                .filter(timed(GatewayConstants.STAGE_BULKHEAD, bulkheadFilter.apply(new BulkheadFilter.Config().routeId(GatewayConstants.CHAT_SERVICE_ROUTE))))
+                                .filter(timed(GatewayConstants.STAGE_CIRCUIT_BREAKER, circuitBreakerFallbackFilter.apply(new CircuitBreakerFallbackFilter.Config()
+                                        .name(GatewayConstants.CHAT_SERVICE_CIRCUIT_BREAKER)
+                                        .service(GatewayConstants.CHAT_SERVICE)
+                                )))
+                        )
+                        .uri(properties.getServices().getChatServiceUrl())
+                )
+
                 .build();
     }
 
+    /**
+     * Record the filter's pre-phase as a Server-Timing stage (returns the filter itself when timing is off)
+     */
+    private GatewayFilter timed(String stage, GatewayFilter filter) {
+        return serverTimingFilter.timed(stage, filter);
+    }
+
     /**
      * Standard Rate Limiter - Using Properties (PRIMARY for Gateway auto-config)
      */
-    @Bean(GatewayConstants.BEAN_REDIS_RATE_LIMITER)
+    @Bean(GatewayConstants.BEAN_DEFAULT_RATE_LIMITER)
     @Primary
-    public org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter redisRateLimiter() {
-        return new org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter(
+    public RateLimiter<?> defaultRateLimiter() {
+        return rateLimiter(GatewayConstants.DEFAULT_RATE_LIMITER_NAME,
                 properties.getRateLimit().getReplenishRate(),
-                properties.getRateLimit().getBurstCapacity(),
-                properties.getRateLimit().getRequestedTokens()
+                properties.getRateLimit().getBurstCapacity()
         );
     }
 
@@ -101,16 +216,23 @@ public class GatewayConfig {
      * Admin Rate Limiter - Stricter for admin operations
      */
     @Bean(GatewayConstants.BEAN_ADMIN_RATE_LIMITER)
-    public org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter adminRateLimiter() {
+    public RateLimiter<?> adminRateLimiter() {
         // Admin rate limiting is 50% of normal rate
         int adminReplenishRate = properties.getRateLimit().getReplenishRate() / 2;
         int adminBurstCapacity = properties.getRateLimit().getBurstCapacity() / 2;
 
-        return new org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter(
-                adminReplenishRate,
-                adminBurstCapacity,
-                properties.getRateLimit().getRequestedTokens()
-        );
+        return rateLimiter(GatewayConstants.ADMIN_RATE_LIMITER_NAME, adminReplenishRate, adminBurstCapacity);
+    }
+
+    /**
+     * Redis token bucket, or gossiped G-counters when gateway.rate-limit.mode is gossip
+     */
+    private RateLimiter<?> rateLimiter(String name, int replenishRate, int burstCapacity) {
+        int requestedTokens = properties.getRateLimit().getRequestedTokens();
+        if (properties.getRateLimit().getMode() == ApiGatewayProperties.RateLimitMode.GOSSIP) {
+            return new GossipRateLimiter(gossipCounterStore, name, replenishRate, burstCapacity, requestedTokens);
+        }
+        return new RedisRateLimiter(replenishRate, burstCapacity, requestedTokens);
     }
 
     /**
@@ -121,7 +243,8 @@ public class GatewayConfig {
     public org.springframework.cloud.gateway.filter.ratelimit.KeyResolver userKeyResolver() {
         return exchange -> {
             String userId = exchange.getRequest().getHeaders().getFirst(GatewayConstants.HEADER_USER_ID);
-            return reactor.core.publisher.Mono.just(userId != null ? userId : GatewayConstants.RATE_LIMIT_KEY_ANONYMOUS);
+            return reactor.core.publisher.Mono.just(rateLimitKey(exchange,
+                    userId != null ? userId : GatewayConstants.RATE_LIMIT_KEY_ANONYMOUS));
         };
     }
 
@@ -130,11 +253,16 @@ public class GatewayConfig {
      */
     @Bean(GatewayConstants.BEAN_IP_KEY_RESOLVER)
     public org.springframework.cloud.gateway.filter.ratelimit.KeyResolver ipKeyResolver() {
-        return exchange -> {
-            String clientIp = exchange.getRequest().getRemoteAddress() != null ?
-                    exchange.getRequest().getRemoteAddress().getAddress().getHostAddress() :
-                    GatewayConstants.RATE_LIMIT_KEY_UNKNOWN;
-            return reactor.core.publisher.Mono.just(clientIp);
-        };
+        return exchange -> reactor.core.publisher.Mono.just(rateLimitKey(exchange, ClientAddress.of(exchange)));
+    }
+
+    /**
+     * Warm-up requests count against their own buckets, so they never use up a real caller's
+     * (anonymous, loopback IP) budget in the shared limiter store
+     */
+    private static String rateLimitKey(ServerWebExchange exchange, String key) {
+        return exchange.getAttribute(GatewayConstants.WARMUP_ATTR) != null
+                ? GatewayConstants.WARMUP_RATE_LIMIT_KEY_PREFIX + key
+                : key;
     }
 }
\ No newline at end of file
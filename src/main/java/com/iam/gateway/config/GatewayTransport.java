@@ -0,0 +1,156 @@
+package com.iam.gateway.config;
+
+import com.iam.gateway.constants.GatewayConstants;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gateway Transport - Event loops and socket options for the server and upstream clients
+ * Server and clients get separate, separately sized loop groups so a burst of upstream I/O
+ * cannot starve accept/read on inbound connections. Native transports are preferred when enabled;
+ * Reactor Netty picks io_uring, then epoll, and falls back to NIO when neither is available.
+ */
+@Component
+@Slf4j
+public class GatewayTransport implements DisposableBean {
+
+    private static final String IO_URING_CLASS = "io.netty.incubator.channel.uring.IOUring";
+    private static final String IO_URING_OPTION_CLASS = "io.netty.incubator.channel.uring.IOUringChannelOption";
+    private static final Duration DISPOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ApiGatewayProperties.Transport settings;
+    private final CachingDnsResolver dnsResolver;
+    private final LoopResources serverLoops;
+    private final LoopResources clientLoops;
+    private final String transportName;
+
+    public GatewayTransport(ApiGatewayProperties properties, CachingDnsResolver dnsResolver) {
+        this.settings = properties.getTransport();
+        this.dnsResolver = dnsResolver;
+        int processors = Runtime.getRuntime().availableProcessors();
+        int serverWorkers = settings.getServerWorkerThreads() > 0 ? settings.getServerWorkerThreads() : processors;
+        int clientWorkers = settings.getClientWorkerThreads() > 0 ? settings.getClientWorkerThreads() : processors;
+
+        this.serverLoops = LoopResources.create(GatewayConstants.SERVER_LOOP_PREFIX,
+                settings.getServerSelectThreads(), serverWorkers, true);
+        this.clientLoops = LoopResources.create(GatewayConstants.CLIENT_LOOP_PREFIX, clientWorkers, true);
+        this.transportName = detectTransport();
+
+        log.info("Gateway transport: {} (server select={}, server workers={}, client workers={}, tcpNoDelay={}, soReusePort={}, tcpFastOpen={}/{})",
+                transportName, settings.getServerSelectThreads(), serverWorkers, clientWorkers, settings.isTcpNoDelay(),
+                settings.isSoReusePort(), settings.getTcpFastOpenBacklog(), settings.isTcpFastOpenConnect());
+    }
+
+    /**
+     * Apply loops and socket options to the inbound server
+     */
+    public HttpServer configure(HttpServer server) {
+        HttpServer configured = server
+                .runOn(serverLoops, settings.isNativeEnabled())
+                .childOption(ChannelOption.TCP_NODELAY, settings.isTcpNoDelay());
+        if (settings.getTcpFastOpenBacklog() > 0 && isNative()) {
+            configured = configured.option(ChannelOption.TCP_FASTOPEN, settings.getTcpFastOpenBacklog());
+        }
+        ChannelOption<Boolean> reusePort = reusePortOption();
+        if (settings.isSoReusePort() && reusePort != null) {
+            configured = configured.option(reusePort, true);
+        }
+        return configured;
+    }
+
+    /**
+     * Apply loops, socket options and the shared caching DNS resolver to an upstream client
+     */
+    public HttpClient configure(HttpClient client) {
+        HttpClient configured = client
+                .runOn(clientLoops, settings.isNativeEnabled())
+                .option(ChannelOption.TCP_NODELAY, settings.isTcpNoDelay());
+        if (settings.isTcpFastOpenConnect() && isNative()) {
+            configured = configured.option(ChannelOption.TCP_FASTOPEN_CONNECT, true);
+        }
+        if (dnsResolver.isEnabled()) {
+            configured = configured.resolver(dnsResolver.addressResolverGroup());
+        }
+        return configured;
+    }
+
+    public LoopResources getServerLoops() {
+        return serverLoops;
+    }
+
+    public LoopResources getClientLoops() {
+        return clientLoops;
+    }
+
+    /**
+     * Worker groups the server and clients actually run on, keyed by loop prefix
+     */
+    public Map<String, EventLoopGroup> workerGroups() {
+        Map<String, EventLoopGroup> groups = new LinkedHashMap<>();
+        groups.put(GatewayConstants.SERVER_LOOP_PREFIX, serverLoops.onServer(settings.isNativeEnabled()));
+        groups.put(GatewayConstants.CLIENT_LOOP_PREFIX, clientLoops.onClient(settings.isNativeEnabled()));
+        return groups;
+    }
+
+    public String getTransportName() {
+        return transportName;
+    }
+
+    public boolean isNative() {
+        return !"nio".equals(transportName);
+    }
+
+    @Override
+    public void destroy() {
+        serverLoops.disposeLater().block(DISPOSE_TIMEOUT);
+        clientLoops.disposeLater().block(DISPOSE_TIMEOUT);
+    }
+
+    private String detectTransport() {
+        if (!settings.isNativeEnabled()) {
+            return "nio";
+        }
+        if (isIoUringAvailable()) {
+            return "io_uring";
+        }
+        return Epoll.isAvailable() ? "epoll" : "nio";
+    }
+
+    /**
+     * SO_REUSEPORT is a transport-specific option; null when the active transport has none
+     */
+    @SuppressWarnings("unchecked")
+    private ChannelOption<Boolean> reusePortOption() {
+        if ("epoll".equals(transportName)) {
+            return EpollChannelOption.SO_REUSEPORT;
+        }
+        if ("io_uring".equals(transportName)) {
+            try {
+                return (ChannelOption<Boolean>) Class.forName(IO_URING_OPTION_CLASS).getField("SO_REUSEPORT").get(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("SO_REUSEPORT not available for io_uring transport: {}", e.toString());
+            }
+        }
+        return null;
+    }
+
+    private static boolean isIoUringAvailable() {
+        try {
+            return (Boolean) Class.forName(IO_URING_CLASS).getMethod("isAvailable").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+}
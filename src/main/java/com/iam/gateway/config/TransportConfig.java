@@ -0,0 +1,28 @@
+package com.iam.gateway.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Transport Configuration - Applies GatewayTransport loops and socket options
+ * to the embedded Netty server and to the HttpClient used for proxied routes
+ */
+@Configuration
+@RequiredArgsConstructor
+public class TransportConfig {
+
+    private final GatewayTransport gatewayTransport;
+
+    @Bean
+    public NettyServerCustomizer gatewayNettyServerCustomizer() {
+        return gatewayTransport::configure;
+    }
+
+    @Bean
+    public HttpClientCustomizer gatewayHttpClientCustomizer() {
+        return gatewayTransport::configure;
+    }
+}
@@ -2,6 +2,8 @@ package com.iam.gateway.config;
 
 import com.iam.gateway.constants.GatewayConstants;
 import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.tracing.TraceContext;
+import com.iam.gateway.tracing.TraceIdGenerator;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
@@ -9,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
@@ -25,11 +28,13 @@ import java.util.concurrent.TimeUnit;
 public class WebClientConfig {
 
     private final ApiGatewayProperties properties;
+    private final GatewayTransport gatewayTransport;
+    private final TraceIdGenerator traceIdGenerator;
 
     @Bean
     public WebClient.Builder webClientBuilder() {
         // Configure HTTP client with timeouts from properties
-        HttpClient httpClient = HttpClient.create()
+        HttpClient httpClient = gatewayTransport.configure(HttpClient.create())
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getWebClient().getConnectTimeoutMs())
                 .responseTimeout(Duration.ofSeconds(properties.getWebClient().getResponseTimeoutSeconds()))
                 .doOnConnected(conn ->
@@ -81,16 +86,27 @@ public class WebClientConfig {
     }
 
     /**
-     * Add gateway identification headers to all outbound requests - Using Constants
+     * Add gateway identification and trace headers to all outbound requests - Using Constants
+     * Calls made while serving a request join its trace as a child span; others start a new trace.
      */
     private ExchangeFilterFunction addGatewayHeaders() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
+        return (clientRequest, next) -> Mono.deferContextual(context -> {
+            TraceContext parent = context.getOrDefault(TraceContext.class, null);
+            TraceContext trace = parent != null
+                    ? parent.child(traceIdGenerator.newSpanId())
+                    : traceIdGenerator.newTrace(null);
             ClientRequest newRequest = ClientRequest.from(clientRequest)
                     .header(GatewayConstants.HEADER_GATEWAY_REQUEST, GatewayConstants.HEADER_VALUE_TRUE)
                     .header(GatewayConstants.HEADER_GATEWAY_VERSION, GatewayConstants.APPLICATION_VERSION)
-                    .header(GatewayConstants.HEADER_REQUEST_ID, generateRequestId())
+                    .headers(headers -> {
+                        headers.set(GatewayConstants.HEADER_REQUEST_ID, trace.requestId());
+                        headers.set(GatewayConstants.HEADER_TRACEPARENT, trace.traceparent());
+                        if (trace.traceState() != null) {
+                            headers.set(GatewayConstants.HEADER_TRACESTATE, trace.traceState());
+                        }
+                    })
                     .build();
-            return Mono.just(newRequest);
+            return next.exchange(newRequest);
         });
     }
 
@@ -113,22 +129,14 @@ public class WebClientConfig {
         });
     }
 
-    /**
-     * Generate unique request ID for tracing - Using Constants
-     */
-    private String generateRequestId() {
-        return GatewayMessages.REQUEST_ID_PREFIX +
-                System.currentTimeMillis() +
-                GatewayMessages.REQUEST_ID_SEPARATOR +
-                Thread.currentThread().threadId();
-    }
-
     /**
      * Specialized WebClient for health checks with shorter timeouts - Using Constants
+     * Lazy: built on first injection rather than at startup, since it is not on the request path
      */
     @Bean(GatewayMessages.BEAN_HEALTH_CHECK_WEBCLIENT)
+    @Lazy
     public WebClient healthCheckWebClient() {
-        HttpClient healthCheckHttpClient = HttpClient.create()
+        HttpClient healthCheckHttpClient = gatewayTransport.configure(HttpClient.create())
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3000)
                 .responseTimeout(Duration.ofSeconds(GatewayConstants.HEALTH_CHECK_TIMEOUT))
                 .doOnConnected(conn ->
@@ -45,6 +45,7 @@ public final class GatewayConstants {
     public static final String USERS_HEALTH_PATH = "/api/v1/users/health";
     public static final String AUTH_API_PATH = "/api/v1/auth/**";
     public static final String ORGANIZATIONS_API_PATH = "/api/v1/organizations/**";
+    public static final String ORGANIZATIONS_PATH_PREFIX = "/api/v1/organizations/";
     public static final String CHAT_API_PATH = "/api/v1/chat/**";
     public static final String ADMIN_API_PATH = "/api/v1/admin/**";
     public static final String GATEWAY_HEALTH_PATH = "/api/v1/gateway/health";
@@ -58,6 +59,7 @@ public final class GatewayConstants {
     public static final String AUTH_SERVICE_CIRCUIT_BREAKER = "auth-service-cb";
     public static final String ORGANIZATION_SERVICE_CIRCUIT_BREAKER = "organization-service-cb";
     public static final String CHAT_SERVICE_CIRCUIT_BREAKER = "chat-service-cb";
+    public static final String ADMIN_SERVICE_CIRCUIT_BREAKER = "admin-service-cb";
 
     // ===================================================================
     // FALLBACK URIS
@@ -66,6 +68,7 @@ public final class GatewayConstants {
     public static final String AUTH_SERVICE_FALLBACK = "forward:/fallback/auth-service";
     public static final String ORGANIZATION_SERVICE_FALLBACK = "forward:/fallback/organization-service";
     public static final String CHAT_SERVICE_FALLBACK = "forward:/fallback/chat-service";
+    public static final String ADMIN_SERVICE_FALLBACK = "forward:/fallback/admin-service";
 
     // ===================================================================
     // HTTP HEADERS
@@ -79,10 +82,24 @@ public final class GatewayConstants {
     public static final String HEADER_AUTH_TIME = "X-Auth-Time";
     public static final String HEADER_TOKEN_EXPIRES = "X-Token-Expires";
     public static final String HEADER_REQUIRES_ADMIN = "X-Requires-Admin";
+    public static final String HEADER_USER_ROLES = "X-User-Roles";
+    public static final String HEADER_USER_ORG_IDS = "X-User-Org-Ids";
     public static final String HEADER_FALLBACK_REASON = "X-Fallback-Reason";
     public static final String HEADER_GATEWAY_ERROR = "X-Gateway-Error";
     public static final String HEADER_REQUEST_ID = "X-Request-ID";
+    public static final String HEADER_TRACEPARENT = "traceparent";
+    public static final String HEADER_TRACESTATE = "tracestate";
     public static final String HEADER_RETRY_AFTER = "Retry-After";
+    public static final String HEADER_SERVER_TIMING = "Server-Timing";
+    public static final String HEADER_INTERNAL_TOKEN = "X-Gateway-Internal-Token";
+    public static final String HEADER_WARMUP = "X-Gateway-Warmup";
+    public static final String HEADER_CLIENT_ADDRESS = "X-Gateway-Client-Address";
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String HEADER_IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    public static final String HEADER_AGE = "Age";
+    public static final String HEADER_WARNING = "Warning";
+    public static final String HEADER_REQUEST_TIMEOUT = "X-Request-Timeout";
+    public static final String HEADER_MIRRORED = "X-Gateway-Mirrored";
 
     // Standard HTTP headers
     public static final String HEADER_AUTHORIZATION = "Authorization";
@@ -97,6 +114,17 @@ public final class GatewayConstants {
     public static final String HEADER_VALUE_APPLICATION_JSON = "application/json";
     public static final String HEADER_VALUE_CIRCUIT_BREAKER_OPEN = "CIRCUIT_BREAKER_OPEN";
     public static final String HEADER_VALUE_JWT_AUTH_FAILED = "JWT_AUTHENTICATION_FAILED";
+    public static final String HEADER_VALUE_AUTHORIZATION_FAILED = "AUTHORIZATION_FAILED";
+    public static final String HEADER_VALUE_BULKHEAD_FULL = "BULKHEAD_FULL";
+    public static final String HEADER_VALUE_LOAD_SHED = "LOAD_SHED";
+    public static final String HEADER_VALUE_HEAVY_HITTER = "HEAVY_HITTER_BLOCKED";
+    public static final String HEADER_VALUE_REQUEST_TOO_LARGE = "REQUEST_TOO_LARGE";
+    public static final String HEADER_VALUE_LOGIN_FIELD_REPEATED = "LOGIN_FIELD_REPEATED";
+    public static final String HEADER_VALUE_IDEMPOTENCY_REJECTED = "IDEMPOTENCY_REJECTED";
+    public static final String HEADER_VALUE_STALE_WARNING = "110 - \"Response is Stale\"";
+    public static final String HEADER_VALUE_NO_STORE = "no-store";
+    public static final String HEADER_VALUE_IDENTITY = "identity";
+    public static final String HEADER_VALUE_CLOSE = "close";
 
     // ===================================================================
     // STATUS VALUES
@@ -116,6 +144,7 @@ public final class GatewayConstants {
     public static final String REDIS_HEALTH_CHECK_KEY = "gateway:health:check";
     public static final String REDIS_HEALTH_CHECK_VALUE = "ping";
     public static final String REDIS_RATE_LIMIT_PREFIX = "gateway:rate-limit:";
+    public static final String REDIS_IDEMPOTENCY_PREFIX = "gateway:idempotency:";
 
     // ===================================================================
     // RATE LIMITING
@@ -123,18 +152,216 @@ public final class GatewayConstants {
     public static final String RATE_LIMIT_KEY_ANONYMOUS = "anonymous";
     public static final String RATE_LIMIT_KEY_UNKNOWN = "unknown";
 
+    // ===================================================================
+    // HEAVY HITTERS
+    // ===================================================================
+    public static final String HEAVY_HITTER_METRIC_PREFIX = "gateway.heavy_hitter";
+    public static final String METRIC_TAG_KIND = "kind";
+    public static final String HEAVY_HITTER_KIND_IP = "ip";
+    public static final String HEAVY_HITTER_KIND_USERNAME = "username";
+    public static final String HEAVY_HITTER_KEY_SEPARATOR = ":";
+    public static final String HEAVY_HITTERS_ENDPOINT_ID = "heavyhitters"; // actuator endpoint, not exposed by default
+    public static final String LOGIN_USERNAME_FIELD = "username";
+    public static final String LOGIN_EMAIL_FIELD = "email";
+
+    // ===================================================================
+    // USER CONTEXT
+    // ===================================================================
+    public static final String USER_CONTEXT_CACHE_NAME = "gateway.user-context";
+    public static final String USER_CONTEXT_SUBJECT_VARIABLE = "subject";
+    public static final String USER_CONTEXT_DATA_FIELD = "data";
+    public static final String USER_CONTEXT_ROLES_FIELD = "roles";
+    public static final String USER_CONTEXT_ORG_IDS_FIELD = "organizationIds";
+    public static final String USER_CONTEXT_VALUE_SEPARATOR = ",";
+    public static final String USER_CONTEXT_ATTR = "iam.gateway.userContext";
+
+    // ===================================================================
+    // STALE (LAST-KNOWN-GOOD) CACHE
+    // ===================================================================
+    public static final String STALE_CACHE_KEY_ATTR = "iam.gateway.staleCacheKey";
+    public static final String STALE_SERVED_ATTR = "iam.gateway.staleServed";
+    public static final String STALE_CACHE_KEY_SEPARATOR = "|";
+    public static final String STALE_CACHE_METRIC_PREFIX = "gateway.stale_cache";
+    public static final String FALLBACK_SERVED_METRIC = "gateway.fallback.served";
+    public static final String METRIC_TAG_SERVICE = "service";
+
+    // ===================================================================
+    // BULKHEADS
+    // ===================================================================
+    public static final String BULKHEAD_METRIC_PREFIX = "gateway.bulkhead";
+    public static final int BULKHEAD_RETRY_AFTER_SECONDS = 1;
+    public static final String METRIC_TAG_ROUTE = "route";
+
+    // ===================================================================
+    // EVENT LOOP MONITOR
+    // ===================================================================
+    public static final String EVENT_LOOP_METRIC_PREFIX = "gateway.event_loop";
+    public static final String EVENT_LOOP_PROBE_THREAD = "gateway-loop-probe";
+    public static final String METRIC_TAG_LOOP = "loop";
+
+    // ===================================================================
+    // LOAD SHEDDING
+    // ===================================================================
+    public static final String LOAD_SHEDDING_METRIC_PREFIX = "gateway.load_shedding";
+    public static final String POOL_PENDING_CONNECTIONS_METRIC = "reactor.netty.connection.provider.pending.connections";
+    public static final String METRIC_TAG_TIER = "tier";
+    public static final String DEFAULT_SHEDDING_TIER = "default";
+    public static final int LOAD_SHEDDING_RETRY_AFTER_SECONDS = 1;
+
+    // ===================================================================
+    // BATCH API
+    // ===================================================================
+    public static final String BATCH_ENDPOINT = "/batch";
+    public static final String TRUSTED_SUBJECT_ATTR = "iam.gateway.trustedSubject";
+    public static final String CLIENT_ADDRESS_ATTR = "iam.gateway.clientAddress"; // batch caller's address on its sub-requests
+    public static final String BATCH_METRIC_PREFIX = "gateway.batch";
+    public static final String API_PATH_PREFIX = "/api/";
+    public static final String LOOPBACK_HOST = "127.0.0.1";
+
+    // ===================================================================
+    // WARM-UP
+    // ===================================================================
+    public static final String WARMUP_ATTR = "iam.gateway.warmup";
+    public static final String WARMUP_STUB_ENDPOINT = "/warmup/stub";
+    public static final String WARMUP_METRIC_PREFIX = "gateway.warmup";
+    public static final String WARMUP_SUBJECT_PREFIX = "gateway-warmup-";
+    public static final String WARMUP_RATE_LIMIT_KEY_PREFIX = "gateway-warmup:"; // keeps warm-up buckets apart from real callers
+    public static final String WARMUP_HEALTH_INDICATOR = "warmup";
+    public static final String WARMUP_DONE_JIT_SETTLED = "jit_settled";
+    public static final String WARMUP_DONE_TIME_BUDGET = "time_budget";
+    public static final String WARMUP_DONE_DISABLED = "disabled";
+
+    // ===================================================================
+    // CONNECTION DRAIN
+    // ===================================================================
+    public static final String DRAIN_METRIC_PREFIX = "gateway.drain";
+    public static final String DRAIN_OUTCOME_COMPLETED = "completed";
+    public static final String DRAIN_OUTCOME_ABORTED = "aborted";
+
+    // ===================================================================
+    // DEADLINES
+    // ===================================================================
+    public static final String DEADLINE_ATTR = "iam.gateway.deadline";
+    public static final String DEADLINE_GUARDED_ATTR = "iam.gateway.deadline.guarded"; // deadline applied around the circuit breaker
+    public static final String DEADLINE_METRIC_PREFIX = "gateway.deadline";
+    public static final String METRIC_TAG_REASON = "reason";
+    public static final String DEADLINE_REASON_EXPIRED = "expired"; // budget spent before routing; upstream never called
+    public static final String DEADLINE_REASON_TIMEOUT = "timeout"; // upstream call cancelled at the deadline
+    public static final String DEADLINE_REASON_CLIENT_GONE = "client_gone"; // client disconnected while upstream was working
+    public static final String UPGRADE_WEBSOCKET = "websocket";
+
+    // ===================================================================
+    // TRAFFIC MIRRORING
+    // ===================================================================
+    public static final String MIRROR_METRIC_PREFIX = "gateway.mirror";
+    public static final String MIRROR_LOOP_PREFIX = "gateway-mirror";
+    public static final String MIRROR_POOL_NAME = "gateway-mirror";
+    public static final String METRIC_TAG_TARGET = "target";
+    public static final String MIRROR_TAG_PRIMARY = "primary";
+    public static final String MIRROR_TAG_SHADOW = "shadow";
+    public static final String MIRROR_TARGET_PRIMARY = "primary";
+    public static final String MIRROR_TARGET_SHADOW = "shadow";
+    public static final String MIRROR_SHADOW_ERROR = "error";
+    public static final String MIRROR_SKIP_SATURATED = "saturated";
+    public static final String MIRROR_SKIP_BODY_TOO_LARGE = "body_too_large";
+    public static final String MIRROR_SKIP_BODY_UNREAD = "body_unread";
+    public static final String MIRROR_SKIP_CANCELLED = "cancelled";
+
+    // ===================================================================
+    // GOSSIP RATE LIMITING
+    // ===================================================================
+    public static final String DEFAULT_RATE_LIMITER_NAME = "default";
+    public static final String ADMIN_RATE_LIMITER_NAME = "admin";
+    public static final String GOSSIP_METRIC_PREFIX = "gateway.gossip";
+    public static final String GOSSIP_THREAD_NAME = "gateway-gossip";
+    public static final int GOSSIP_MAX_DATAGRAM_BYTES = 65507;
+    public static final String METRIC_TAG_DIRECTION = "direction";
+    public static final String GOSSIP_DIRECTION_SENT = "sent";
+    public static final String GOSSIP_DIRECTION_RECEIVED = "received";
+    public static final String RATE_LIMIT_PEERS_SERVICE = "rate_limit_peers";
+
+    // ===================================================================
+    // IDEMPOTENCY
+    // ===================================================================
+    public static final String IDEMPOTENCY_METRIC_PREFIX = "gateway.idempotency";
+    public static final String METRIC_TAG_OUTCOME = "outcome";
+    public static final String IDEMPOTENCY_OUTCOME_STORED = "stored";
+    public static final String IDEMPOTENCY_OUTCOME_REPLAYED = "replayed";
+    public static final String IDEMPOTENCY_OUTCOME_WAITED = "waited";
+    public static final String IDEMPOTENCY_OUTCOME_MISMATCH = "mismatch";
+    public static final String IDEMPOTENCY_OUTCOME_CONFLICT = "conflict";
+    public static final String IDEMPOTENCY_OUTCOME_BYPASSED = "bypassed";
+
+    // ===================================================================
+    // STICKY ROUTING
+    // ===================================================================
+    public static final String STICKY_ROUTING_METRIC_PREFIX = "gateway.sticky_routing";
+    public static final String SCHEME_WS = "ws";
+    public static final String SCHEME_WSS = "wss";
+    public static final String SCHEME_HTTPS = "https";
+
+    // ===================================================================
+    // UPSTREAM DNS
+    // ===================================================================
+    public static final String DNS_METRIC_PREFIX = "gateway.dns";
+    public static final String DNS_LOOKUP_HIT = "hit";
+    public static final String DNS_LOOKUP_STALE = "stale";
+    public static final String DNS_LOOKUP_MISS = "miss";
+    public static final String DNS_LOOKUP_NEGATIVE = "negative";
+    public static final String DNS_RESOLUTION_SUCCESS = "success";
+    public static final String DNS_RESOLUTION_FAILURE = "failure";
+
+    // ===================================================================
+    // REQUEST DECORATION
+    // ===================================================================
+    public static final String REQUEST_DECORATION_ATTR = "iam.gateway.requestDecoration";
+    public static final long COARSE_CLOCK_TICK_MILLIS = 1000;
+
+    // ===================================================================
+    // TRACING
+    // ===================================================================
+    public static final String TRACE_CONTEXT_ATTR = "iam.gateway.traceContext";
+    public static final String ACCESS_LOG_NAME = "gateway.access";
+    public static final String REQUEST_METRIC = "gateway.http.requests";
+    public static final String METRIC_TAG_STATUS = "status";
+    public static final String NO_ROUTE = "none";
+
+    // ===================================================================
+    // SERVER TIMING
+    // ===================================================================
+    public static final String SERVER_TIMING_ATTR = "iam.gateway.serverTimings";
+    public static final String SERVER_TIMING_METRIC = "gateway.server_timing";
+    public static final String METRIC_TAG_STAGE = "stage";
+    public static final String STAGE_JWT = "jwt";
+    public static final String STAGE_AUTHORIZATION = "authz";
+    public static final String STAGE_RATE_LIMIT = "rate-limit";
+    public static final String STAGE_HEAVY_HITTER = "heavy-hitter";
+    public static final String STAGE_IDEMPOTENCY = "idempotency";
+    public static final String STAGE_STALE_CACHE = "lkg";
+    public static final String STAGE_BULKHEAD = "bulkhead";
+    public static final String STAGE_CIRCUIT_BREAKER = "cb";
+    public static final String STAGE_MIRROR = "mirror";
+    public static final String STAGE_UPSTREAM = "upstream";
+    public static final String STAGE_TOTAL = "total";
+
     // ===================================================================
     // JWT CONSTANTS
     // ===================================================================
     public static final String JWT_TOKEN_PREFIX = "Bearer ";
     public static final String JWT_TOKEN_QUERY_PARAM = "token";
     public static final int JWT_TOKEN_START_INDEX = 7; // After "Bearer "
+    public static final String JWT_FAST_PATH_METRIC = "gateway.jwt.fast_path";
+    public static final String JWT_FAST_PATH_DISAGREEMENT_METRIC = "gateway.jwt.fast_path.disagreements";
+    public static final String JWT_SECRET_ENCODING_BASE64 = "base64";
+    public static final String JWT_KEY_METRIC_PREFIX = "gateway.jwt.key";
+    public static final String METRIC_TAG_KID = "kid";
+    public static final String JWT_DEFAULT_KID = "default";
 
     // ===================================================================
     // DEFAULT VALUES
     // ===================================================================
     public static final String DEFAULT_CORS_ORIGINS = "*";
-    public static final String DEFAULT_JWT_SECRET = "dev-secret-key";
+    public static final String DEFAULT_JWT_SECRET = "dev-secret-key-for-local-development-only-do-not-use-in-production"; // 66 bytes: long enough for HS512
     public static final long DEFAULT_JWT_EXPIRATION = 86400000L; // 24 hours
     public static final int DEFAULT_RATE_LIMIT_REPLENISH = 10;
     public static final int DEFAULT_RATE_LIMIT_BURST = 20;
@@ -178,11 +405,14 @@ public final class GatewayConstants {
     public static final int MAX_CONNECTIONS_PROD = 500;
     public static final int MIN_IDLE_CONNECTIONS = 5;
     public static final int MAX_IDLE_CONNECTIONS = 20;
+    public static final String SERVER_LOOP_PREFIX = "gateway-server";
+    public static final String CLIENT_LOOP_PREFIX = "gateway-client";
+    public static final String DNS_LOOP_PREFIX = "gateway-dns";
 
     // ===================================================================
     // BEAN NAMES
     // ===================================================================
-    public static final String BEAN_REDIS_RATE_LIMITER = "redisRateLimiter";
+    public static final String BEAN_DEFAULT_RATE_LIMITER = "defaultRateLimiter"; // not "redisRateLimiter": may be a gossip limiter
     public static final String BEAN_ADMIN_RATE_LIMITER = "adminRateLimiter";
     public static final String BEAN_USER_KEY_RESOLVER = "userKeyResolver";
     public static final String BEAN_IP_KEY_RESOLVER = "ipKeyResolver";
@@ -203,6 +433,7 @@ public final class GatewayConstants {
     public static final String GATEWAY_API_PREFIX = "/api/v1/gateway";
     public static final String HEALTH_ENDPOINT = "/health";
     public static final String GATEWAY_KEY = "gateway";
+    public static final String GATEWAY_PROPERTIES_PREFIX = "gateway";
     public static final String APPLICATION_KEY = "application";
     public static final String PORT_KEY = "port";
     public static final String TIMESTAMP_KEY = "timestamp";
@@ -258,6 +489,67 @@ public final class GatewayConstants {
     public static final String ACTIVE_CONNECTIONS_KEY = "active_connections";
     public static final String RESPONSE_TIMES_KEY = "response_times";
     public static final String CIRCUIT_BREAKER_STATES_KEY = "circuit_breaker_states";
+    public static final String STALE_CACHE_KEY = "stale_cache";
+    public static final String ENABLED_KEY = "enabled";
+    public static final String MAX_BYTES_KEY = "max_bytes";
+    public static final String USED_BYTES_KEY = "used_bytes";
+    public static final String ENTRIES_KEY = "entries";
+    public static final String ROUTE_TTLS_KEY = "route_ttls";
+    public static final String STALE_SERVES_KEY = "stale_serves";
+    public static final String EVENT_LOOPS_KEY = "event_loops";
+    public static final String TRANSPORT_KEY = "transport";
+    public static final String LOOPS_KEY = "loops";
+    public static final String PROBES_KEY = "probes";
+    public static final String LAG_P50_MS_KEY = "lag_p50_ms";
+    public static final String LAG_P99_MS_KEY = "lag_p99_ms";
+    public static final String LAG_MAX_MS_KEY = "lag_max_ms";
+    public static final String CURRENT_LAG_MS_KEY = "current_lag_ms";
+    public static final String STALLS_KEY = "stalls";
+    public static final String BLOCKING_EVENTS_KEY = "blocking_events";
+    public static final String LOAD_SHEDDING_KEY = "load_shedding";
+    public static final String SHED_LEVEL_KEY = "shed_level";
+    public static final String IN_FLIGHT_KEY = "in_flight";
+    public static final String PENDING_ACQUIRE_KEY = "pending_acquire";
+    public static final String TIERS_KEY = "tiers";
+    public static final String PRIORITY_KEY = "priority";
+    public static final String SHEDDING_KEY = "shedding";
+    public static final String ADMITTED_KEY = "admitted";
+    public static final String REJECTED_KEY = "rejected";
+    public static final String HEAVY_HITTERS_KEY = "heavy_hitters";
+    public static final String KEY_KEY = "key";
+    public static final String KIND_KEY = "kind";
+    public static final String ESTIMATE_KEY = "estimate";
+    public static final String BLOCKED_KEY = "blocked";
+    public static final String THRESHOLDS_KEY = "thresholds";
+    public static final String SKETCH_BYTES_KEY = "sketch_bytes";
+    public static final String STICKY_ROUTING_KEY = "sticky_routing";
+    public static final String INSTANCES_KEY = "instances";
+    public static final String KEY_HEADER_KEY = "key_header";
+    public static final String MAX_IN_FLIGHT_KEY = "max_in_flight";
+    public static final String SPILLED_KEY = "spilled";
+    public static final String JWT_KEYS_KEY = "jwt_keys";
+    public static final String ALGORITHM_KEY = "algorithm";
+    public static final String VERIFICATIONS_KEY = "verifications";
+    public static final String LAST_USED_KEY = "last_used";
+    public static final String SOURCES_KEY = "sources";
+    public static final String WARMUP_KEY = "warmup";
+    public static final String REQUESTS_KEY = "requests";
+    public static final String ROUNDS_KEY = "rounds";
+    public static final String JIT_MILLIS_KEY = "jit_compile_ms";
+    public static final String CONNECTIONS_KEY = "connections_opened";
+    public static final String DURATION_MS_KEY = "duration_ms";
+    public static final String REASON_KEY = "reason";
+    public static final String COMPLETE_KEY = "complete";
+    public static final String DRAIN_KEY = "drain";
+    public static final String DRAINING_KEY = "draining";
+    public static final String RATE_LIMIT_GOSSIP_KEY = "rate_limit_gossip";
+    public static final String MEMBERS_KEY = "members";
+    public static final String ADDRESS_KEY = "address";
+    public static final String SELF_KEY = "self";
+    public static final String LAST_HEARD_MS_KEY = "last_heard_ms";
+    public static final String SLOT_TOTAL_KEY = "slot_total";
+    public static final String COUNTERS_KEY = "counters";
+    public static final String CONVERGING_KEY = "converging";
 
     // ===================================================================
     // FEATURE KEYS
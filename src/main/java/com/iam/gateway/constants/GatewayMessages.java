@@ -26,6 +26,8 @@ public final class GatewayMessages {
     public static final String AUTH_INVALID_SIGNATURE = "Invalid JWT signature";
     public static final String AUTH_FAILED = "Authentication failed";
     public static final String AUTH_INVALID_PAYLOAD = "Invalid token payload";
+    public static final String ACCESS_DENIED = "Access denied";
+    public static final String ACCESS_DENIED_INSUFFICIENT_PERMISSIONS = "Insufficient permissions for this resource";
 
     // ===================================================================
     // ERROR MESSAGES - Service Unavailable
@@ -36,6 +38,20 @@ public final class GatewayMessages {
     public static final String CHAT_SERVICE_UNAVAILABLE = "Chat service is temporarily unavailable";
     public static final String ADMIN_SERVICE_UNAVAILABLE = "Administrative service is temporarily unavailable";
     public static final String GENERIC_SERVICE_UNAVAILABLE = "Service temporarily unavailable";
+    public static final String ROUTE_AT_CAPACITY = "Service is at capacity, please retry shortly";
+    public static final String GATEWAY_OVERLOADED = "Gateway is overloaded, please retry shortly";
+    public static final String TOO_MANY_ATTEMPTS = "Too many attempts, please retry later";
+    public static final String REQUEST_BODY_TOO_LARGE = "Request body exceeds the limit for this endpoint";
+    public static final String LOGIN_FIELD_REPEATED = "Login request names the username or email more than once";
+    public static final String BATCH_TOO_LARGE = "Batch exceeds the maximum of %d items";
+    public static final String BATCH_ITEM_INVALID = "Batch item must have a method and an /api/ path outside the gateway API";
+    public static final String BATCH_RESPONSE_BUDGET_EXCEEDED = "Batch response size limit reached";
+    public static final String BATCH_ITEM_TIMEOUT = "Sub-request timed out";
+    public static final String BATCH_ITEM_FAILED = "Sub-request failed";
+    public static final String IDEMPOTENCY_KEY_INVALID = "Idempotency-Key is empty or too long";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key was already used with a different request";
+    public static final String DEADLINE_EXCEEDED = "Request deadline exceeded before the service answered";
+    public static final String IDEMPOTENCY_IN_PROGRESS = "A request with this Idempotency-Key is still in progress, please retry shortly";
 
     // ===================================================================
     // ERROR MESSAGES - Health Checks
@@ -55,6 +71,17 @@ public final class GatewayMessages {
     public static final String ERROR_CHAT_SERVICE_UNAVAILABLE = "CHAT_SERVICE_UNAVAILABLE";
     public static final String ERROR_ADMIN_SERVICE_UNAVAILABLE = "ADMIN_SERVICE_UNAVAILABLE";
     public static final String ERROR_JWT_AUTH_FAILED = "JWT_AUTHENTICATION_FAILED";
+    public static final String ERROR_AUTHORIZATION_FAILED = "AUTHORIZATION_FAILED";
+    public static final String ERROR_BULKHEAD_FULL = "BULKHEAD_FULL";
+    public static final String ERROR_LOAD_SHED = "LOAD_SHED";
+    public static final String ERROR_HEAVY_HITTER = "HEAVY_HITTER_BLOCKED";
+    public static final String ERROR_REQUEST_TOO_LARGE = "REQUEST_TOO_LARGE";
+    public static final String ERROR_LOGIN_FIELD_REPEATED = "LOGIN_FIELD_REPEATED";
+    public static final String ERROR_BATCH_REJECTED = "BATCH_REJECTED";
+    public static final String ERROR_IDEMPOTENCY_KEY_INVALID = "IDEMPOTENCY_KEY_INVALID";
+    public static final String ERROR_IDEMPOTENCY_KEY_REUSED = "IDEMPOTENCY_KEY_REUSED";
+    public static final String ERROR_IDEMPOTENCY_IN_PROGRESS = "IDEMPOTENCY_IN_PROGRESS";
+    public static final String ERROR_DEADLINE_EXCEEDED = "DEADLINE_EXCEEDED";
 
     // ===================================================================
     // LOG MESSAGES - Info
@@ -111,12 +138,6 @@ public final class GatewayMessages {
     public static final String IMPACT_ADMIN_SERVICE = "User management and system configuration disabled";
     public static final String IMPACT_CHAT_SERVICE = "WebSocket connections are disabled";
 
-    // ===================================================================
-    // REQUEST TRACKING
-    // ===================================================================
-    public static final String REQUEST_ID_PREFIX = "gw-";
-    public static final String REQUEST_ID_SEPARATOR = "-";
-
     // ===================================================================
     // BEAN NAMES - WebClient Related
     // ===================================================================
@@ -0,0 +1,312 @@
+package com.iam.gateway.controller;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iam.common.jwt.JwtTokenProvider;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.security.FastJwtVerifier;
+import com.iam.gateway.security.InternalRequestToken;
+import com.iam.gateway.security.JwtVerification;
+import com.iam.gateway.util.ClientAddress;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch Controller - Fans a list of sub-requests out through the normal route table
+ * The caller's JWT is validated once here, through the same keyring fast path (and provider fallback) as
+ * JwtAuthenticationFilter, so kid rotation applies to batches too; sub-requests are sent to this gateway over loopback with
+ * the per-process internal token, so each still gets routing, per-user rate limiting, bulkheads and
+ * circuit breakers but no second JWT validation. The caller's address travels with each sub-request so
+ * IP-keyed limits count the caller rather than loopback. Results stream back as NDJSON in completion order.
+ */
+@RestController
+@RequestMapping(GatewayConstants.GATEWAY_API_PREFIX)
+@Slf4j
+public class BatchController {
+
+    // Identity is set by the gateway from the validated token, never taken from the item
+    private static final Set<String> BLOCKED_ITEM_HEADERS = Set.of(
+            HttpHeaders.AUTHORIZATION.toLowerCase(Locale.ROOT),
+            HttpHeaders.HOST.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            GatewayConstants.HEADER_INTERNAL_TOKEN.toLowerCase(Locale.ROOT),
+            GatewayConstants.HEADER_WARMUP.toLowerCase(Locale.ROOT),
+            GatewayConstants.HEADER_CLIENT_ADDRESS.toLowerCase(Locale.ROOT),
+            GatewayConstants.HEADER_USER_ID.toLowerCase(Locale.ROOT),
+            GatewayConstants.HEADER_USER_ROLES.toLowerCase(Locale.ROOT),
+            GatewayConstants.HEADER_USER_ORG_IDS.toLowerCase(Locale.ROOT),
+            GatewayConstants.HEADER_AUTHENTICATED.toLowerCase(Locale.ROOT)
+    );
+
+    private static final Set<HttpMethod> ALLOWED_METHODS = Set.of(
+            HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final ApiGatewayProperties.Batch settings;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final FastJwtVerifier fastJwtVerifier;
+    private final InternalRequestToken internalRequestToken;
+    private final ObjectMapper objectMapper;
+    private final WebClient.Builder webClientBuilder;
+    private final Counter itemsDispatched;
+    private final Counter itemsRejected;
+    private volatile WebClient loopbackClient;
+
+    public BatchController(ApiGatewayProperties properties, JwtTokenProvider jwtTokenProvider,
+                           FastJwtVerifier fastJwtVerifier, InternalRequestToken internalRequestToken,
+                           ObjectMapper objectMapper, WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.settings = properties.getBatch();
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.fastJwtVerifier = fastJwtVerifier;
+        this.internalRequestToken = internalRequestToken;
+        this.objectMapper = objectMapper;
+        this.webClientBuilder = webClientBuilder;
+        this.itemsDispatched = meterRegistry.counter(GatewayConstants.BATCH_METRIC_PREFIX + ".items.dispatched");
+        this.itemsRejected = meterRegistry.counter(GatewayConstants.BATCH_METRIC_PREFIX + ".items.rejected");
+    }
+
+    /**
+     * Sub-requests go to whichever port the server actually bound
+     */
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        this.loopbackClient = webClientBuilder.clone()
+                .baseUrl("http://" + GatewayConstants.LOOPBACK_HOST + ":" + event.getWebServer().getPort())
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(settings.getMaxItemBytes()))
+                .build();
+    }
+
+    @PostMapping(value = GatewayConstants.BATCH_ENDPOINT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<BatchResult>>> batch(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody List<BatchItem> items,
+            ServerHttpRequest request) {
+
+        if (!settings.isEnabled() || loopbackClient == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }
+        if (items.size() > settings.getMaxItems()) {
+            log.warn(String.format(GatewayMessages.BATCH_TOO_LARGE, settings.getMaxItems()));
+            return Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .header(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayMessages.ERROR_BATCH_REJECTED)
+                    .build());
+        }
+        if (!StringUtils.hasText(authorization) || !authorization.startsWith(GatewayConstants.JWT_TOKEN_PREFIX)) {
+            return Mono.just(unauthorized());
+        }
+
+        return authenticate(authorization.substring(GatewayConstants.JWT_TOKEN_START_INDEX))
+                .map(subject -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(dispatch(items, authorization, subject, ClientAddress.remote(request))))
+                .defaultIfEmpty(unauthorized())
+                .onErrorResume(e -> {
+                    log.warn("Batch rejected: {}", e.getMessage());
+                    return Mono.just(unauthorized());
+                });
+    }
+
+    /**
+     * Subject of a valid token, or empty. Mirrors JwtAuthenticationFilter: the keyring fast path first,
+     * JwtTokenProvider for tokens it cannot handle and, until its rejections are final, for those it rejects
+     */
+    Mono<String> authenticate(String token) {
+        JwtVerification verification = fastJwtVerifier.verify(token);
+        if (verification.isValid()) {
+            return Mono.just(verification.subject());
+        }
+        if (verification.status() != JwtVerification.Status.UNSUPPORTED && fastJwtVerifier.isRejectionFinal()) {
+            log.warn("Batch rejected: {}", verification.status());
+            return Mono.empty();
+        }
+        return jwtTokenProvider.validateToken(token)
+                .map(claims -> claims.getSubject())
+                .filter(StringUtils::hasText)
+                .doOnNext(subject -> {
+                    if (verification.status() != JwtVerification.Status.UNSUPPORTED) {
+                        fastJwtVerifier.recordDisagreement(verification.status());
+                    }
+                });
+    }
+
+    private Flux<BatchResult> dispatch(List<BatchItem> items, String authorization, String subject, String clientAddress) {
+        AtomicLong responseBytes = new AtomicLong();
+        return Flux.fromIterable(items)
+                .flatMap(item -> dispatchItem(item, authorization, subject, clientAddress, responseBytes),
+                        settings.getMaxConcurrency());
+    }
+
+    private Mono<BatchResult> dispatchItem(BatchItem item, String authorization, String subject, String clientAddress,
+                                           AtomicLong responseBytes) {
+        HttpMethod method = item.method() != null ? HttpMethod.valueOf(item.method().toUpperCase(Locale.ROOT)) : null;
+        if (method == null || !ALLOWED_METHODS.contains(method) || !isRoutablePath(item.path())) {
+            itemsRejected.increment();
+            return Mono.just(error(item.id(), HttpStatus.BAD_REQUEST, GatewayMessages.BATCH_ITEM_INVALID));
+        }
+        if (responseBytes.get() >= settings.getMaxResponseBytes()) {
+            itemsRejected.increment();
+            return Mono.just(error(item.id(), HttpStatus.PAYLOAD_TOO_LARGE, GatewayMessages.BATCH_RESPONSE_BUDGET_EXCEEDED));
+        }
+
+        itemsDispatched.increment();
+        WebClient.RequestBodySpec request = loopbackClient.method(method)
+                .uri(item.path())
+                .headers(headers -> {
+                    if (item.headers() != null) {
+                        item.headers().forEach((name, value) -> {
+                            if (!BLOCKED_ITEM_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                                headers.set(name, value);
+                            }
+                        });
+                    }
+                    headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    headers.set(GatewayConstants.HEADER_USER_ID, subject);
+                    headers.set(GatewayConstants.HEADER_INTERNAL_TOKEN, internalRequestToken.value());
+                    headers.set(GatewayConstants.HEADER_CLIENT_ADDRESS, clientAddress);
+                });
+        WebClient.RequestHeadersSpec<?> spec = item.body() != null && !item.body().isNull()
+                ? request.contentType(MediaType.APPLICATION_JSON).bodyValue(item.body())
+                : request;
+
+        return spec.exchangeToMono(response -> toResult(item.id(), response, responseBytes))
+                .timeout(settings.getItemTimeout())
+                .onErrorResume(TimeoutException.class,
+                        e -> Mono.just(error(item.id(), HttpStatus.GATEWAY_TIMEOUT, GatewayMessages.BATCH_ITEM_TIMEOUT)))
+                .onErrorResume(DataBufferLimitException.class,
+                        e -> Mono.just(error(item.id(), HttpStatus.PAYLOAD_TOO_LARGE, GatewayMessages.BATCH_RESPONSE_BUDGET_EXCEEDED)))
+                .onErrorResume(e -> {
+                    log.warn("Batch item {} {} failed: {}", method, item.path(), e.toString());
+                    return Mono.just(error(item.id(), HttpStatus.BAD_GATEWAY, GatewayMessages.BATCH_ITEM_FAILED));
+                });
+    }
+
+    private Mono<BatchResult> toResult(String id, ClientResponse response, AtomicLong responseBytes) {
+        int status = response.statusCode().value();
+        MediaType contentType = response.headers().contentType().orElse(null);
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(body -> {
+                    if (responseBytes.addAndGet(body.length) > settings.getMaxResponseBytes()) {
+                        return error(id, HttpStatus.PAYLOAD_TOO_LARGE, GatewayMessages.BATCH_RESPONSE_BUDGET_EXCEEDED);
+                    }
+                    return new BatchResult(id, status, contentType != null ? contentType.toString() : null,
+                            rawJson(body, contentType));
+                });
+    }
+
+    /**
+     * JSON bodies are embedded as-is; anything else becomes a JSON string
+     */
+    private String rawJson(byte[] body, MediaType contentType) {
+        if (body.length == 0) {
+            return null;
+        }
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsString(new String(body, StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private BatchResult error(String id, HttpStatus status, String message) {
+        try {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    GatewayConstants.STATUS_KEY, status.value(),
+                    GatewayConstants.ERROR_KEY, message));
+            return new BatchResult(id, status.value(), MediaType.APPLICATION_JSON_VALUE, body);
+        } catch (JsonProcessingException e) {
+            return new BatchResult(id, status.value(), null, null);
+        }
+    }
+
+    /**
+     * Checked on the decoded path, so %2e%2e and friends cannot reach the gateway API or climb out of /api/.
+     * Encoded separators (%2f, %5c), double encoding (%25), path parameters and dot segments are refused
+     * outright rather than normalized, since the upstream may decode them differently.
+     */
+    static boolean isRoutablePath(String path) {
+        if (path == null) {
+            return false;
+        }
+        URI uri;
+        try {
+            uri = new URI(path);
+        } catch (URISyntaxException e) {
+            return false; // also rejects raw backslashes, spaces and template braces
+        }
+        String rawPath = uri.getRawPath();
+        if (uri.getScheme() != null || uri.getRawAuthority() != null || rawPath == null) {
+            return false;
+        }
+        String lowerRawPath = rawPath.toLowerCase(Locale.ROOT);
+        if (lowerRawPath.contains("%2f") || lowerRawPath.contains("%5c") || lowerRawPath.contains("%25")
+                || rawPath.indexOf(';') >= 0) {
+            return false;
+        }
+        String decoded = uri.getPath();
+        if (decoded.indexOf('\\') >= 0 || decoded.contains("//")) {
+            return false;
+        }
+        for (String segment : decoded.split("/")) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return false;
+            }
+        }
+        return decoded.startsWith(GatewayConstants.API_PATH_PREFIX)
+                && !decoded.startsWith(GatewayConstants.GATEWAY_API_PREFIX);
+    }
+
+    private static ResponseEntity<Flux<BatchResult>> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayMessages.ERROR_JWT_AUTH_FAILED)
+                .build();
+    }
+
+    /**
+     * One sub-request: method, gateway-relative path, optional headers and JSON body
+     */
+    public record BatchItem(String id, String method, String path, Map<String, String> headers, JsonNode body) {
+    }
+
+    /**
+     * One NDJSON line: the sub-request's id, status and body
+     */
+    public record BatchResult(String id, int status, String contentType, @JsonRawValue String body) {
+    }
+}
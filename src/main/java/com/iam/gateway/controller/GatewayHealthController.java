@@ -1,13 +1,22 @@
 package com.iam.gateway.controller;
 
 import com.iam.common.response.ApiResponse;
+import com.iam.gateway.cache.LastKnownGoodCache;
 import com.iam.gateway.config.ApiGatewayProperties;
 import com.iam.gateway.constants.GatewayConstants;
 import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.filter.ConnectionDrainFilter;
+import com.iam.gateway.filter.LoadSheddingFilter;
+import com.iam.gateway.filter.StickyRoutingFilter;
+import com.iam.gateway.monitoring.EventLoopLagMonitor;
+import com.iam.gateway.ratelimit.GossipCounterStore;
+import com.iam.gateway.security.JwtKeyring;
+import com.iam.gateway.warmup.WarmupRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -28,9 +37,18 @@ import java.util.Map;
 @Slf4j
 public class GatewayHealthController {
 
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    @Nullable
+    private final ReactiveRedisTemplate<String, String> redisTemplate; // absent in edge mode
     private final WebClient.Builder webClientBuilder;
     private final ApiGatewayProperties properties;
+    private final LastKnownGoodCache lastKnownGoodCache;
+    private final EventLoopLagMonitor eventLoopLagMonitor;
+    private final LoadSheddingFilter loadSheddingFilter;
+    private final StickyRoutingFilter stickyRoutingFilter;
+    private final JwtKeyring jwtKeyring;
+    private final WarmupRunner warmupRunner;
+    private final ConnectionDrainFilter connectionDrainFilter;
+    private final GossipCounterStore gossipCounterStore;
 
     @GetMapping(GatewayConstants.HEALTH_ENDPOINT)
     public Mono<ResponseEntity<ApiResponse<Map<String, Object>>>> health() {
@@ -122,6 +140,14 @@ public class GatewayHealthController {
         metrics.put(GatewayConstants.RESPONSE_TIMES_KEY, GatewayMessages.TRACKED_IN_ACTUATOR);
         metrics.put(GatewayConstants.CIRCUIT_BREAKER_STATES_KEY, GatewayMessages.TRACKED_IN_ACTUATOR);
 
+        metrics.put(GatewayConstants.STALE_CACHE_KEY, lastKnownGoodCache.snapshot());
+        metrics.put(GatewayConstants.EVENT_LOOPS_KEY, eventLoopLagMonitor.snapshot());
+        metrics.put(GatewayConstants.LOAD_SHEDDING_KEY, loadSheddingFilter.snapshot());
+        metrics.put(GatewayConstants.STICKY_ROUTING_KEY, stickyRoutingFilter.snapshot());
+        metrics.put(GatewayConstants.JWT_KEYS_KEY, jwtKeyring.snapshot());
+        metrics.put(GatewayConstants.WARMUP_KEY, warmupRunner.snapshot());
+        metrics.put(GatewayConstants.DRAIN_KEY, connectionDrainFilter.snapshot());
+        metrics.put(GatewayConstants.RATE_LIMIT_GOSSIP_KEY, gossipCounterStore.snapshot());
         metrics.put(GatewayConstants.SERVICE_URLS_KEY, properties.getServiceUrlsMap());
         metrics.put(GatewayConstants.TIMESTAMP_KEY, LocalDateTime.now());
 
@@ -154,26 +180,30 @@ public class GatewayHealthController {
                 .timeout(Duration.ofSeconds(GatewayConstants.HEALTH_CHECK_TIMEOUT))
                 .doOnError(error -> log.warn(GatewayMessages.AUTH_SERVICE_HEALTH_FAILED, error.toString()));
 
-        // Check Redis
-        Mono<String> redisHealth = redisTemplate.opsForValue()
-                .set(GatewayConstants.REDIS_HEALTH_CHECK_KEY, GatewayConstants.REDIS_HEALTH_CHECK_VALUE)
-                .then(redisTemplate.opsForValue().get(GatewayConstants.REDIS_HEALTH_CHECK_KEY))
-                .map(value -> GatewayConstants.REDIS_HEALTH_CHECK_VALUE.equals(value) ?
-                        GatewayConstants.STATUS_UP : GatewayConstants.STATUS_DOWN)
-                .onErrorReturn(GatewayConstants.STATUS_DOWN)
-                .timeout(Duration.ofSeconds(GatewayConstants.REDIS_TIMEOUT))
-                .doOnError(error -> log.warn(GatewayMessages.REDIS_HEALTH_FAILED, error.toString()));
+        // Check Redis - in gossip mode rate limiting does not use it; the gossip peers are checked instead
+        Mono<String> rateLimitHealth = gossipCounterStore.isEnabled()
+                ? Mono.fromSupplier(() -> gossipCounterStore.isConverging() ? GatewayConstants.STATUS_UP : GatewayConstants.STATUS_DOWN)
+                : redisTemplate == null ? Mono.just(GatewayConstants.STATUS_DOWN)
+                : redisTemplate.opsForValue()
+                        .set(GatewayConstants.REDIS_HEALTH_CHECK_KEY, GatewayConstants.REDIS_HEALTH_CHECK_VALUE)
+                        .then(redisTemplate.opsForValue().get(GatewayConstants.REDIS_HEALTH_CHECK_KEY))
+                        .map(value -> GatewayConstants.REDIS_HEALTH_CHECK_VALUE.equals(value) ?
+                                GatewayConstants.STATUS_UP : GatewayConstants.STATUS_DOWN)
+                        .onErrorReturn(GatewayConstants.STATUS_DOWN)
+                        .timeout(Duration.ofSeconds(GatewayConstants.REDIS_TIMEOUT))
+                        .doOnError(error -> log.warn(GatewayMessages.REDIS_HEALTH_FAILED, error.toString()));
 
         // Future services - using constants
         Mono<String> organizationServiceHealth = Mono.just(GatewayConstants.STATUS_NOT_IMPLEMENTED);
         Mono<String> chatServiceHealth = Mono.just(GatewayConstants.STATUS_NOT_IMPLEMENTED);
 
-        return Mono.zip(userServiceHealth, authServiceHealth, redisHealth, organizationServiceHealth, chatServiceHealth)
+        return Mono.zip(userServiceHealth, authServiceHealth, rateLimitHealth, organizationServiceHealth, chatServiceHealth)
                 .map(tuple -> {
                     Map<String, String> services = new HashMap<>();
                     services.put(GatewayConstants.USER_SERVICE, tuple.getT1());
                     services.put(GatewayConstants.AUTH_SERVICE, tuple.getT2());
-                    services.put(GatewayConstants.REDIS_SERVICE, tuple.getT3());
+                    services.put(gossipCounterStore.isEnabled() ? GatewayConstants.RATE_LIMIT_PEERS_SERVICE
+                            : GatewayConstants.REDIS_SERVICE, tuple.getT3());
                     services.put(GatewayConstants.ORGANIZATION_SERVICE, tuple.getT4());
                     services.put(GatewayConstants.CHAT_SERVICE, tuple.getT5());
                     return services;
@@ -200,7 +230,7 @@ public class GatewayHealthController {
             return GatewayConstants.STATUS_DEGRADED;
         } else if (notImplementedServices > 0 && upServices > 0) {
             return GatewayConstants.STATUS_PARTIAL;
-        } else if (upServices >= 3) { // At least user, auth, and redis services
+        } else if (upServices >= 3) { // At least user, auth, and redis (or gossip peers)
             return GatewayConstants.STATUS_HEALTHY;
         } else {
             return GatewayConstants.STATUS_CRITICAL;
@@ -0,0 +1,24 @@
+package com.iam.gateway.controller;
+
+import com.iam.gateway.constants.GatewayConstants;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Warm-up Stub Controller - Fixed small response standing in for upstreams during warm-up
+ */
+@RestController
+@RequestMapping(GatewayConstants.GATEWAY_API_PREFIX)
+public class WarmupStubController {
+
+    private static final byte[] BODY = "{\"success\":true,\"warmup\":true}".getBytes(StandardCharsets.UTF_8);
+
+    @RequestMapping(GatewayConstants.WARMUP_STUB_ENDPOINT)
+    public ResponseEntity<byte[]> stub() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(BODY);
+    }
+}
@@ -0,0 +1,249 @@
+package com.iam.gateway.fallback;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.iam.common.response.ApiResponse;
+import com.iam.gateway.cache.LastKnownGoodCache;
+import com.iam.gateway.cache.StaleResponse;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fallback Response Writer - Circuit breaker fallbacks rendered once, written as raw bytes
+ * Bodies are serialized per service at startup and re-rendered when gateway properties change,
+ * so an open circuit costs a header copy and a buffer wrap instead of a Jackson round trip.
+ * The body is stored split around its timestamp value, which is filled in with the time of each failure.
+ * A route's last-known-good copy, when present, is served instead of the 503.
+ */
+@Component
+@Slf4j
+public class FallbackResponseWriter {
+
+    private static final String TIMESTAMP_MARKER = "\u0000fallback-timestamp\u0000";
+
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final LastKnownGoodCache lastKnownGoodCache;
+    private final Map<String, Counter> fallbackCounters = new HashMap<>();
+
+    private volatile Map<String, PrecomputedFallback> fallbacks;
+
+    public FallbackResponseWriter(ObjectMapper objectMapper,
+                                  Environment environment,
+                                  LastKnownGoodCache lastKnownGoodCache,
+                                  ApiGatewayProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.lastKnownGoodCache = lastKnownGoodCache;
+        this.fallbacks = render(properties);
+        fallbacks.keySet().forEach(service -> fallbackCounters.put(service, Counter.builder(GatewayConstants.FALLBACK_SERVED_METRIC)
+                .tag(GatewayConstants.METRIC_TAG_SERVICE, service)
+                .register(meterRegistry)));
+    }
+
+    /**
+     * Re-render from a fresh bind so the result does not depend on listener ordering
+     */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange() {
+        ApiGatewayProperties refreshed = Binder.get(environment)
+                .bind(GatewayConstants.GATEWAY_PROPERTIES_PREFIX, ApiGatewayProperties.class)
+                .orElseGet(ApiGatewayProperties::new);
+        this.fallbacks = render(refreshed);
+        log.info("Fallback responses re-rendered after environment change");
+    }
+
+    /**
+     * Write the stale copy or the precomputed 503 for a service
+     */
+    public Mono<Void> write(ServerWebExchange exchange, String service) {
+        ServerHttpResponse response = exchange.getResponse();
+        StaleResponse stale = lastKnownGoodCache.lookup(exchange.getAttribute(GatewayConstants.STALE_CACHE_KEY_ATTR));
+        if (stale != null) {
+            return writeStale(exchange, response, stale);
+        }
+
+        PrecomputedFallback fallback = fallbacks.getOrDefault(service, fallbacks.get(GatewayConstants.UNKNOWN_SERVICE));
+        fallbackCounters.get(fallback.service()).increment();
+
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        HttpHeaders headers = prepareHeaders(response);
+        headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        headers.set(GatewayConstants.HEADER_RETRY_AFTER, fallback.retryAfter());
+        headers.set(GatewayConstants.HEADER_FALLBACK_REASON, GatewayConstants.HEADER_VALUE_CIRCUIT_BREAKER_OPEN);
+        byte[] body = fallback.body(LocalDateTime.now());
+        headers.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> writeStale(ServerWebExchange exchange, ServerHttpResponse response, StaleResponse stale) {
+        exchange.getAttributes().put(GatewayConstants.STALE_SERVED_ATTR, Boolean.TRUE);
+        lastKnownGoodCache.recordStaleServe(stale.routeId());
+        log.debug("Serving last-known-good response for route {} (age {}s)", stale.routeId(), stale.ageSeconds());
+
+        response.setStatusCode(HttpStatusCode.valueOf(stale.status()));
+        HttpHeaders headers = prepareHeaders(response);
+        if (stale.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, stale.contentType());
+        }
+        if (stale.contentEncoding() != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, stale.contentEncoding());
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        headers.set(GatewayConstants.HEADER_AGE, String.valueOf(stale.ageSeconds()));
+        headers.set(GatewayConstants.HEADER_WARNING, GatewayConstants.HEADER_VALUE_STALE_WARNING);
+        headers.set(GatewayConstants.HEADER_FALLBACK_REASON, GatewayConstants.HEADER_VALUE_CIRCUIT_BREAKER_OPEN);
+        headers.setContentLength(stale.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(stale.body())));
+    }
+
+    /**
+     * Drop framing headers an upstream may already have contributed before failing
+     */
+    private HttpHeaders prepareHeaders(ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        return headers;
+    }
+
+    private Map<String, PrecomputedFallback> render(ApiGatewayProperties properties) {
+        int retryAfterSeconds = properties.getFallback().getRetryAfterSeconds();
+        ApiGatewayProperties.Services services = properties.getServices();
+
+        Map<String, PrecomputedFallback> rendered = new HashMap<>();
+        rendered.put(GatewayConstants.USER_SERVICE, render(properties, GatewayConstants.USER_SERVICE,
+                GatewayMessages.USER_SERVICE_UNAVAILABLE, Map.of(
+                        GatewayConstants.SERVICE_KEY, GatewayConstants.USER_SERVICE,
+                        GatewayConstants.STATUS_KEY, GatewayConstants.STATUS_UNAVAILABLE,
+                        GatewayConstants.FALLBACK_TRIGGERED_KEY, true,
+                        GatewayConstants.RETRY_AFTER_SECONDS_KEY, retryAfterSeconds,
+                        GatewayConstants.SERVICE_URL_KEY, services.getUserServiceUrl(),
+                        GatewayConstants.ALTERNATIVE_ACTION_KEY, GatewayMessages.ACTION_RETRY_LATER
+                )));
+        rendered.put(GatewayConstants.AUTH_SERVICE, render(properties, GatewayConstants.AUTH_SERVICE,
+                GatewayMessages.AUTH_SERVICE_UNAVAILABLE, Map.of(
+                        GatewayConstants.SERVICE_KEY, GatewayConstants.AUTH_SERVICE,
+                        GatewayConstants.STATUS_KEY, GatewayConstants.STATUS_UNAVAILABLE,
+                        GatewayConstants.FALLBACK_TRIGGERED_KEY, true,
+                        GatewayConstants.RETRY_AFTER_SECONDS_KEY, retryAfterSeconds,
+                        GatewayConstants.SERVICE_URL_KEY, services.getAuthServiceUrl(),
+                        GatewayConstants.ALTERNATIVE_ACTION_KEY, GatewayMessages.ACTION_AUTH_DISABLED,
+                        GatewayConstants.IMPACT_KEY, GatewayMessages.IMPACT_AUTH_SERVICE
+                )));
+        rendered.put(GatewayConstants.ORGANIZATION_SERVICE, render(properties, GatewayConstants.ORGANIZATION_SERVICE,
+                GatewayMessages.ORGANIZATION_SERVICE_UNAVAILABLE, Map.of(
+                        GatewayConstants.SERVICE_KEY, GatewayConstants.ORGANIZATION_SERVICE,
+                        GatewayConstants.STATUS_KEY, GatewayConstants.STATUS_UNAVAILABLE,
+                        GatewayConstants.FALLBACK_TRIGGERED_KEY, true,
+                        GatewayConstants.RETRY_AFTER_SECONDS_KEY, retryAfterSeconds,
+                        GatewayConstants.SERVICE_URL_KEY, services.getOrganizationServiceUrl(),
+                        GatewayConstants.ALTERNATIVE_ACTION_KEY, GatewayMessages.ACTION_ORG_UNAVAILABLE,
+                        GatewayConstants.CACHED_DATA_AVAILABLE_KEY, false // only written when no last-known-good copy exists
+                )));
+        rendered.put(GatewayConstants.CHAT_SERVICE, render(properties, GatewayConstants.CHAT_SERVICE,
+                GatewayMessages.CHAT_SERVICE_UNAVAILABLE, Map.of(
+                        GatewayConstants.SERVICE_KEY, GatewayConstants.CHAT_SERVICE,
+                        GatewayConstants.STATUS_KEY, GatewayConstants.STATUS_UNAVAILABLE,
+                        GatewayConstants.FALLBACK_TRIGGERED_KEY, true,
+                        GatewayConstants.RETRY_AFTER_SECONDS_KEY, retryAfterSeconds,
+                        GatewayConstants.SERVICE_URL_KEY, services.getChatServiceUrl(),
+                        GatewayConstants.ALTERNATIVE_ACTION_KEY, GatewayMessages.ACTION_CHAT_UNAVAILABLE,
+                        GatewayConstants.IMPACT_KEY, GatewayMessages.IMPACT_CHAT_SERVICE
+                )));
+        rendered.put(GatewayConstants.ADMIN_SERVICE, render(properties, GatewayConstants.ADMIN_SERVICE,
+                GatewayMessages.ADMIN_SERVICE_UNAVAILABLE, Map.of(
+                        GatewayConstants.SERVICE_KEY, GatewayConstants.ADMIN_SERVICE,
+                        GatewayConstants.STATUS_KEY, GatewayConstants.STATUS_UNAVAILABLE,
+                        GatewayConstants.FALLBACK_TRIGGERED_KEY, true,
+                        GatewayConstants.RETRY_AFTER_SECONDS_KEY, retryAfterSeconds,
+                        GatewayConstants.SERVICE_URL_KEY, services.getUserServiceUrl(), // Admin goes through user service
+                        GatewayConstants.ALTERNATIVE_ACTION_KEY, GatewayMessages.ACTION_ADMIN_UNAVAILABLE,
+                        GatewayConstants.IMPACT_KEY, GatewayMessages.IMPACT_ADMIN_SERVICE
+                )));
+        rendered.put(GatewayConstants.UNKNOWN_SERVICE, render(properties, GatewayConstants.UNKNOWN_SERVICE,
+                GatewayMessages.GENERIC_SERVICE_UNAVAILABLE, Map.of(
+                        GatewayConstants.SERVICE_KEY, GatewayConstants.UNKNOWN_SERVICE,
+                        GatewayConstants.STATUS_KEY, GatewayConstants.STATUS_UNAVAILABLE,
+                        GatewayConstants.FALLBACK_TRIGGERED_KEY, true,
+                        GatewayConstants.RETRY_AFTER_SECONDS_KEY, retryAfterSeconds,
+                        GatewayConstants.ALTERNATIVE_ACTION_KEY, GatewayMessages.ACTION_UNKNOWN_SERVICE
+                )));
+        return Map.copyOf(rendered);
+    }
+
+    private PrecomputedFallback render(ApiGatewayProperties properties, String service, String message,
+                                       Map<String, Object> fallbackData) {
+        try {
+            ObjectNode response = objectMapper.valueToTree(ApiResponse.success(fallbackData, message));
+            String retryAfter = String.valueOf(properties.getFallback().getRetryAfterSeconds());
+            if (!response.has(GatewayConstants.TIMESTAMP_KEY)) {
+                return new PrecomputedFallback(service, objectMapper.writeValueAsBytes(response), null, retryAfter);
+            }
+            // Render with a marker in place of the timestamp and keep the bytes on either side of it
+            response.put(GatewayConstants.TIMESTAMP_KEY, TIMESTAMP_MARKER);
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            byte[] marker = objectMapper.writeValueAsBytes(TIMESTAMP_MARKER);
+            int at = indexOf(body, marker);
+            return new PrecomputedFallback(service, Arrays.copyOfRange(body, 0, at),
+                    Arrays.copyOfRange(body, at + marker.length, body.length), retryAfter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to render fallback response for " + service, e);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i <= bytes.length - part.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new IllegalStateException("Timestamp marker not found in rendered fallback");
+    }
+
+    /**
+     * Pre-encoded 503 for one service; suffix is null when the body carries no timestamp
+     */
+    public record PrecomputedFallback(String service, byte[] prefix, byte[] suffix, String retryAfter) {
+
+        byte[] body(LocalDateTime timestamp) {
+            if (suffix == null) {
+                return prefix;
+            }
+            byte[] value = ('"' + timestamp.toString() + '"').getBytes(StandardCharsets.US_ASCII);
+            byte[] body = new byte[prefix.length + value.length + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(value, 0, body, prefix.length, value.length);
+            System.arraycopy(suffix, 0, body, prefix.length + value.length, suffix.length);
+            return body;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.constants.GatewayConstants;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies header changes still pending on the exchange just before the request is routed
+ */
+@Component
+public class ApplyRequestDecorationFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestDecoration decoration = exchange.getAttribute(GatewayConstants.REQUEST_DECORATION_ATTR);
+        return chain.filter(decoration != null ? decoration.apply(exchange) : exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 20; // ahead of the WebSocket routing filter (ORDER - 1) and upstream timing
+    }
+}
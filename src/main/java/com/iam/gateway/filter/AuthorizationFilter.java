@@ -0,0 +1,91 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.cache.UserContext;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.security.AuthorizationPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Route Authorization Filter - Role checks against the compiled AuthorizationPolicy
+ * Must run after JwtAuthenticationFilter, which stores the caller's UserContext on the exchange.
+ */
+@Component
+@Slf4j
+public class AuthorizationFilter extends AbstractGatewayFilterFactory<AuthorizationFilter.Config> {
+
+    // Denials are rendered once; the body carries no per-request data
+    private static final byte[] FORBIDDEN_BODY = String.format("""
+            {"success":false,"message":"%s","error":"%s","status":403}""",
+            GatewayMessages.ACCESS_DENIED,
+            GatewayMessages.ACCESS_DENIED_INSUFFICIENT_PERMISSIONS
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private final AuthorizationPolicy authorizationPolicy;
+
+    public AuthorizationFilter(AuthorizationPolicy authorizationPolicy) {
+        super(Config.class);
+        this.authorizationPolicy = authorizationPolicy;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Resolve the rule at route build time so requests skip the lookup
+        AuthorizationPolicy.CompiledRule rule = authorizationPolicy.ruleFor(config.getRouteId());
+        if (rule == null) {
+            log.warn("No authorization rule configured for route {} - only authentication will be enforced",
+                    config.getRouteId());
+        }
+
+        return (exchange, chain) -> {
+            UserContext userContext = exchange.getAttribute(GatewayConstants.USER_CONTEXT_ATTR);
+            if (userContext == null && rule != null && authorizationPolicy.isEnabled()) {
+                return handleForbidden(exchange);
+            }
+            if (userContext != null
+                    && !authorizationPolicy.isAllowed(rule, userContext, exchange.getRequest().getPath().value())) {
+                log.debug("Authorization denied for user {} on route {}", userContext.subject(), config.getRouteId());
+                return handleForbidden(exchange);
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    /**
+     * Handle forbidden access - pre-encoded body, no formatting per request
+     */
+    private Mono<Void> handleForbidden(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.FORBIDDEN);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayMessages.ERROR_AUTHORIZATION_FAILED);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(FORBIDDEN_BODY)));
+    }
+
+    /**
+     * Configuration class for authorization filter
+     */
+    @Setter
+    @Getter
+    public static class Config {
+        private String routeId;
+
+        public Config routeId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+    }
+}
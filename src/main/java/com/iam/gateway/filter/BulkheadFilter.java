@@ -0,0 +1,273 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Route Bulkhead Filter - Caps concurrent in-flight requests per route
+ * Permits come from a resilience4j semaphore bulkhead used in non-blocking mode (zero wait);
+ * the optional wait queue is a bounded reactive queue, so no event-loop thread ever parks.
+ * Once permits and queue are exhausted requests are rejected immediately with a pre-encoded 503.
+ */
+@Component
+@Slf4j
+public class BulkheadFilter extends AbstractGatewayFilterFactory<BulkheadFilter.Config> {
+
+    private static final byte[] REJECTED_BODY = String.format("""
+            {"success":false,"message":"%s","error":"%s","status":503}""",
+            GatewayMessages.ROUTE_AT_CAPACITY,
+            GatewayMessages.ERROR_BULKHEAD_FULL
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final String RETRY_AFTER = String.valueOf(GatewayConstants.BULKHEAD_RETRY_AFTER_SECONDS);
+
+    private final ApiGatewayProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadFilter(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (!properties.getBulkhead().isEnabled()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        RouteBulkhead bulkhead = bulkheads.computeIfAbsent(config.getRouteId(),
+                routeId -> new RouteBulkhead(routeId, properties.getBulkhead().forRoute(routeId)));
+        return bulkhead::filter;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_RETRY_AFTER, RETRY_AFTER);
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayMessages.ERROR_BULKHEAD_FULL);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(REJECTED_BODY)));
+    }
+
+    /**
+     * Permits, wait queue and meters for one route
+     */
+    private class RouteBulkhead {
+
+        private final Bulkhead bulkhead;
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final Duration maxWait;
+        private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Timer queueTime;
+        private final Counter rejected;
+
+        RouteBulkhead(String routeId, ApiGatewayProperties.BulkheadRoute limits) {
+            this.maxConcurrent = limits.getMaxConcurrent();
+            this.maxQueue = limits.getMaxQueue();
+            this.maxWait = limits.getMaxWait();
+            this.bulkhead = Bulkhead.of(routeId, BulkheadConfig.custom()
+                    .maxConcurrentCalls(maxConcurrent)
+                    .maxWaitDuration(Duration.ZERO)
+                    .build());
+
+            Gauge.builder(GatewayConstants.BULKHEAD_METRIC_PREFIX + ".saturation", this, RouteBulkhead::saturation)
+                    .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                    .register(meterRegistry);
+            Gauge.builder(GatewayConstants.BULKHEAD_METRIC_PREFIX + ".queue.depth", queued, AtomicInteger::get)
+                    .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                    .register(meterRegistry);
+            this.queueTime = Timer.builder(GatewayConstants.BULKHEAD_METRIC_PREFIX + ".queue.time")
+                    .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.rejected = Counter.builder(GatewayConstants.BULKHEAD_METRIC_PREFIX + ".rejected")
+                    .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                    .register(meterRegistry);
+
+            log.info("Bulkhead for route {}: maxConcurrent={}, maxQueue={}, maxWait={}",
+                    routeId, maxConcurrent, maxQueue, maxWait);
+        }
+
+        Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            if (bulkhead.tryAcquirePermission()) {
+                return run(exchange, chain);
+            }
+            if (maxQueue <= 0 || queued.incrementAndGet() > maxQueue) {
+                if (maxQueue > 0) {
+                    queued.decrementAndGet();
+                }
+                rejected.increment();
+                return reject(exchange);
+            }
+
+            long enqueuedAt = System.nanoTime();
+            Waiter waiter = new Waiter(bulkhead);
+            return Mono.<Boolean>create(sink -> {
+                        waiter.attach(sink);
+                        sink.onCancel(() -> cancel(waiter)); // timeout or client gone
+                        waiters.add(waiter);
+                        drain(); // a permit may have been released between the failed acquire and the enqueue
+                    })
+                    .timeout(maxWait, Mono.just(Boolean.FALSE))
+                    .flatMap(granted -> {
+                        queueTime.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                        if (!granted || !waiter.claim()) {
+                            rejected.increment();
+                            return reject(exchange);
+                        }
+                        return run(exchange, chain);
+                    });
+        }
+
+        private Mono<Void> run(ServerWebExchange exchange, GatewayFilterChain chain) {
+            return chain.filter(exchange).doFinally(signal -> {
+                bulkhead.onComplete();
+                drain();
+            });
+        }
+
+        /**
+         * Hand free permits to queued waiters in arrival order
+         */
+        private void drain() {
+            Waiter waiter;
+            while ((waiter = waiters.peek()) != null) {
+                if (waiter.isCancelled()) {
+                    waiters.remove(waiter); // its queue slot was released when it was cancelled
+                    continue;
+                }
+                if (!bulkhead.tryAcquirePermission()) {
+                    return;
+                }
+                if (waiter.grant()) {
+                    dequeue(waiter);
+                } else {
+                    // Cancelled while we were acquiring - give the permit back
+                    bulkhead.releasePermission();
+                    waiters.remove(waiter);
+                }
+            }
+        }
+
+        /**
+         * A cancelled waiter leaves the queue at once, wherever it is, so dead waiters never hold slots
+         */
+        private void cancel(Waiter waiter) {
+            if (waiter.cancel()) {
+                dequeue(waiter);
+            }
+        }
+
+        /**
+         * Called once per waiter, by whichever of grant and cancel won its state transition
+         */
+        private void dequeue(Waiter waiter) {
+            waiters.remove(waiter);
+            queued.decrementAndGet();
+        }
+
+        private double saturation() {
+            return (double) (maxConcurrent - bulkhead.getMetrics().getAvailableConcurrentCalls()) / maxConcurrent;
+        }
+    }
+
+    /**
+     * Queued request. A granted permit is either claimed by the request or, if the waiter was
+     * cancelled (timeout or client gone) before it could run, handed back to the bulkhead.
+     */
+    private static class Waiter {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CLAIMED = 2;
+        private static final int CANCELLED = 3;
+
+        private final Bulkhead bulkhead;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile MonoSink<Boolean> sink;
+
+        Waiter(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        void attach(MonoSink<Boolean> sink) {
+            this.sink = sink;
+        }
+
+        boolean grant() {
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                sink.success(Boolean.TRUE);
+                return true;
+            }
+            return false;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(GRANTED, CLAIMED);
+        }
+
+        /**
+         * True when the waiter was still waiting, i.e. the caller now owns its queue slot
+         */
+        boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                return true;
+            }
+            if (state.compareAndSet(GRANTED, CANCELLED)) {
+                bulkhead.releasePermission();
+            }
+            return false;
+        }
+
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+
+    /**
+     * Configuration class for bulkhead filter
+     */
+    @Setter
+    @Getter
+    public static class Config {
+        private String routeId;
+
+        public Config routeId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServerRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection Drain Filter - Lets in-flight work finish on shutdown instead of cutting it off
+ * Runs on ContextClosedEvent, before any lifecycle bean (web server, Redis, pools) is stopped: readiness
+ * goes to REFUSING_TRAFFIC at once, new and in-flight HTTP/1.x responses carry Connection: close so
+ * keep-alive clients reconnect elsewhere, and shutdown waits for in-flight requests (WebSocket sessions
+ * included) until the budget runs out. The routing connection pool is then closed. HTTP/2 clients get
+ * GOAWAY when the server shuts down gracefully afterwards.
+ * Propagation delay + budget + pool close timeout + spring.lifecycle.timeout-per-shutdown-phase must stay
+ * below the pod's terminationGracePeriodSeconds (Kubernetes default 30s); the defaults add up to 28s.
+ */
+@Component
+@Slf4j
+public class ConnectionDrainFilter implements WebFilter, Ordered {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final ApiGatewayProperties.Drain settings;
+    private final ApplicationContext applicationContext;
+    private final HttpClient gatewayHttpClient;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter completed;
+    private final Counter aborted;
+    private volatile boolean draining;
+
+    public ConnectionDrainFilter(ApiGatewayProperties properties, ApplicationContext applicationContext,
+                                 HttpClient gatewayHttpClient, MeterRegistry meterRegistry) {
+        this.settings = properties.getDrain();
+        this.applicationContext = applicationContext;
+        this.gatewayHttpClient = gatewayHttpClient;
+        this.completed = Counter.builder(GatewayConstants.DRAIN_METRIC_PREFIX + ".requests")
+                .tag(GatewayConstants.METRIC_TAG_OUTCOME, GatewayConstants.DRAIN_OUTCOME_COMPLETED)
+                .register(meterRegistry);
+        this.aborted = Counter.builder(GatewayConstants.DRAIN_METRIC_PREFIX + ".requests")
+                .tag(GatewayConstants.METRIC_TAG_OUTCOME, GatewayConstants.DRAIN_OUTCOME_ABORTED)
+                .register(meterRegistry);
+        Gauge.builder(GatewayConstants.DRAIN_METRIC_PREFIX + ".in_flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!settings.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        inFlight.incrementAndGet();
+        exchange.getResponse().beforeCommit(() -> {
+            if (draining && isHttp1(exchange)) {
+                exchange.getResponse().getHeaders().set(HttpHeaders.CONNECTION, GatewayConstants.HEADER_VALUE_CLOSE);
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> {
+            inFlight.decrementAndGet();
+            if (draining) {
+                completed.increment();
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE; // first web filter: count everything, including requests load shedding rejects
+    }
+
+    /**
+     * Blocks the closing thread until drained; everything else shuts down after this returns
+     */
+    @EventListener
+    public void onContextClosed(ContextClosedEvent event) {
+        if (!settings.isEnabled() || event.getApplicationContext() != applicationContext || draining) {
+            return;
+        }
+        draining = true;
+        long started = System.nanoTime();
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        log.info("Draining: readiness set to REFUSING_TRAFFIC, {} requests in flight (budget: {})",
+                inFlight.get(), settings.getBudget());
+
+        long deadline = started + settings.getPropagationDelay().toNanos() + settings.getBudget().toNanos();
+        Mono.delay(settings.getPropagationDelay()) // keep serving until load balancers see the readiness change
+                .thenMany(Flux.interval(Duration.ZERO, POLL_INTERVAL)
+                        .takeUntil(tick -> inFlight.get() == 0 || System.nanoTime() >= deadline))
+                .then()
+                .block();
+
+        int remaining = inFlight.get();
+        aborted.increment(remaining);
+        closeUpstreamPool();
+        log.info("Drain finished after {} ms: {} requests completed, {} still in flight and cut off",
+                (System.nanoTime() - started) / 1_000_000, (long) completed.count(), remaining);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put(GatewayConstants.DRAINING_KEY, draining);
+        snapshot.put(GatewayConstants.IN_FLIGHT_KEY, inFlight.get());
+        snapshot.put(GatewayConstants.DRAIN_OUTCOME_COMPLETED, (long) completed.count());
+        snapshot.put(GatewayConstants.DRAIN_OUTCOME_ABORTED, (long) aborted.count());
+        return snapshot;
+    }
+
+    private void closeUpstreamPool() {
+        try {
+            gatewayHttpClient.configuration().connectionProvider().disposeLater()
+                    .block(settings.getPoolCloseTimeout());
+        } catch (RuntimeException e) {
+            log.warn("Routing connection pool did not close cleanly: {}", e.toString());
+        }
+    }
+
+    /**
+     * HTTP/2 forbids connection-specific headers; those connections are closed with GOAWAY instead
+     */
+    private static boolean isHttp1(ServerWebExchange exchange) {
+        Object nativeRequest = ServerHttpRequestDecorator.getNativeRequest(exchange.getRequest());
+        return !(nativeRequest instanceof HttpServerRequest request) || request.version().majorVersion() < 2;
+    }
+}
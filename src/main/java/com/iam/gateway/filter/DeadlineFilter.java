@@ -0,0 +1,168 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline Filter - One time budget per request, from arrival until the upstream answers
+ * The budget is the route's deadline, shortened by an incoming X-Request-Timeout (milliseconds). Just
+ * before routing ({@link UpstreamDeadlineFilter}) the remaining budget is sent upstream in the same
+ * header and the upstream exchange is cancelled when it runs out, so its connection is released instead
+ * of waiting on work nobody will read. A request whose budget is spent before routing gets a 504 without
+ * reaching the upstream at all. WebSocket upgrades are not limited.
+ * On routes behind a circuit breaker the timeout is applied around the breaker ({@link #guard}): an
+ * expiry cancels the breaker's call instead of failing it, so deadlines shortened by clients never count
+ * towards opening the breaker, and the client gets a 504 rather than the fallback.
+ */
+@Component
+public class DeadlineFilter implements GlobalFilter, Ordered {
+
+    private static final byte[] EXPIRED_BODY = String.format("""
+            {"success":false,"message":"%s","error":"%s","status":504}""",
+            GatewayMessages.DEADLINE_EXCEEDED,
+            GatewayMessages.ERROR_DEADLINE_EXCEEDED
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final int MAX_TIMEOUT_DIGITS = 9; // ~11 days; anything longer is not a real deadline
+
+    private final ApiGatewayProperties.Deadline settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> cancellations = new ConcurrentHashMap<>();
+
+    public DeadlineFilter(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getDeadline();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!settings.isEnabled() || route == null || GatewayConstants.UPGRADE_WEBSOCKET.equalsIgnoreCase(headers.getUpgrade())) {
+            return chain.filter(exchange);
+        }
+        long budgetNanos = settings.forRoute(route.getId()).toNanos();
+        long requestedMillis = requestedMillis(headers.getFirst(GatewayConstants.HEADER_REQUEST_TIMEOUT));
+        if (requestedMillis >= 0) {
+            budgetNanos = Math.min(budgetNanos, TimeUnit.MILLISECONDS.toNanos(requestedMillis));
+        }
+        exchange.getAttributes().put(GatewayConstants.DEADLINE_ATTR, System.nanoTime() + budgetNanos);
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE; // the budget covers every gateway stage, not just the upstream call
+    }
+
+    /**
+     * Route with whatever budget is left; called right before the request leaves the gateway
+     */
+    Mono<Void> enforce(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Long deadline = exchange.getAttribute(GatewayConstants.DEADLINE_ATTR);
+        if (deadline == null) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getRequiredAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        long remaining = deadline - System.nanoTime();
+        if (remaining < settings.getMinUpstreamBudget().toNanos()) {
+            cancellation(route.getId(), GatewayConstants.DEADLINE_REASON_EXPIRED).increment();
+            return reject(exchange);
+        }
+
+        RequestDecoration.of(exchange).set(GatewayConstants.HEADER_REQUEST_TIMEOUT,
+                Long.toString(TimeUnit.NANOSECONDS.toMillis(remaining)));
+        if (exchange.getAttribute(GatewayConstants.DEADLINE_GUARDED_ATTR) != null) {
+            return chain.filter(exchange); // timed around the circuit breaker
+        }
+        return within(exchange, route.getId(), remaining, chain.filter(exchange));
+    }
+
+    /**
+     * Bound a circuit breaker's call by the request's deadline from outside the breaker. When the deadline
+     * passes, the call is cancelled - the breaker releases its permit without recording a failure - and
+     * the client gets a 504.
+     */
+    public Mono<Void> guard(ServerWebExchange exchange, Mono<Void> call) {
+        Long deadline = exchange.getAttribute(GatewayConstants.DEADLINE_ATTR);
+        if (deadline == null) {
+            return call;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining < settings.getMinUpstreamBudget().toNanos()) {
+            return call; // enforce() answers 504 without calling the upstream, which the breaker sees as success
+        }
+        Route route = exchange.getRequiredAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        exchange.getAttributes().put(GatewayConstants.DEADLINE_GUARDED_ATTR, Boolean.TRUE);
+        return within(exchange, route.getId(), remaining, call);
+    }
+
+    private Mono<Void> within(ServerWebExchange exchange, String routeId, long remainingNanos, Mono<Void> call) {
+        return call
+                .timeout(Duration.ofNanos(remainingNanos), Mono.defer(() -> {
+                    cancellation(routeId, GatewayConstants.DEADLINE_REASON_TIMEOUT).increment();
+                    if (exchange.getResponse().isCommitted()) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, GatewayMessages.DEADLINE_EXCEEDED));
+                    }
+                    return reject(exchange);
+                }))
+                // Only reached while still waiting for the upstream: the client went away first
+                .doOnCancel(() -> cancellation(routeId, GatewayConstants.DEADLINE_REASON_CLIENT_GONE).increment());
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayMessages.ERROR_DEADLINE_EXCEEDED);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(EXPIRED_BODY)));
+    }
+
+    private Counter cancellation(String routeId, String reason) {
+        return cancellations.computeIfAbsent(routeId + '|' + reason,
+                key -> Counter.builder(GatewayConstants.DEADLINE_METRIC_PREFIX + ".cancelled")
+                        .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                        .tag(GatewayConstants.METRIC_TAG_REASON, reason)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Non-negative milliseconds, or -1 when the header is absent or not a plain number
+     */
+    private static long requestedMillis(String header) {
+        if (header == null || header.isEmpty() || header.length() > MAX_TIMEOUT_DIGITS) {
+            return -1;
+        }
+        long millis = 0;
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            millis = millis * 10 + (c - '0');
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,215 @@
+package com.iam.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.security.HeavyHitterDetector;
+import com.iam.gateway.util.ClientAddress;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heavy Hitter Filter - Rejects obvious abusers locally before the Redis rate limiter
+ * Every request on a configured path counts against its client IP; POST bodies on those paths are
+ * also tokenized for the top-level login username/email, which counts against the (hashed) username.
+ * Values are decoded exactly as auth-service binds them, so escapes cannot split one username across
+ * many keys, and a body naming either field twice is refused with a 400 since the service would log in
+ * the last one. Over-threshold keys get a pre-encoded 429 without a Redis round trip. POST bodies are
+ * buffered up to max-body-bytes only; anything larger is refused with a 413 before it is held in
+ * memory. Place before the rate limiter on the route.
+ */
+@Component
+@Slf4j
+public class HeavyHitterFilter extends AbstractGatewayFilterFactory<HeavyHitterFilter.Config> {
+
+    private static final byte[] REJECTED_BODY = String.format("""
+            {"success":false,"message":"%s","error":"%s","status":429}""",
+            GatewayMessages.TOO_MANY_ATTEMPTS,
+            GatewayMessages.ERROR_HEAVY_HITTER
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] TOO_LARGE_BODY = String.format("""
+            {"success":false,"message":"%s","error":"%s","status":413}""",
+            GatewayMessages.REQUEST_BODY_TOO_LARGE,
+            GatewayMessages.ERROR_REQUEST_TOO_LARGE
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] REPEATED_FIELD_BODY = String.format("""
+            {"success":false,"message":"%s","error":"%s","status":400}""",
+            GatewayMessages.LOGIN_FIELD_REPEATED,
+            GatewayMessages.ERROR_LOGIN_FIELD_REPEATED
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final String[] USERNAME_FIELDS = {GatewayConstants.LOGIN_USERNAME_FIELD, GatewayConstants.LOGIN_EMAIL_FIELD};
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final HeavyHitterDetector detector;
+    private final ApiGatewayProperties.HeavyHitter settings;
+    private final List<PathPattern> paths;
+
+    public HeavyHitterFilter(HeavyHitterDetector detector, ApiGatewayProperties properties) {
+        super(Config.class);
+        this.detector = detector;
+        this.settings = properties.getRateLimit().getHeavyHitter();
+        this.paths = settings.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (!detector.isEnabled()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!matches(request.getPath().pathWithinApplication())) {
+                return chain.filter(exchange);
+            }
+            if (detector.recordIp(ClientAddress.of(exchange))) {
+                return reject(exchange);
+            }
+            if (!HttpMethod.POST.equals(request.getMethod())) {
+                return chain.filter(exchange);
+            }
+
+            if (request.getHeaders().getContentLength() > settings.getMaxBodyBytes()) {
+                return tooLarge(exchange);
+            }
+
+            return DataBufferUtils.join(request.getBody(), settings.getMaxBodyBytes())
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(body -> {
+                        List<String> usernames = loginUsernames(body);
+                        if (usernames == null) {
+                            return repeatedField(exchange);
+                        }
+                        for (int i = 0; i < usernames.size(); i++) {
+                            if (detector.recordUsername(usernames.get(i))) {
+                                return reject(exchange);
+                            }
+                        }
+                        return chain.filter(exchange.mutate().request(replayBody(exchange, body)).build());
+                    })
+                    .onErrorResume(DataBufferLimitException.class, e -> tooLarge(exchange));
+        };
+    }
+
+    private boolean matches(PathContainer path) {
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Top-level username/email values of a JSON login body, decoded; null when a field appears twice
+     * (names compared ignoring case). Bodies that are not a JSON object count nothing: auth-service
+     * rejects them without attempting a login.
+     */
+    static List<String> loginUsernames(byte[] body) {
+        String[] values = new String[USERNAME_FIELDS.length];
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return List.of();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                for (int i = 0; i < USERNAME_FIELDS.length; i++) {
+                    if (!USERNAME_FIELDS[i].equalsIgnoreCase(name)) {
+                        continue;
+                    }
+                    if (values[i] != null) {
+                        return null;
+                    }
+                    values[i] = value.isScalarValue() ? parser.getValueAsString("") : "";
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            return List.of();
+        }
+        List<String> usernames = new ArrayList<>(USERNAME_FIELDS.length);
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                usernames.add(value);
+            }
+        }
+        return usernames;
+    }
+
+    private ServerHttpRequest replayBody(ServerWebExchange exchange, byte[] body) {
+        return new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_RETRY_AFTER, String.valueOf(detector.getDecayIntervalSeconds()));
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayConstants.HEADER_VALUE_HEAVY_HITTER);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(REJECTED_BODY)));
+    }
+
+    private Mono<Void> repeatedField(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.BAD_REQUEST);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayConstants.HEADER_VALUE_LOGIN_FIELD_REPEATED);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(REPEATED_FIELD_BODY)));
+    }
+
+    private Mono<Void> tooLarge(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayConstants.HEADER_VALUE_REQUEST_TOO_LARGE);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(TOO_LARGE_BODY)));
+    }
+
+    /**
+     * Configuration class for heavy hitter filter
+     */
+    public static class Config {
+    }
+}
@@ -0,0 +1,342 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.cache.IdempotencyStore;
+import com.iam.gateway.cache.IdempotentResponse;
+import com.iam.gateway.cache.UserContext;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Idempotency Filter - Deduplicates retried POST/PUT/PATCH requests carrying an Idempotency-Key
+ * The key is scoped to the route and the JWT-authenticated subject; the request is fingerprinted over
+ * method, path, query and body. The first request runs and its response is stored with its status, body
+ * and replayable headers; retries with the same fingerprint get the stored response, concurrent duplicates
+ * wait for the original, and reuse of a key for a different request is rejected with 422. Requests without
+ * an authenticated subject are never deduplicated. Redis failures fail open. Place after JWT authentication.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter extends AbstractGatewayFilterFactory<IdempotencyFilter.Config> {
+
+    private static final Set<HttpMethod> UNSAFE_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH);
+
+    /**
+     * Response headers stored with the body and restored on replay; hop-by-hop, framing and
+     * per-response headers (Date, Set-Cookie, tracing) are left out. The body is stored as the upstream
+     * encoded it, so Content-Encoding and Vary must come back with it.
+     */
+    private static final List<String> REPLAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.VARY, HttpHeaders.LOCATION, HttpHeaders.CONTENT_LOCATION,
+            HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL);
+
+    private static final byte[] INVALID_BODY = rejectionBody(GatewayMessages.IDEMPOTENCY_KEY_INVALID,
+            GatewayMessages.ERROR_IDEMPOTENCY_KEY_INVALID, HttpStatus.BAD_REQUEST);
+    private static final byte[] TOO_LARGE_BODY = rejectionBody(GatewayMessages.REQUEST_BODY_TOO_LARGE,
+            GatewayMessages.ERROR_REQUEST_TOO_LARGE, HttpStatus.PAYLOAD_TOO_LARGE);
+    private static final byte[] REUSED_BODY = rejectionBody(GatewayMessages.IDEMPOTENCY_KEY_REUSED,
+            GatewayMessages.ERROR_IDEMPOTENCY_KEY_REUSED, HttpStatus.UNPROCESSABLE_ENTITY);
+    private static final byte[] IN_PROGRESS_BODY = rejectionBody(GatewayMessages.IDEMPOTENCY_IN_PROGRESS,
+            GatewayMessages.ERROR_IDEMPOTENCY_IN_PROGRESS, HttpStatus.CONFLICT);
+
+    private final IdempotencyStore store;
+    private final ApiGatewayProperties.Idempotency settings;
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        super(Config.class);
+        this.store = store;
+        this.settings = store.getSettings();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        if (!store.isEnabledFor(routeId)) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String idempotencyKey = request.getHeaders().getFirst(GatewayConstants.HEADER_IDEMPOTENCY_KEY);
+            if (idempotencyKey == null || !UNSAFE_METHODS.contains(request.getMethod())) {
+                return chain.filter(exchange);
+            }
+            if (idempotencyKey.isEmpty() || idempotencyKey.length() > settings.getMaxKeyLength()) {
+                return reject(exchange, HttpStatus.BAD_REQUEST, INVALID_BODY);
+            }
+
+            // Only a verified subject scopes the key; client-supplied identity headers never do
+            UserContext userContext = exchange.getAttribute(GatewayConstants.USER_CONTEXT_ATTR);
+            if (userContext == null) {
+                return chain.filter(exchange);
+            }
+
+            String key = scopedKey(routeId, userContext.subject(), idempotencyKey);
+            return DataBufferUtils.join(request.getBody(), settings.getMaxRequestBytes())
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(body -> {
+                        ServerWebExchange replayable = exchange.mutate().request(replayBody(exchange, body)).build();
+                        return deduplicate(replayable, chain, key, fingerprint(request, body));
+                    })
+                    .onErrorResume(DataBufferLimitException.class,
+                            e -> reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE, TOO_LARGE_BODY));
+        };
+    }
+
+    private Mono<Void> deduplicate(ServerWebExchange exchange, GatewayFilterChain chain, String key, String fingerprint) {
+        AtomicBoolean dispatched = new AtomicBoolean();
+        return store.lookup(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(existing -> existing.isPresent()
+                        ? answerDuplicate(exchange, key, fingerprint, existing.get())
+                        : store.tryAcquire(key, fingerprint).flatMap(acquired -> acquired
+                                ? Mono.defer(() -> {
+                                    dispatched.set(true);
+                                    return runOriginal(exchange, chain, key, fingerprint);
+                                })
+                                : store.lookup(key)
+                                        .map(Optional::of)
+                                        .defaultIfEmpty(Optional.empty())
+                                        .flatMap(raced -> raced.isPresent()
+                                                ? answerDuplicate(exchange, key, fingerprint, raced.get())
+                                                : inProgress(exchange))))
+                .onErrorResume(e -> {
+                    // Redis is unavailable: serve the request without deduplication rather than fail it
+                    if (dispatched.get() || exchange.getResponse().isCommitted()) {
+                        return Mono.error(e);
+                    }
+                    log.warn("Idempotency store unavailable, passing request through: {}", e.getMessage());
+                    store.recordOutcome(GatewayConstants.IDEMPOTENCY_OUTCOME_BYPASSED);
+                    return chain.filter(exchange);
+                });
+    }
+
+    private Mono<Void> answerDuplicate(ServerWebExchange exchange, String key, String fingerprint, IdempotentResponse existing) {
+        if (!fingerprint.equals(existing.fingerprint())) {
+            store.recordOutcome(GatewayConstants.IDEMPOTENCY_OUTCOME_MISMATCH);
+            return reject(exchange, HttpStatus.UNPROCESSABLE_ENTITY, REUSED_BODY);
+        }
+        if (existing.completed()) {
+            store.recordOutcome(GatewayConstants.IDEMPOTENCY_OUTCOME_REPLAYED);
+            return replay(exchange, existing);
+        }
+        return store.awaitCompletion(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(completed -> {
+                    if (completed.isEmpty()) {
+                        return inProgress(exchange);
+                    }
+                    store.recordOutcome(GatewayConstants.IDEMPOTENCY_OUTCOME_WAITED);
+                    return replay(exchange, completed.get());
+                });
+    }
+
+    /**
+     * This request owns the key: run it and store the response, or release the key if it is not replayable
+     */
+    private Mono<Void> runOriginal(ServerWebExchange exchange, GatewayFilterChain chain, String key, String fingerprint) {
+        AtomicBoolean settled = new AtomicBoolean();
+        RecordingResponse recordingResponse = new RecordingResponse(exchange.getResponse(), key, fingerprint, settled);
+        return chain.filter(exchange.mutate().response(recordingResponse).build())
+                .doFinally(signal -> {
+                    if (settled.compareAndSet(false, true)) {
+                        store.release(key).subscribe(null, e -> log.debug("Failed to release idempotency key: {}", e.getMessage()));
+                    }
+                });
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, IdempotentResponse stored) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(stored.status()));
+        if (stored.headers() != null) {
+            stored.headers().forEach(response.getHeaders()::put);
+        }
+        response.getHeaders().set(GatewayConstants.HEADER_IDEMPOTENT_REPLAYED, GatewayConstants.HEADER_VALUE_TRUE);
+        byte[] body = stored.body() != null ? stored.body() : new byte[0];
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> inProgress(ServerWebExchange exchange) {
+        store.recordOutcome(GatewayConstants.IDEMPOTENCY_OUTCOME_CONFLICT);
+        exchange.getResponse().getHeaders().set(GatewayConstants.HEADER_RETRY_AFTER, "1");
+        return reject(exchange, HttpStatus.CONFLICT, IN_PROGRESS_BODY);
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, byte[] body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayConstants.HEADER_VALUE_IDEMPOTENCY_REJECTED);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Keys are per route and per authenticated subject, so one client cannot read another's stored response
+     */
+    private static String scopedKey(String routeId, String subject, String idempotencyKey) {
+        return routeId + GatewayConstants.STALE_CACHE_KEY_SEPARATOR + subject
+                + GatewayConstants.STALE_CACHE_KEY_SEPARATOR + idempotencyKey;
+    }
+
+    private static Map<String, List<String>> replayedHeaders(HttpHeaders headers) {
+        Map<String, List<String>> replayed = new LinkedHashMap<>();
+        for (String name : REPLAYED_HEADERS) {
+            List<String> values = headers.get(name);
+            if (values != null && !values.isEmpty()) {
+                replayed.put(name, List.copyOf(values));
+            }
+        }
+        return replayed;
+    }
+
+    private static String fingerprint(ServerHttpRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().name().getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) ' ');
+            digest.update(request.getURI().getRawPath().getBytes(StandardCharsets.UTF_8));
+            String query = request.getURI().getRawQuery();
+            if (query != null) {
+                digest.update((byte) '?');
+                digest.update(query.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ServerHttpRequest replayBody(ServerWebExchange exchange, byte[] body) {
+        return new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+    }
+
+    private static byte[] rejectionBody(String message, String error, HttpStatus status) {
+        return String.format("""
+                {"success":false,"message":"%s","error":"%s","status":%d}""", message, error, status.value())
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Only deterministic outcomes are stored; 5xx, 408 and 429 leave the key free for the next retry
+     */
+    private static boolean isReplayable(HttpStatusCode status) {
+        return status != null && !status.is5xxServerError()
+                && status.value() != HttpStatus.REQUEST_TIMEOUT.value()
+                && status.value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    /**
+     * Copies the upstream response body as it streams and stores it once complete
+     */
+    private class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final String fingerprint;
+        private final AtomicBoolean settled;
+
+        RecordingResponse(ServerHttpResponse delegate, String key, String fingerprint, AtomicBoolean settled) {
+            super(delegate);
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.settled = settled;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (!isReplayable(status) || getHeaders().getContentLength() > settings.getMaxResponseBytes()) {
+                return super.writeWith(body);
+            }
+
+            ByteArrayOutputStream capture = new ByteArrayOutputStream();
+            AtomicBoolean overflowed = new AtomicBoolean();
+            Flux<? extends DataBuffer> recorded = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int length = buffer.readableByteCount();
+                        if (overflowed.get() || capture.size() + length > settings.getMaxResponseBytes()) {
+                            overflowed.set(true);
+                            return;
+                        }
+                        byte[] chunk = new byte[length];
+                        buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+                        capture.write(chunk, 0, length);
+                    })
+                    .doOnComplete(() -> {
+                        if (overflowed.get() || !settled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        IdempotentResponse response = IdempotentResponse.completed(fingerprint, status.value(),
+                                replayedHeaders(getHeaders()), capture.toByteArray());
+                        store.recordOutcome(GatewayConstants.IDEMPOTENCY_OUTCOME_STORED);
+                        store.complete(key, response)
+                                .subscribe(null, e -> log.warn("Failed to store idempotent response: {}", e.getMessage()));
+                    });
+            return super.writeWith(recorded);
+        }
+    }
+
+    /**
+     * Configuration class for idempotency filter
+     */
+    @Setter
+    @Getter
+    public static class Config {
+        private String routeId;
+
+        public Config routeId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+    }
+}
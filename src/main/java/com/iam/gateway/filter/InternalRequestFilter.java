@@ -0,0 +1,62 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.security.InternalRequestToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Internal Request Filter - Recognizes gateway-to-gateway sub-requests (batch dispatch)
+ * A valid internal token over loopback marks the exchange with the already-authenticated subject,
+ * which JwtAuthenticationFilter trusts instead of validating the JWT again, and with the batch caller's
+ * address, which IP rate limiting and heavy-hitter detection count instead of loopback. Warm-up traffic is
+ * marked only when it also carries the separate warm-up token, which WarmupRunner alone sends, so a batch
+ * item cannot claim warm-up treatment. These headers are always stripped so they never reach a
+ * downstream service.
+ */
+@Component
+@RequiredArgsConstructor
+public class InternalRequestFilter implements GlobalFilter, Ordered {
+
+    private final InternalRequestToken internalRequestToken;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!request.getHeaders().containsKey(GatewayConstants.HEADER_INTERNAL_TOKEN)) {
+            return chain.filter(exchange);
+        }
+
+        String subject = request.getHeaders().getFirst(GatewayConstants.HEADER_USER_ID);
+        boolean trusted = internalRequestToken.isTrusted(request);
+        if (trusted && subject != null) {
+            exchange.getAttributes().put(GatewayConstants.TRUSTED_SUBJECT_ATTR, subject);
+        }
+        String clientAddress = request.getHeaders().getFirst(GatewayConstants.HEADER_CLIENT_ADDRESS);
+        if (trusted && clientAddress != null) {
+            exchange.getAttributes().put(GatewayConstants.CLIENT_ADDRESS_ATTR, clientAddress);
+        }
+        if (trusted && internalRequestToken.isWarmup(request)) {
+            exchange.getAttributes().put(GatewayConstants.WARMUP_ATTR, Boolean.TRUE);
+        }
+        ServerHttpRequest stripped = request.mutate()
+                .headers(headers -> {
+                    headers.remove(GatewayConstants.HEADER_INTERNAL_TOKEN);
+                    headers.remove(GatewayConstants.HEADER_WARMUP);
+                    headers.remove(GatewayConstants.HEADER_CLIENT_ADDRESS);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(stripped).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+}
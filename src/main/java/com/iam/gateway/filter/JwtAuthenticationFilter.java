@@ -1,13 +1,19 @@
 package com.iam.gateway.filter;
 
 import com.iam.common.jwt.JwtTokenProvider;
+import com.iam.gateway.cache.UserContext;
+import com.iam.gateway.cache.UserContextCache;
 import com.iam.gateway.constants.GatewayConstants;
 import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.security.FastJwtVerifier;
+import com.iam.gateway.security.JwtVerification;
+import com.iam.gateway.util.CoarseClock;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -16,10 +22,10 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import jakarta.annotation.PostConstruct;
-import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -32,6 +38,17 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private UserContextCache userContextCache;
+
+    @Autowired
+    private FastJwtVerifier fastJwtVerifier;
+
+    @Autowired
+    private CoarseClock coarseClock;
+
+    private volatile String tokenExpiresHeader; // configured token lifetime, formatted once
+
     // Public endpoints that bypass authentication - using constants
     private static final List<String> PUBLIC_ENDPOINTS = List.of(
             GatewayConstants.AUTH_LOGIN_PATH,
@@ -80,6 +97,12 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                 return chain.filter(exchange);
             }
 
+            // Batch sub-requests: the caller's JWT was already validated once by the batch endpoint
+            String trustedSubject = exchange.getAttribute(GatewayConstants.TRUSTED_SUBJECT_ATTR);
+            if (trustedSubject != null) {
+                return authenticated(exchange, chain, trustedSubject, method, path);
+            }
+
             // Extract JWT token from Authorization header
             String token = extractTokenFromRequest(request);
 
@@ -88,7 +111,14 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                 return handleUnauthorized(exchange, GatewayMessages.AUTH_MISSING_TOKEN);
             }
 
-            // REACTIVE JWT VALIDATION
+            // Fast path: HMAC over the raw token and a one-pass claim scan, no exceptions on bad tokens
+            JwtVerification verification = fastJwtVerifier.verify(token);
+            if (verification.isValid()
+                    || (verification.status() != JwtVerification.Status.UNSUPPORTED && fastJwtVerifier.isRejectionFinal())) {
+                return handleVerification(exchange, chain, verification, method, path);
+            }
+
+            // REACTIVE JWT VALIDATION - tokens the fast path cannot handle, and its rejections until parity is proven
             return jwtTokenProvider.validateToken(token)
                     .flatMap(claims -> {
                         // Extract username from claims
@@ -99,17 +129,12 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
                             return handleUnauthorized(exchange, GatewayMessages.AUTH_INVALID_PAYLOAD);
                         }
 
-                        // Add user context to request headers for downstream services
-                        ServerHttpRequest modifiedRequest = request.mutate()
-                                .header(GatewayConstants.HEADER_USER_ID, username)
-                                .header(GatewayConstants.HEADER_AUTHENTICATED, GatewayConstants.HEADER_VALUE_TRUE)
-                                .header(GatewayConstants.HEADER_AUTH_TIME, LocalDateTime.now().toString())
-                                .header(GatewayConstants.HEADER_TOKEN_EXPIRES, String.valueOf(jwtTokenProvider.getExpirationTime()))
-                                .build();
-
-                        log.debug(GatewayMessages.AUTHENTICATION_SUCCESS, username, method, path);
-
-                        return chain.filter(exchange.mutate().request(modifiedRequest).build());
+                        if (verification.status() != JwtVerification.Status.UNSUPPORTED) {
+                            log.warn("JWT fast path rejected a token JwtTokenProvider accepts ({}) for {} {}",
+                                    verification.status(), method, path);
+                            fastJwtVerifier.recordDisagreement(verification.status());
+                        }
+                        return authenticated(exchange, chain, username, method, path);
                     })
                     .onErrorResume(io.jsonwebtoken.ExpiredJwtException.class, e -> {
                         log.warn(GatewayMessages.LOG_EXPIRED_JWT_TOKEN, method, path, e.getMessage());
@@ -130,6 +155,73 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
         };
     }
 
+    /**
+     * Map a fast-path result onto the same responses the provider's exceptions produce; rejections only
+     * get here once gateway.jwt.fast-path-rejections-final is set
+     */
+    private Mono<Void> handleVerification(ServerWebExchange exchange, GatewayFilterChain chain,
+                                          JwtVerification verification, String method, String path) {
+        return switch (verification.status()) {
+            case VALID -> authenticated(exchange, chain, verification.subject(), method, path);
+            case EXPIRED -> {
+                log.warn(GatewayMessages.LOG_EXPIRED_JWT_TOKEN, method, path, verification.status());
+                yield handleUnauthorized(exchange, GatewayMessages.AUTH_EXPIRED_TOKEN);
+            }
+            case MALFORMED -> {
+                log.warn(GatewayMessages.LOG_MALFORMED_JWT_TOKEN, method, path, verification.status());
+                yield handleUnauthorized(exchange, GatewayMessages.AUTH_MALFORMED_TOKEN);
+            }
+            case BAD_SIGNATURE, UNKNOWN_KEY -> {
+                log.warn(GatewayMessages.LOG_INVALID_JWT_SIGNATURE, method, path, verification.status());
+                yield handleUnauthorized(exchange, GatewayMessages.AUTH_INVALID_SIGNATURE);
+            }
+            case MISSING_SUBJECT -> {
+                log.warn(GatewayMessages.LOG_UNABLE_EXTRACT_USERNAME, method, path);
+                yield handleUnauthorized(exchange, GatewayMessages.AUTH_INVALID_PAYLOAD);
+            }
+            default -> {
+                log.warn(GatewayMessages.LOG_UNEXPECTED_JWT_ERROR, method, path, verification.status());
+                yield handleUnauthorized(exchange, GatewayMessages.AUTH_FAILED);
+            }
+        };
+    }
+
+    /**
+     * Continue the chain as the authenticated user
+     * Roles and organizations come from the refresh-ahead cache, not from the token. Warm-up requests get a
+     * synthetic context, so their subjects neither reach user-service nor take cache entries.
+     */
+    private Mono<Void> authenticated(ServerWebExchange exchange, GatewayFilterChain chain,
+                                     String username, String method, String path) {
+        Mono<UserContext> lookup = exchange.getAttribute(GatewayConstants.WARMUP_ATTR) != null
+                ? Mono.just(UserContext.warmup(username))
+                : userContextCache.get(username);
+        return lookup.flatMap(userContext -> {
+            // Add user context to request headers for downstream services, together with the
+            // route's static headers in a single copy; later filters read X-User-Id
+            RequestDecoration decoration = RequestDecoration.of(exchange)
+                    .set(GatewayConstants.HEADER_USER_ID, username)
+                    .set(GatewayConstants.HEADER_AUTHENTICATED, GatewayConstants.HEADER_VALUE_TRUE)
+                    .set(GatewayConstants.HEADER_AUTH_TIME, coarseClock.now())
+                    .set(GatewayConstants.HEADER_TOKEN_EXPIRES, tokenExpiresHeader());
+            applyUserContext(decoration, userContext);
+
+            log.debug(GatewayMessages.AUTHENTICATION_SUCCESS, username, method, path);
+            exchange.getAttributes().put(GatewayConstants.USER_CONTEXT_ATTR, userContext);
+
+            return chain.filter(decoration.apply(exchange));
+        });
+    }
+
+    private String tokenExpiresHeader() {
+        String value = tokenExpiresHeader;
+        if (value == null) {
+            value = String.valueOf(jwtTokenProvider.getExpirationTime());
+            tokenExpiresHeader = value;
+        }
+        return value;
+    }
+
     /**
      * Extract JWT token from Authorization header - Using Constants
      */
@@ -156,6 +248,19 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
         return null;
     }
 
+    /**
+     * Add roles and organization IDs, or strip client-supplied values when the context is unresolved
+     */
+    private void applyUserContext(RequestDecoration decoration, UserContext userContext) {
+        if (userContext.resolved()) {
+            decoration.set(GatewayConstants.HEADER_USER_ROLES, userContext.rolesHeader());
+            decoration.set(GatewayConstants.HEADER_USER_ORG_IDS, userContext.organizationIdsHeader());
+        } else {
+            decoration.remove(GatewayConstants.HEADER_USER_ROLES);
+            decoration.remove(GatewayConstants.HEADER_USER_ORG_IDS);
+        }
+    }
+
     /**
      * Check if endpoint is public - Using Constants
      */
@@ -188,7 +293,7 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
             """,
                 GatewayMessages.AUTH_REQUIRED,
                 errorMessage,
-                LocalDateTime.now(),
+                coarseClock.now(),
                 exchange.getRequest().getPath().value()
         );
 
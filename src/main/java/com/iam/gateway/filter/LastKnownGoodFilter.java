@@ -0,0 +1,193 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.cache.LastKnownGoodCache;
+import com.iam.gateway.constants.GatewayConstants;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Last-Known-Good Recording Filter
+ * Copies successful GET responses into the LastKnownGoodCache while they stream to the client,
+ * and tags the exchange with its cache key so the fallback can find the copy when the circuit opens.
+ * Must be placed before the circuit breaker on the route.
+ */
+@Component
+@Slf4j
+public class LastKnownGoodFilter extends AbstractGatewayFilterFactory<LastKnownGoodFilter.Config> {
+
+    private final LastKnownGoodCache lastKnownGoodCache;
+
+    public LastKnownGoodFilter(LastKnownGoodCache lastKnownGoodCache) {
+        super(Config.class);
+        this.lastKnownGoodCache = lastKnownGoodCache;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        if (!lastKnownGoodCache.isEnabledFor(routeId)) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod())
+                    || exchange.getAttribute(GatewayConstants.WARMUP_ATTR) != null) { // never keep stub responses
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(routeId, request);
+            exchange.getAttributes().put(GatewayConstants.STALE_CACHE_KEY_ATTR, key);
+            RecordingResponse recordingResponse = new RecordingResponse(exchange, routeId, key);
+            return chain.filter(exchange.mutate().response(recordingResponse).build());
+        };
+    }
+
+    /**
+     * Responses are per user, so the authenticated user is part of the key. The body is stored as the
+     * upstream encoded it for this request's Accept-Encoding, so that header is part of the key too and
+     * a gzip copy is only ever served to clients that asked the same way.
+     */
+    private String cacheKey(String routeId, ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst(GatewayConstants.HEADER_USER_ID);
+        String query = request.getURI().getRawQuery();
+        StringBuilder key = new StringBuilder(128)
+                .append(routeId)
+                .append(GatewayConstants.STALE_CACHE_KEY_SEPARATOR)
+                .append(userId != null ? userId : GatewayConstants.RATE_LIMIT_KEY_ANONYMOUS)
+                .append(GatewayConstants.STALE_CACHE_KEY_SEPARATOR)
+                .append(request.getURI().getRawPath());
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null) {
+            key.append(GatewayConstants.STALE_CACHE_KEY_SEPARATOR).append(acceptEncoding);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Tees the response body into a bounded buffer and stores it once the body completes
+     */
+    private class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String routeId;
+        private final String key;
+
+        RecordingResponse(ServerWebExchange exchange, String routeId, String key) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.routeId = routeId;
+            this.key = key;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (!shouldRecord(status)) {
+                return super.writeWith(body);
+            }
+
+            BoundedCapture capture = new BoundedCapture(lastKnownGoodCache.getMaxEntryBytes());
+            Flux<? extends DataBuffer> recorded = Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        if (!capture.isOverflowed()) {
+                            MediaType contentType = getHeaders().getContentType();
+                            lastKnownGoodCache.store(key, routeId, status.value(),
+                                    contentType != null ? contentType.toString() : null,
+                                    contentEncoding(getHeaders()), capture.toByteArray());
+                        }
+                    });
+            return super.writeWith(recorded);
+        }
+
+        private boolean shouldRecord(HttpStatusCode status) {
+            if (status == null || !status.is2xxSuccessful()
+                    || exchange.getAttribute(GatewayConstants.STALE_SERVED_ATTR) != null) {
+                return false;
+            }
+            HttpHeaders headers = getHeaders();
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && cacheControl.contains(GatewayConstants.HEADER_VALUE_NO_STORE)) {
+                return false;
+            }
+            return headers.getContentLength() <= lastKnownGoodCache.getMaxEntryBytes();
+        }
+    }
+
+    private static String contentEncoding(HttpHeaders headers) {
+        String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        return contentEncoding == null || contentEncoding.equalsIgnoreCase(GatewayConstants.HEADER_VALUE_IDENTITY)
+                ? null : contentEncoding;
+    }
+
+    /**
+     * Copies buffers without consuming them; gives up once the entry limit is exceeded
+     */
+    private static class BoundedCapture {
+
+        private final int limit;
+        private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BoundedCapture(int limit) {
+            this.limit = limit;
+        }
+
+        void append(DataBuffer buffer) {
+            if (out == null) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (out.size() + length > limit) {
+                out = null;
+                return;
+            }
+            byte[] chunk = new byte[length];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+            out.write(chunk, 0, length);
+        }
+
+        boolean isOverflowed() {
+            return out == null;
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Configuration class for last-known-good filter
+     */
+    @Setter
+    @Getter
+    public static class Config {
+        private String routeId;
+
+        public Config routeId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.constants.GatewayMessages;
+import com.iam.gateway.monitoring.EventLoopLagMonitor;
+import com.iam.gateway.security.FastJwtVerifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load Shedding Filter - Priority-aware admission control for the whole gateway
+ * Requests are classified into configured tiers (route id, validated bearer token, path). A periodic
+ * evaluator compares event-loop lag, in-flight requests and upstream pool pending acquires against
+ * their thresholds and raises or lowers the shed level one tier at a time; separate recover
+ * thresholds and a minimum recovery interval provide hysteresis. The per-request cost is one
+ * classification and one volatile read; rejections get a pre-encoded 503. A bearer token only earns
+ * an authenticated tier once its signature verifies, and it is only verified when the request's
+ * anonymous tier is being shed, so a junk token buys nothing and costs nothing in normal operation.
+ * Runs as a WebFilter (in-flight accounting, gateway's own endpoints) and as a GlobalFilter
+ * (routed requests, where the route id is known).
+ */
+@Component
+@Slf4j
+public class LoadSheddingFilter implements GlobalFilter, WebFilter, Ordered, DisposableBean {
+
+    private static final byte[] REJECTED_BODY = String.format("""
+            {"success":false,"message":"%s","error":"%s","status":503}""",
+            GatewayMessages.GATEWAY_OVERLOADED,
+            GatewayMessages.ERROR_LOAD_SHED
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final String RETRY_AFTER = String.valueOf(GatewayConstants.LOAD_SHEDDING_RETRY_AFTER_SECONDS);
+
+    private final ApiGatewayProperties.LoadShedding settings;
+    private final EventLoopLagMonitor eventLoopLagMonitor;
+    private final FastJwtVerifier fastJwtVerifier;
+    private final List<Tier> tiers = new ArrayList<>();
+    private final Tier defaultTier;
+    private final int maxLevel;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int shedLevel;
+    private volatile long lastLagNanos;
+    private volatile long lastPendingAcquire;
+    private long lastLevelChangeNanos; // only touched by the evaluator
+    private Disposable evaluator;
+
+    public LoadSheddingFilter(ApiGatewayProperties properties, EventLoopLagMonitor eventLoopLagMonitor,
+                              FastJwtVerifier fastJwtVerifier, MeterRegistry meterRegistry) {
+        this.settings = properties.getLoadShedding();
+        this.eventLoopLagMonitor = eventLoopLagMonitor;
+        this.fastJwtVerifier = fastJwtVerifier;
+
+        int lowestPriority = 0;
+        for (ApiGatewayProperties.SheddingTier tier : settings.getTiers()) {
+            tiers.add(new Tier(tier, meterRegistry));
+            lowestPriority = Math.max(lowestPriority, tier.getPriority());
+        }
+        ApiGatewayProperties.SheddingTier fallbackTier = new ApiGatewayProperties.SheddingTier();
+        fallbackTier.setName(GatewayConstants.DEFAULT_SHEDDING_TIER);
+        fallbackTier.setPriority(lowestPriority);
+        this.defaultTier = new Tier(fallbackTier, meterRegistry);
+        this.maxLevel = lowestPriority;
+
+        Gauge.builder(GatewayConstants.LOAD_SHEDDING_METRIC_PREFIX + ".level", this, filter -> filter.shedLevel)
+                .register(meterRegistry);
+        Gauge.builder(GatewayConstants.LOAD_SHEDDING_METRIC_PREFIX + ".in_flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!settings.isEnabled()) {
+            log.info("Load shedding disabled");
+            return;
+        }
+        long intervalNanos = settings.getEvaluationInterval().toNanos();
+        evaluator = Schedulers.parallel().schedulePeriodically(this::evaluate, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Load shedding enabled ({} tiers, maxLag: {}, maxInFlight: {}, maxPendingAcquire: {})",
+                tiers.size(), settings.getMaxEventLoopLag(), settings.getMaxInFlight(), settings.getMaxPendingAcquire());
+    }
+
+    @Override
+    public int getOrder() {
+        // Web chain: right after drain accounting, so shed requests are still counted as in flight.
+        // Global chain: right after the deadline filter
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    /**
+     * WebFilter: counts every request in flight; sheds the gateway's own endpoints
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!settings.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        inFlight.incrementAndGet();
+        ServerHttpRequest request = exchange.getRequest();
+        Mono<Void> result = request.getPath().value().startsWith(GatewayConstants.GATEWAY_API_PREFIX)
+                && !admit(classify(null, request))
+                ? reject(exchange)
+                : chain.filter(exchange);
+        return result.doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    /**
+     * GlobalFilter: sheds routed requests once the route id is known
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!settings.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Tier tier = classify(route != null ? route.getId() : null, exchange.getRequest());
+        return admit(tier) ? chain.filter(exchange) : reject(exchange);
+    }
+
+    /**
+     * Shed-level state and per-tier counts for the gateway metrics endpoint
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> tierCounts = new LinkedHashMap<>();
+        for (Tier tier : tiers) {
+            tierCounts.put(tier.name, tier.snapshot(isShedding(tier)));
+        }
+        tierCounts.put(defaultTier.name, defaultTier.snapshot(isShedding(defaultTier)));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put(GatewayConstants.ENABLED_KEY, settings.isEnabled());
+        snapshot.put(GatewayConstants.SHED_LEVEL_KEY, shedLevel);
+        snapshot.put(GatewayConstants.IN_FLIGHT_KEY, inFlight.get());
+        snapshot.put(GatewayConstants.CURRENT_LAG_MS_KEY, lastLagNanos / 1_000_000.0);
+        snapshot.put(GatewayConstants.PENDING_ACQUIRE_KEY, lastPendingAcquire);
+        snapshot.put(GatewayConstants.TIERS_KEY, tierCounts);
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        if (evaluator != null) {
+            evaluator.dispose();
+        }
+    }
+
+    private Tier classify(String routeId, ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        Tier anonymous = match(routeId, path, false);
+        if (!isShedding(anonymous)) {
+            return anonymous;
+        }
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(GatewayConstants.JWT_TOKEN_PREFIX)) {
+            return anonymous;
+        }
+        Tier authenticated = match(routeId, path, true);
+        if (authenticated == anonymous
+                || !fastJwtVerifier.isValid(authorization.substring(GatewayConstants.JWT_TOKEN_START_INDEX))) {
+            return anonymous;
+        }
+        return authenticated;
+    }
+
+    private Tier match(String routeId, PathContainer path, boolean authenticated) {
+        for (Tier tier : tiers) {
+            if (tier.matches(routeId, path, authenticated)) {
+                return tier;
+            }
+        }
+        return defaultTier;
+    }
+
+    private boolean admit(Tier tier) {
+        if (isShedding(tier)) {
+            tier.rejected.increment();
+            return false;
+        }
+        tier.admitted.increment();
+        return true;
+    }
+
+    /**
+     * Level n sheds the n lowest-priority tiers; priority 0 is never shed
+     */
+    private boolean isShedding(Tier tier) {
+        return tier.priority > maxLevel - shedLevel;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        response.getHeaders().set(GatewayConstants.HEADER_RETRY_AFTER, RETRY_AFTER);
+        response.getHeaders().set(GatewayConstants.HEADER_GATEWAY_ERROR, GatewayConstants.HEADER_VALUE_LOAD_SHED);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(REJECTED_BODY)));
+    }
+
+    /**
+     * Raise the shed level by one tier per interval while any signal is over its limit; lower it by one
+     * tier per recovery interval once every signal is back under its recover threshold
+     */
+    private void evaluate() {
+        long lag = eventLoopLagMonitor.currentMaxLagNanos();
+        int active = inFlight.get();
+        long pending = pendingAcquires();
+        lastLagNanos = lag;
+        lastPendingAcquire = pending;
+
+        boolean overloaded = lag > settings.getMaxEventLoopLag().toNanos()
+                || active > settings.getMaxInFlight()
+                || pending > settings.getMaxPendingAcquire();
+        boolean recovered = lag < settings.getRecoverEventLoopLag().toNanos()
+                && active < settings.getRecoverInFlight()
+                && pending < settings.getRecoverPendingAcquire();
+
+        long now = System.nanoTime();
+        int level = shedLevel;
+        if (overloaded && level < maxLevel) {
+            shedLevel = level + 1;
+            lastLevelChangeNanos = now;
+            log.warn("Load shedding raised to level {} (lag: {} ms, inFlight: {}, pendingAcquire: {})",
+                    level + 1, TimeUnit.NANOSECONDS.toMillis(lag), active, pending);
+        } else if (recovered && level > 0 && now - lastLevelChangeNanos >= settings.getRecoveryInterval().toNanos()) {
+            shedLevel = level - 1;
+            lastLevelChangeNanos = now;
+            log.info("Load shedding lowered to level {}", level - 1);
+        }
+    }
+
+    /**
+     * Connections waiting for a pooled upstream connection, summed over all pools
+     */
+    private static long pendingAcquires() {
+        double pending = 0;
+        for (Gauge gauge : Metrics.globalRegistry.find(GatewayConstants.POOL_PENDING_CONNECTIONS_METRIC).gauges()) {
+            pending += gauge.value();
+        }
+        return (long) pending;
+    }
+
+    /**
+     * Compiled tier: match criteria plus its counters
+     */
+    private static class Tier {
+
+        private final String name;
+        private final int priority;
+        private final Set<String> routeIds;
+        private final List<PathPattern> paths;
+        private final Boolean authenticated;
+        private final Counter admitted;
+        private final Counter rejected;
+
+        Tier(ApiGatewayProperties.SheddingTier tier, MeterRegistry meterRegistry) {
+            this.name = tier.getName();
+            this.priority = tier.getPriority();
+            this.routeIds = Set.copyOf(tier.getRouteIds());
+            this.paths = tier.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            this.authenticated = tier.getAuthenticated();
+            this.admitted = Counter.builder(GatewayConstants.LOAD_SHEDDING_METRIC_PREFIX + ".admitted")
+                    .tag(GatewayConstants.METRIC_TAG_TIER, name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder(GatewayConstants.LOAD_SHEDDING_METRIC_PREFIX + ".rejected")
+                    .tag(GatewayConstants.METRIC_TAG_TIER, name)
+                    .register(meterRegistry);
+        }
+
+        boolean matches(String routeId, PathContainer path, boolean isAuthenticated) {
+            if (!routeIds.isEmpty() && (routeId == null || !routeIds.contains(routeId))) {
+                return false;
+            }
+            if (authenticated != null && authenticated != isAuthenticated) {
+                return false;
+            }
+            if (paths.isEmpty()) {
+                return true;
+            }
+            for (PathPattern pattern : paths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Map<String, Object> snapshot(boolean shedding) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put(GatewayConstants.PRIORITY_KEY, priority);
+            values.put(GatewayConstants.SHEDDING_KEY, shedding);
+            values.put(GatewayConstants.ADMITTED_KEY, (long) admitted.count());
+            values.put(GatewayConstants.REJECTED_KEY, (long) rejected.count());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Precomputed CORS Filter - Applies gateway.cors without per-request pattern matching
+ * Allowed origins are split once into an exact-match hash set and compiled wildcard patterns
+ * (e.g. {@code https://*.example.com}); all response header values are rendered at startup.
+ * Preflights are answered here and never reach the route chain. For actual requests the CORS headers
+ * are written just before commit, replacing any an upstream service may have set.
+ */
+@Component
+@Slf4j
+public class PrecomputedCorsWebFilter implements WebFilter, Ordered {
+
+    private static final String WILDCARD = "*";
+    private static final String VARY_VALUES = String.join(", ", HttpHeaders.ORIGIN,
+            HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+
+    private final boolean anyOrigin;
+    private final Set<String> exactOrigins = new HashSet<>();
+    private final List<Pattern> originPatterns = new ArrayList<>();
+    private final String allowMethods; // null = echo the requested method
+    private final String allowHeaders; // null = echo the requested headers
+    private final String exposeHeaders;
+    private final String maxAge;
+    private final boolean allowCredentials;
+
+    public PrecomputedCorsWebFilter(ApiGatewayProperties properties) {
+        ApiGatewayProperties.Cors cors = properties.getCors();
+        boolean wildcard = false;
+        for (String origin : cors.getAllowedOrigins().split(",")) {
+            String trimmed = normalize(origin.trim());
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (WILDCARD.equals(trimmed)) {
+                wildcard = true;
+            } else if (trimmed.contains(WILDCARD)) {
+                originPatterns.add(compile(trimmed));
+            } else {
+                exactOrigins.add(trimmed);
+            }
+        }
+        this.anyOrigin = wildcard;
+        this.allowMethods = List.of(cors.getAllowedMethods()).contains(WILDCARD) ? null : String.join(",", cors.getAllowedMethods());
+        this.allowHeaders = List.of(cors.getAllowedHeaders()).contains(WILDCARD) ? null : String.join(",", cors.getAllowedHeaders());
+        this.exposeHeaders = String.join(",", cors.getExposedHeaders());
+        this.maxAge = String.valueOf(cors.getMaxAge());
+        this.allowCredentials = cors.isAllowCredentials();
+
+        if (anyOrigin) {
+            log.warn("CORS allows any origin (gateway.cors.allowed-origins=*){}",
+                    allowCredentials ? " with credentials; request origins are echoed" : "");
+        }
+        log.info("CORS configured (exact origins: {}, origin patterns: {}, methods: {}, credentials: {})",
+                exactOrigins.size(), originPatterns.size(), allowMethods, allowCredentials);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 3; // right after TraceContextFilter, so preflights are traced
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String origin = request.getHeaders().getOrigin();
+        if (origin == null) {
+            return chain.filter(exchange);
+        }
+
+        boolean allowed = isAllowed(origin);
+        boolean preflight = HttpMethod.OPTIONS.equals(request.getMethod())
+                && request.getHeaders().containsKey(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+
+        if (!allowed) {
+            if (!preflight && isSameOrigin(request, origin)) {
+                return chain.filter(exchange);
+            }
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            response.getHeaders().set(HttpHeaders.VARY, VARY_VALUES);
+            return response.setComplete();
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        if (preflight) {
+            HttpHeaders headers = response.getHeaders();
+            applyCommonHeaders(headers, origin);
+            headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, allowMethods != null ? allowMethods
+                    : request.getHeaders().getFirst(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD));
+            String requestedHeaders = request.getHeaders().getFirst(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+            String headerValue = allowHeaders != null ? allowHeaders : requestedHeaders;
+            if (headerValue != null && !headerValue.isEmpty()) {
+                headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, headerValue);
+            }
+            headers.set(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+            response.setStatusCode(HttpStatus.OK);
+            return response.setComplete();
+        }
+
+        response.beforeCommit(() -> {
+            HttpHeaders headers = response.getHeaders();
+            headers.remove(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN);
+            headers.remove(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS);
+            headers.remove(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS);
+            applyCommonHeaders(headers, origin);
+            if (!exposeHeaders.isEmpty()) {
+                headers.set(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, exposeHeaders);
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    private void applyCommonHeaders(HttpHeaders headers, String origin) {
+        headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+        if (allowCredentials) {
+            headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, Boolean.TRUE.toString());
+        }
+        headers.set(HttpHeaders.VARY, VARY_VALUES);
+    }
+
+    private boolean isAllowed(String origin) {
+        if (anyOrigin) {
+            return true;
+        }
+        String normalized = normalize(origin);
+        if (exactOrigins.contains(normalized)) {
+            return true;
+        }
+        for (Pattern pattern : originPatterns) {
+            if (pattern.matcher(normalized).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Browsers send Origin on same-origin POSTs too; those are not CORS requests
+     */
+    private static boolean isSameOrigin(ServerHttpRequest request, String origin) {
+        try {
+            URI originUri = URI.create(origin);
+            URI requestUri = request.getURI();
+            return originUri.getHost() != null
+                    && originUri.getHost().equalsIgnoreCase(requestUri.getHost())
+                    && originUri.getScheme().equalsIgnoreCase(requestUri.getScheme())
+                    && port(originUri) == port(requestUri);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static int port(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private static String normalize(String origin) {
+        String lower = origin.toLowerCase(Locale.ROOT);
+        return lower.endsWith("/") ? lower.substring(0, lower.length() - 1) : lower;
+    }
+
+    /**
+     * {@code https://*.example.com} -> scheme and domain fixed, {@code *} matches within the authority
+     */
+    private static Pattern compile(String originPattern) {
+        String[] parts = originPattern.split("\\*", -1);
+        StringBuilder regex = new StringBuilder(Pattern.quote(parts[0]));
+        for (int i = 1; i < parts.length; i++) {
+            regex.append("[^/]*").append(Pattern.quote(parts[i]));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
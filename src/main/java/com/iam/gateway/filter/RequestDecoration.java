@@ -0,0 +1,73 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.constants.GatewayConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Arrays;
+
+/**
+ * Request Decoration - Header changes collected across filters and applied to the request in one copy
+ * Filters record sets and removals here instead of calling request.mutate() themselves; the first
+ * filter that needs the headers visible (JWT authentication) or, failing that, ApplyRequestDecorationFilter
+ * just before routing applies everything pending in a single mutation.
+ */
+public final class RequestDecoration {
+
+    private String[] names = new String[8];
+    private String[] values = new String[8]; // null = remove the header
+    private int size;
+
+    public static RequestDecoration of(ServerWebExchange exchange) {
+        RequestDecoration decoration = exchange.getAttribute(GatewayConstants.REQUEST_DECORATION_ATTR);
+        if (decoration == null) {
+            decoration = new RequestDecoration();
+            exchange.getAttributes().put(GatewayConstants.REQUEST_DECORATION_ATTR, decoration);
+        }
+        return decoration;
+    }
+
+    public RequestDecoration set(String name, String value) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    public RequestDecoration remove(String name) {
+        return set(name, null);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Apply every pending change with one header-map copy; returns the exchange itself when nothing is pending
+     */
+    public ServerWebExchange apply(ServerWebExchange exchange) {
+        if (size == 0) {
+            return exchange;
+        }
+        ServerHttpRequest request = exchange.getRequest().mutate().headers(this::writeTo).build();
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        return exchange.mutate().request(request).build();
+    }
+
+    private void writeTo(HttpHeaders headers) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                headers.set(names[i], values[i]);
+            } else {
+                headers.remove(names[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-Timing Filter - Opt-in per-stage latency breakdown of the route filter chain
+ * Route filters wrapped with {@link #timed} record the time from entering the filter until it hands
+ * off to the rest of the chain; the upstream stage runs from the routing filter to the first response
+ * byte. Every timed request feeds the per-stage histograms; sampled or debug-flagged requests also get
+ * a Server-Timing response header. When disabled nothing is wrapped and this filter is a single branch.
+ */
+@Component
+@Slf4j
+public class ServerTimingFilter implements GlobalFilter, Ordered {
+
+    private final ApiGatewayProperties.ServerTiming settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+
+    public ServerTimingFilter(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getServerTiming();
+        this.meterRegistry = meterRegistry;
+        if (settings.isEnabled()) {
+            log.info("Server-Timing instrumentation enabled (sampleRate: {}, debugHeader: {})",
+                    settings.getSampleRate(), settings.getDebugHeader());
+        }
+    }
+
+    /**
+     * Wrap a route filter so its pre-phase is recorded as the given stage; returns the filter
+     * unchanged when the mode is off
+     */
+    public GatewayFilter timed(String stage, GatewayFilter filter) {
+        if (!settings.isEnabled()) {
+            return filter;
+        }
+        return (exchange, chain) -> {
+            ServerTimings timings = exchange.getAttribute(GatewayConstants.SERVER_TIMING_ATTR);
+            if (timings == null) {
+                return filter.filter(exchange, chain);
+            }
+            timings.enter(stage, System.nanoTime());
+            return filter.filter(exchange, next -> {
+                timings.exit(stage, System.nanoTime());
+                return chain.filter(next);
+            });
+        };
+    }
+
+    /**
+     * Start of the upstream stage, called by UpstreamTimingFilter just before routing
+     */
+    void markUpstream(ServerWebExchange exchange) {
+        ServerTimings timings = exchange.getAttribute(GatewayConstants.SERVER_TIMING_ATTR);
+        if (timings != null) {
+            timings.upstreamStarted(System.nanoTime());
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!settings.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerTimings timings = new ServerTimings(System.nanoTime(), isReported(exchange));
+        exchange.getAttributes().put(GatewayConstants.SERVER_TIMING_ATTR, timings);
+        exchange.getResponse().beforeCommit(() -> {
+            timings.complete(System.nanoTime(), GatewayConstants.STAGE_UPSTREAM, GatewayConstants.STAGE_TOTAL);
+            for (int i = 0; i < timings.size(); i++) {
+                stageTimer(timings.stage(i)).record(timings.durationNanos(i), TimeUnit.NANOSECONDS);
+            }
+            if (timings.isReportHeader()) {
+                exchange.getResponse().getHeaders().add(GatewayConstants.HEADER_SERVER_TIMING, timings.headerValue());
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2; // right after load shedding
+    }
+
+    private boolean isReported(ServerWebExchange exchange) {
+        if (exchange.getRequest().getHeaders().containsKey(settings.getDebugHeader())) {
+            return true;
+        }
+        double sampleRate = settings.getSampleRate();
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, name -> Timer.builder(GatewayConstants.SERVER_TIMING_METRIC)
+                .tag(GatewayConstants.METRIC_TAG_STAGE, name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,103 @@
+package com.iam.gateway.filter;
+
+/**
+ * Per-exchange stage timings collected by ServerTimingFilter
+ * Route filters run their pre-phase one after another, so at most one stage is open at a time.
+ * Accessed sequentially by whichever thread runs the exchange; no synchronization needed.
+ */
+final class ServerTimings {
+
+    private static final int MAX_STAGES = 16;
+
+    private final long startNanos;
+    private final boolean reportHeader;
+    private final String[] stages = new String[MAX_STAGES];
+    private final long[] durations = new long[MAX_STAGES];
+    private int count;
+    private String openStage;
+    private long openStartNanos;
+    private long upstreamStartNanos = -1;
+
+    ServerTimings(long startNanos, boolean reportHeader) {
+        this.startNanos = startNanos;
+        this.reportHeader = reportHeader;
+    }
+
+    void enter(String stage, long now) {
+        openStage = stage;
+        openStartNanos = now;
+    }
+
+    void exit(String stage, long now) {
+        if (stage.equals(openStage)) {
+            add(stage, now - openStartNanos);
+            openStage = null;
+        }
+    }
+
+    void upstreamStarted(long now) {
+        upstreamStartNanos = now;
+    }
+
+    /**
+     * Close whatever is still open when the response commits: a stage that short-circuited
+     * (e.g. 401 from JWT) or the upstream call up to its first byte
+     */
+    void complete(long now, String upstreamStage, String totalStage) {
+        if (openStage != null) {
+            add(openStage, now - openStartNanos);
+            openStage = null;
+        }
+        if (upstreamStartNanos >= 0) {
+            add(upstreamStage, now - upstreamStartNanos);
+        }
+        add(totalStage, now - startNanos);
+    }
+
+    boolean isReportHeader() {
+        return reportHeader;
+    }
+
+    int size() {
+        return count;
+    }
+
+    String stage(int index) {
+        return stages[index];
+    }
+
+    long durationNanos(int index) {
+        return durations[index];
+    }
+
+    /**
+     * Server-Timing header value, e.g. {@code jwt;dur=0.412, upstream;dur=12.030, total;dur=13.118}
+     */
+    String headerValue() {
+        StringBuilder header = new StringBuilder(count * 24);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                header.append(", ");
+            }
+            long micros = durations[i] / 1_000;
+            header.append(stages[i]).append(";dur=").append(micros / 1_000).append('.');
+            long fraction = micros % 1_000;
+            if (fraction < 100) {
+                header.append('0');
+            }
+            if (fraction < 10) {
+                header.append('0');
+            }
+            header.append(fraction);
+        }
+        return header.toString();
+    }
+
+    private void add(String stage, long durationNanos) {
+        if (count < MAX_STAGES) {
+            stages[count] = stage;
+            durations[count] = durationNanos;
+            count++;
+        }
+    }
+}
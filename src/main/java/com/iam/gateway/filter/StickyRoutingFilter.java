@@ -0,0 +1,124 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.routing.BoundedLoadHashRing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Sticky Routing Filter - Sends each user's requests to the same upstream instance
+ * For routes listed under gateway.sticky-routing.routes, the configured key header (the authenticated
+ * X-User-Id by default) is placed on a bounded-load consistent-hash ring of the route's instances and
+ * the request URL is rewritten to the chosen instance. Requests without the key keep the route's URI.
+ */
+@Component
+@Slf4j
+public class StickyRoutingFilter implements GlobalFilter, Ordered {
+
+    private final Map<String, StickyRoute> routes = new HashMap<>();
+
+    public StickyRoutingFilter(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        ApiGatewayProperties.StickyRouting settings = properties.getStickyRouting();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        settings.getRoutes().forEach((routeId, route) -> {
+            List<URI> instances = route.getInstances().stream()
+                    .map(String::trim)
+                    .filter(instance -> !instance.isEmpty())
+                    .map(URI::create)
+                    .toList();
+            if (instances.isEmpty()) {
+                return;
+            }
+            Counter spilled = Counter.builder(GatewayConstants.STICKY_ROUTING_METRIC_PREFIX + ".spilled")
+                    .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                    .register(meterRegistry);
+            routes.put(routeId, new StickyRoute(route.getKeyHeader(),
+                    new BoundedLoadHashRing(instances, settings.getVirtualNodes(), settings.getLoadFactor()), spilled));
+            log.info("Sticky routing enabled for {} (key: {}, instances: {})", routeId, route.getKeyHeader(), instances.size());
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        StickyRoute sticky = route != null ? routes.get(route.getId()) : null;
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (sticky == null || requestUrl == null) {
+            return chain.filter(exchange);
+        }
+        String key = exchange.getRequest().getHeaders().getFirst(sticky.keyHeader());
+        if (key == null || key.isEmpty()) {
+            return chain.filter(exchange);
+        }
+
+        BoundedLoadHashRing ring = sticky.ring();
+        int index = ring.acquire(key);
+        if (index != ring.primary(key)) {
+            sticky.spilled().increment();
+        }
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, rewrite(requestUrl, ring.instance(index)));
+        return chain.filter(exchange).doFinally(signal -> ring.release(index));
+    }
+
+    /**
+     * Keep path and query; take host and port from the instance, preserving a WebSocket upgrade's scheme
+     */
+    private static URI rewrite(URI requestUrl, URI instance) {
+        String scheme = instance.getScheme();
+        if (GatewayConstants.SCHEME_WS.equals(requestUrl.getScheme()) || GatewayConstants.SCHEME_WSS.equals(requestUrl.getScheme())) {
+            scheme = GatewayConstants.SCHEME_HTTPS.equals(scheme) ? GatewayConstants.SCHEME_WSS : GatewayConstants.SCHEME_WS;
+        }
+        return UriComponentsBuilder.fromUri(requestUrl)
+                .scheme(scheme)
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    /**
+     * Ring sizes and current load per sticky route for the gateway metrics endpoint
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new HashMap<>();
+        routes.forEach((routeId, sticky) -> {
+            Map<String, Object> route = new HashMap<>();
+            route.put(GatewayConstants.KEY_HEADER_KEY, sticky.keyHeader());
+            route.put(GatewayConstants.INSTANCES_KEY, sticky.ring().size());
+            route.put(GatewayConstants.IN_FLIGHT_KEY, sticky.ring().totalInFlight());
+            route.put(GatewayConstants.MAX_IN_FLIGHT_KEY, sticky.ring().maxInFlight());
+            route.put(GatewayConstants.SPILLED_KEY, (long) sticky.spilled().count());
+            snapshot.put(routeId, route);
+        });
+        return snapshot;
+    }
+
+    private record StickyRoute(String keyHeader, BoundedLoadHashRing ring, Counter spilled) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.tracing.TraceContext;
+import com.iam.gateway.tracing.TraceExemplars;
+import com.iam.gateway.tracing.TraceIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trace Context Filter - W3C trace-context propagation for every request the gateway serves
+ * Continues a valid incoming traceparent (passing tracestate through) or starts a new trace, gives the
+ * gateway hop its own span, and forwards traceparent, tracestate and X-Request-ID to every route. The
+ * request ID is echoed in the response. On completion one access-log line and the request timer are
+ * recorded with the trace attached, so histogram buckets carry trace exemplars.
+ */
+@Component
+public class TraceContextFilter implements WebFilter, Ordered {
+
+    private static final Logger accessLog = LoggerFactory.getLogger(GatewayConstants.ACCESS_LOG_NAME);
+
+    private final ApiGatewayProperties.Tracing settings;
+    private final TraceIdGenerator traceIdGenerator;
+    private final TraceExemplars traceExemplars;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    public TraceContextFilter(ApiGatewayProperties properties, TraceIdGenerator traceIdGenerator,
+                              TraceExemplars traceExemplars, MeterRegistry meterRegistry) {
+        this.settings = properties.getTracing();
+        this.traceIdGenerator = traceIdGenerator;
+        this.traceExemplars = traceExemplars;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        String requestId = requestId(headers.getFirst(GatewayConstants.HEADER_REQUEST_ID));
+        TraceContext incoming = TraceContext.continueFrom(headers.getFirst(GatewayConstants.HEADER_TRACEPARENT),
+                headers.getFirst(GatewayConstants.HEADER_TRACESTATE), traceIdGenerator.newSpanId(), requestId);
+        TraceContext trace = incoming != null ? incoming : traceIdGenerator.newTrace(requestId);
+
+        // Queued rather than mutated: applied with the route's other headers in one copy
+        RequestDecoration.of(exchange)
+                .set(GatewayConstants.HEADER_TRACEPARENT, trace.traceparent())
+                .set(GatewayConstants.HEADER_TRACESTATE, trace.traceState()) // null removes a stale one
+                .set(GatewayConstants.HEADER_REQUEST_ID, trace.requestId());
+        exchange.getResponse().getHeaders().set(GatewayConstants.HEADER_REQUEST_ID, trace.requestId());
+        exchange.getAttributes().put(GatewayConstants.TRACE_CONTEXT_ATTR, trace);
+
+        return chain.filter(exchange)
+                .doFinally(signal -> complete(exchange, trace, System.nanoTime() - start))
+                .contextWrite(context -> context.put(TraceContext.class, trace));
+    }
+
+    @Override
+    public int getOrder() {
+        // After drain accounting and load shedding (shed requests get no ID), before CORS so preflight
+        // answers and every later stage run inside the trace
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    private String requestId(String incoming) {
+        if (incoming == null || incoming.isBlank() || incoming.length() > settings.getMaxRequestIdLength()) {
+            return null;
+        }
+        return incoming;
+    }
+
+    private void complete(ServerWebExchange exchange, TraceContext trace, long durationNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : GatewayConstants.NO_ROUTE;
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        int statusCode = status != null ? status.value() : 200;
+
+        traceExemplars.record(trace, () -> requestTimer(routeId, statusCode)
+                .record(durationNanos, TimeUnit.NANOSECONDS));
+        if (settings.isAccessLog() && accessLog.isInfoEnabled()) {
+            accessLog.info("{} {} {} {}ms route={} trace_id={} span_id={} parent_id={} request_id={}",
+                    exchange.getRequest().getMethod(), exchange.getRequest().getPath().value(), statusCode,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), routeId, trace.traceId(), trace.spanId(),
+                    trace.parentSpanId(), trace.requestId());
+        }
+    }
+
+    private Timer requestTimer(String routeId, int statusCode) {
+        String status = (statusCode / 100) + "xx";
+        return requestTimers.computeIfAbsent(routeId + '|' + status, key -> Timer.builder(GatewayConstants.REQUEST_METRIC)
+                .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                .tag(GatewayConstants.METRIC_TAG_STATUS, status)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,292 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traffic Mirror Filter - Copies a sample of a route's requests to a shadow backend, fire-and-forget
+ * The request body is copied (up to a limit) while it streams to the primary upstream; once the primary
+ * has answered, the copy is sent to the route's shadow URL and its response is read and discarded. Shadow
+ * calls run on their own event loops and connection pool behind an in-flight cap, and are dropped rather
+ * than queued, so the primary never waits on the shadow. Latency and status of both sides are recorded
+ * for the mirrored requests only, so the two series compare like for like: both latencies end when the
+ * response headers arrive (for the primary, when the gateway commits its response), never after a body
+ * has been transferred. Place last on the route.
+ */
+@Component
+@Slf4j
+public class TrafficMirrorFilter extends AbstractGatewayFilterFactory<TrafficMirrorFilter.Config> implements DisposableBean {
+
+    private static final Duration DISPOSE_TIMEOUT = Duration.ofSeconds(5);
+    private static final List<String> NOT_MIRRORED_HEADERS = List.of(HttpHeaders.HOST, HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, GatewayConstants.HEADER_REQUEST_TIMEOUT);
+
+    private final ApiGatewayProperties.Mirror settings;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final LoopResources loops;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient shadowClient;
+
+    public TrafficMirrorFilter(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.settings = properties.getMirror();
+        this.meterRegistry = meterRegistry;
+        this.loops = LoopResources.create(GatewayConstants.MIRROR_LOOP_PREFIX, settings.getEventLoopThreads(), true);
+        this.connectionProvider = ConnectionProvider.builder(GatewayConstants.MIRROR_POOL_NAME)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getMaxInFlight())
+                .pendingAcquireTimeout(settings.getConnectTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .build();
+        this.shadowClient = HttpClient.create(connectionProvider)
+                .runOn(loops)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .responseTimeout(settings.getResponseTimeout());
+
+        Gauge.builder(GatewayConstants.MIRROR_METRIC_PREFIX + ".in_flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        ApiGatewayProperties.MirrorRoute route = settings.getRoutes().get(routeId);
+        if (!settings.isEnabled() || route == null || route.getUrl() == null || route.getSampleRate() <= 0) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        String shadowBase = stripTrailingSlash(route.getUrl());
+        log.info("Mirroring {} of route {} to {}", route.getSampleRate(), routeId, shadowBase);
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (exchange.getAttribute(GatewayConstants.WARMUP_ATTR) != null
+                    || GatewayConstants.UPGRADE_WEBSOCKET.equalsIgnoreCase(request.getHeaders().getUpgrade())
+                    || ThreadLocalRandom.current().nextDouble() >= route.getSampleRate()) {
+                return chain.filter(exchange);
+            }
+            if (request.getHeaders().getContentLength() > settings.getMaxBodyBytes()) {
+                skipped(routeId, GatewayConstants.MIRROR_SKIP_BODY_TOO_LARGE).increment();
+                return chain.filter(exchange);
+            }
+
+            // Headers as the upstream sees them, including the route's and the JWT filter's
+            RequestDecoration decoration = exchange.getAttribute(GatewayConstants.REQUEST_DECORATION_ATTR);
+            ServerWebExchange decorated = decoration != null ? decoration.apply(exchange) : exchange;
+            BodyTap tap = new BodyTap(decorated.getRequest(), settings.getMaxBodyBytes());
+            long started = System.nanoTime();
+            AtomicLong answered = new AtomicLong();
+            exchange.getResponse().beforeCommit(() -> {
+                answered.compareAndSet(0, System.nanoTime()); // status and headers known, body not yet written
+                return Mono.empty();
+            });
+            return chain.filter(decorated.mutate().request(tap).build())
+                    .doFinally(signal -> {
+                        // Not committed yet when routing completes ahead of the response write
+                        long primaryNanos = (answered.get() != 0 ? answered.get() : System.nanoTime()) - started;
+                        if (signal == SignalType.CANCEL) {
+                            skipped(routeId, GatewayConstants.MIRROR_SKIP_CANCELLED).increment();
+                        } else if (tap.isOverflowed()) {
+                            skipped(routeId, GatewayConstants.MIRROR_SKIP_BODY_TOO_LARGE).increment();
+                        } else if (!tap.isComplete()) {
+                            skipped(routeId, GatewayConstants.MIRROR_SKIP_BODY_UNREAD).increment();
+                        } else {
+                            mirror(routeId, shadowBase, tap, exchange.getResponse().getStatusCode(), primaryNanos);
+                        }
+                    });
+        };
+    }
+
+    private void mirror(String routeId, String shadowBase, BodyTap tap, HttpStatusCode primaryStatus, long primaryNanos) {
+        if (inFlight.incrementAndGet() > settings.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            skipped(routeId, GatewayConstants.MIRROR_SKIP_SATURATED).increment();
+            return;
+        }
+        ServerHttpRequest request = tap.getDelegate();
+        String primary = statusClass(primaryStatus != null ? primaryStatus.value() : 200);
+        latency(routeId, GatewayConstants.MIRROR_TARGET_PRIMARY).record(primaryNanos, TimeUnit.NANOSECONDS);
+
+        byte[] body = tap.body();
+        long started = System.nanoTime();
+        shadowClient
+                .headers(headers -> {
+                    request.getHeaders().forEach((name, values) -> {
+                        if (!isNotMirrored(name)) {
+                            headers.set(name, values);
+                        }
+                    });
+                    headers.set(GatewayConstants.HEADER_MIRRORED, GatewayConstants.HEADER_VALUE_TRUE);
+                })
+                .request(HttpMethod.valueOf(request.getMethod().name()))
+                .uri(shadowBase + request.getURI().getRawPath()
+                        + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : ""))
+                .send(Mono.justOrEmpty(body.length > 0 ? Unpooled.wrappedBuffer(body) : null))
+                .response((response, content) -> {
+                    long shadowNanos = System.nanoTime() - started; // headers received; the body is drained untimed
+                    return content.then(Mono.fromRunnable(() -> {
+                        latency(routeId, GatewayConstants.MIRROR_TARGET_SHADOW).record(shadowNanos, TimeUnit.NANOSECONDS);
+                        responses(routeId, primary, statusClass(response.status().code())).increment();
+                    }));
+                })
+                .then()
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(null, e -> {
+                    responses(routeId, primary, GatewayConstants.MIRROR_SHADOW_ERROR).increment();
+                    log.debug("Shadow request for route {} failed: {}", routeId, e.toString());
+                });
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.disposeLater().block(DISPOSE_TIMEOUT);
+        loops.disposeLater().block(DISPOSE_TIMEOUT);
+    }
+
+    private Timer latency(String routeId, String target) {
+        return latencyTimers.computeIfAbsent(routeId + '|' + target,
+                key -> Timer.builder(GatewayConstants.MIRROR_METRIC_PREFIX + ".latency")
+                        .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                        .tag(GatewayConstants.METRIC_TAG_TARGET, target)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Primary and shadow status classes side by side; the off-diagonal series are the regressions
+     */
+    private Counter responses(String routeId, String primary, String shadow) {
+        return counters.computeIfAbsent(routeId + '|' + primary + '|' + shadow,
+                key -> Counter.builder(GatewayConstants.MIRROR_METRIC_PREFIX + ".responses")
+                        .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                        .tag(GatewayConstants.MIRROR_TAG_PRIMARY, primary)
+                        .tag(GatewayConstants.MIRROR_TAG_SHADOW, shadow)
+                        .register(meterRegistry));
+    }
+
+    private Counter skipped(String routeId, String reason) {
+        return counters.computeIfAbsent(routeId + '|' + reason,
+                key -> Counter.builder(GatewayConstants.MIRROR_METRIC_PREFIX + ".skipped")
+                        .tag(GatewayConstants.METRIC_TAG_ROUTE, routeId)
+                        .tag(GatewayConstants.METRIC_TAG_REASON, reason)
+                        .register(meterRegistry));
+    }
+
+    private static boolean isNotMirrored(String name) {
+        for (String header : NOT_MIRRORED_HEADERS) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String statusClass(int status) {
+        return (status / 100) + "xx";
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Copies the request body as the primary upstream reads it, up to a limit
+     */
+    private static class BodyTap extends ServerHttpRequestDecorator {
+
+        private final int maxBytes;
+        private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+        private final AtomicBoolean complete = new AtomicBoolean();
+
+        BodyTap(ServerHttpRequest delegate, int maxBytes) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(buffer -> {
+                int length = buffer.readableByteCount();
+                if (overflowed.get() || copy.size() + length > maxBytes) {
+                    overflowed.set(true);
+                    return;
+                }
+                byte[] chunk = new byte[length];
+                buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, length);
+                copy.write(chunk, 0, length);
+            }).doOnComplete(() -> complete.set(true));
+        }
+
+        boolean isOverflowed() {
+            return overflowed.get();
+        }
+
+        /**
+         * False when the request has a body the primary upstream did not read to the end
+         */
+        boolean isComplete() {
+            HttpHeaders headers = getHeaders();
+            boolean hasBody = headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+            return complete.get() || !hasBody;
+        }
+
+        byte[] body() {
+            return copy.toByteArray();
+        }
+    }
+
+    /**
+     * Configuration class for traffic mirror filter
+     */
+    @Setter
+    @Getter
+    public static class Config {
+        private String routeId;
+
+        public Config routeId(String routeId) {
+            this.routeId = routeId;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.iam.gateway.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the request's remaining deadline to the upstream call, just before the request is routed
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamDeadlineFilter implements GlobalFilter, Ordered {
+
+    private final DeadlineFilter deadlineFilter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return deadlineFilter.enforce(exchange, chain);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 25; // the budget header must be queued before decorations are applied
+    }
+}
@@ -0,0 +1,58 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.warmup.WarmupRunner;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Warm-up Routing Filter - Sends warm-up requests to the loopback stub instead of the route's upstream
+ * Everything up to the routing filter runs as for real traffic; only the target changes. A no-op in
+ * upstream mode.
+ */
+@Component
+public class WarmupRoutingFilter implements GlobalFilter, Ordered {
+
+    private final boolean stub;
+    private final WarmupRunner warmupRunner;
+    private volatile URI stubUri;
+
+    public WarmupRoutingFilter(ApiGatewayProperties properties, WarmupRunner warmupRunner) {
+        this.stub = properties.getWarmup().getTarget() == ApiGatewayProperties.WarmupTarget.STUB;
+        this.warmupRunner = warmupRunner;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (stub && exchange.getAttribute(GatewayConstants.WARMUP_ATTR) != null
+                && exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR) != null) {
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, stubUri());
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 2; // after sticky routing picked an instance
+    }
+
+    private URI stubUri() {
+        URI uri = stubUri;
+        if (uri == null) {
+            uri = URI.create("http://" + GatewayConstants.LOOPBACK_HOST + ":" + warmupRunner.port()
+                    + GatewayConstants.GATEWAY_API_PREFIX + GatewayConstants.WARMUP_STUB_ENDPOINT);
+            stubUri = uri;
+        }
+        return uri;
+    }
+}
@@ -0,0 +1,10 @@
+package com.iam.gateway.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Event loop stall captured by EventLoopLagMonitor in blocking-detection mode
+ */
+public record BlockingEvent(String loop, String thread, long stalledMillis, Instant detectedAt, List<String> stackTrace) {
+}
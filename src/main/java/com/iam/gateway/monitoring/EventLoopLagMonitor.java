@@ -0,0 +1,255 @@
+package com.iam.gateway.monitoring;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.config.GatewayTransport;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event Loop Lag Monitor - Measures how long tasks wait before each Netty event loop runs them
+ * A probe task is submitted to every server and client loop at a fixed interval; the delay until it
+ * runs is recorded per loop. A probe still pending past the stall threshold means something is
+ * blocking that loop. With blocking-detection enabled the loop thread's stack is captured once per
+ * stall, which pinpoints the blocking call (meant for tests and diagnostics, not steady production).
+ */
+@Component
+@Slf4j
+public class EventLoopLagMonitor implements DisposableBean {
+
+    private final ApiGatewayProperties.EventLoopMonitor settings;
+    private final GatewayTransport gatewayTransport;
+    private final MeterRegistry meterRegistry;
+    private final List<LoopProbe> probes = new ArrayList<>();
+    private final Deque<BlockingEvent> blockingEvents = new ConcurrentLinkedDeque<>();
+    private ScheduledExecutorService scheduler;
+
+    public EventLoopLagMonitor(ApiGatewayProperties properties, GatewayTransport gatewayTransport,
+                               MeterRegistry meterRegistry) {
+        this.settings = properties.getEventLoopMonitor();
+        this.gatewayTransport = gatewayTransport;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!settings.isEnabled()) {
+            log.info("Event loop lag monitor disabled");
+            return;
+        }
+
+        gatewayTransport.workerGroups().forEach((prefix, group) -> {
+            int index = 0;
+            for (EventExecutor executor : group) {
+                probes.add(new LoopProbe(prefix + "-" + index++, executor));
+            }
+        });
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, GatewayConstants.EVENT_LOOP_PROBE_THREAD);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = settings.getProbeInterval().toNanos();
+        scheduler.scheduleAtFixedRate(this::probe, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+
+        log.info("Event loop lag monitor started ({} loops, interval: {}, stall threshold: {}, blocking detection: {})",
+                probes.size(), settings.getProbeInterval(), settings.getStallThreshold(), settings.isBlockingDetection());
+    }
+
+    /**
+     * Worst lag across all loops right now, including probes that have not run yet
+     */
+    public long currentMaxLagNanos() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (LoopProbe probe : probes) {
+            max = Math.max(max, probe.currentLagNanos(now));
+        }
+        return max;
+    }
+
+    /**
+     * Stalls captured in blocking-detection mode, most recent first
+     */
+    public List<BlockingEvent> recentBlockingEvents() {
+        return List.copyOf(blockingEvents);
+    }
+
+    /**
+     * Per-loop lag summary for the gateway metrics endpoint
+     */
+    public Map<String, Object> snapshot() {
+        long now = System.nanoTime();
+        Map<String, Object> loops = new LinkedHashMap<>();
+        for (LoopProbe probe : probes) {
+            loops.put(probe.name, probe.snapshot(now));
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put(GatewayConstants.ENABLED_KEY, settings.isEnabled());
+        snapshot.put(GatewayConstants.TRANSPORT_KEY, gatewayTransport.getTransportName());
+        snapshot.put(GatewayConstants.CURRENT_LAG_MS_KEY, toMillis(currentMaxLagNanos()));
+        snapshot.put(GatewayConstants.LOOPS_KEY, loops);
+        if (settings.isBlockingDetection()) {
+            snapshot.put(GatewayConstants.BLOCKING_EVENTS_KEY, recentBlockingEvents());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void probe() {
+        long now = System.nanoTime();
+        for (LoopProbe probe : probes) {
+            probe.tick(now);
+        }
+    }
+
+    private void recordBlockingEvent(BlockingEvent event) {
+        blockingEvents.addFirst(event);
+        while (blockingEvents.size() > settings.getMaxBlockingReports()) {
+            blockingEvents.pollLast();
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Probe state for one event loop. At most one probe is outstanding per loop, so a blocked
+     * loop does not accumulate probe tasks.
+     */
+    private class LoopProbe {
+
+        private static final long NONE = Long.MIN_VALUE;
+
+        private final String name;
+        private final EventExecutor executor;
+        private final Timer lag;
+        private final Counter stalls;
+        private volatile long submittedAt = NONE;
+        private volatile long lastLagNanos;
+        private volatile Thread thread;
+        private boolean stallReported; // only touched by the probe thread
+
+        LoopProbe(String name, EventExecutor executor) {
+            this.name = name;
+            this.executor = executor;
+            this.lag = Timer.builder(GatewayConstants.EVENT_LOOP_METRIC_PREFIX + ".lag")
+                    .tag(GatewayConstants.METRIC_TAG_LOOP, name)
+                    .publishPercentiles(0.5, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+            this.stalls = Counter.builder(GatewayConstants.EVENT_LOOP_METRIC_PREFIX + ".stalls")
+                    .tag(GatewayConstants.METRIC_TAG_LOOP, name)
+                    .register(meterRegistry);
+            Gauge.builder(GatewayConstants.EVENT_LOOP_METRIC_PREFIX + ".lag.current", this,
+                            probe -> toMillis(probe.currentLagNanos(System.nanoTime())))
+                    .tag(GatewayConstants.METRIC_TAG_LOOP, name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            try {
+                executor.execute(() -> thread = Thread.currentThread()); // known even if the loop blocks before its first probe
+            } catch (RejectedExecutionException e) {
+                log.debug("Event loop {} is shutting down; its thread is captured by the first probe instead", name);
+            }
+        }
+
+        void tick(long now) {
+            long pending = submittedAt;
+            if (pending != NONE) {
+                checkStall(now - pending);
+                return;
+            }
+            stallReported = false;
+            submittedAt = now;
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                submittedAt = NONE; // loop is shutting down
+            }
+        }
+
+        private void run() {
+            long lagNanos = System.nanoTime() - submittedAt;
+            thread = Thread.currentThread();
+            lastLagNanos = lagNanos;
+            lag.record(lagNanos, TimeUnit.NANOSECONDS);
+            submittedAt = NONE;
+        }
+
+        private void checkStall(long stalledNanos) {
+            if (stallReported || stalledNanos < settings.getStallThreshold().toNanos()) {
+                return;
+            }
+            stallReported = true;
+            stalls.increment();
+
+            Thread loopThread = thread;
+            if (!settings.isBlockingDetection() || loopThread == null) {
+                log.warn("Event loop {} stalled for {} ms", name, TimeUnit.NANOSECONDS.toMillis(stalledNanos));
+                return;
+            }
+
+            List<String> stack = Arrays.stream(loopThread.getStackTrace())
+                    .map(StackTraceElement::toString)
+                    .toList();
+            recordBlockingEvent(new BlockingEvent(name, loopThread.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(stalledNanos), Instant.now(), stack));
+            log.warn("Event loop {} ({}) blocked for {} ms at:\n\tat {}", name, loopThread.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(stalledNanos), String.join("\n\tat ", stack));
+        }
+
+        long currentLagNanos(long now) {
+            long pending = submittedAt;
+            long last = lastLagNanos;
+            return pending != NONE ? Math.max(last, now - pending) : last;
+        }
+
+        Map<String, Object> snapshot(long now) {
+            HistogramSnapshot histogram = lag.takeSnapshot();
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put(GatewayConstants.PROBES_KEY, histogram.count());
+            for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                values.put(percentile.percentile() == 0.5 ? GatewayConstants.LAG_P50_MS_KEY : GatewayConstants.LAG_P99_MS_KEY,
+                        percentile.value(TimeUnit.MILLISECONDS));
+            }
+            values.put(GatewayConstants.LAG_MAX_MS_KEY, histogram.max(TimeUnit.MILLISECONDS));
+            values.put(GatewayConstants.CURRENT_LAG_MS_KEY, toMillis(currentLagNanos(now)));
+            values.put(GatewayConstants.STALLS_KEY, (long) stalls.count());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.iam.gateway.monitoring;
+
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.security.HeavyHitterDetector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Heavy Hitter Endpoint - Current top offenders seen by the auth pre-filter
+ * An actuator endpoint rather than a gateway API path, so it is only reachable where the operator
+ * exposes it (management.endpoints.web.exposure.include), never on the public routes. Client IPs are
+ * reported as seen; usernames as hashes only.
+ */
+@Component
+@Endpoint(id = GatewayConstants.HEAVY_HITTERS_ENDPOINT_ID)
+@RequiredArgsConstructor
+public class HeavyHitterEndpoint {
+
+    private final HeavyHitterDetector heavyHitterDetector;
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        return heavyHitterDetector.snapshot();
+    }
+}
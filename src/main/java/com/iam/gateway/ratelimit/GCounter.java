@@ -0,0 +1,75 @@
+package com.iam.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Grow-only counter (G-counter) with one slot per cluster member
+ * A node only adds to its own slot; a peer's slot is merged by taking the maximum, so merges are
+ * idempotent, commutative and order-free, and duplicated or reordered datagrams are harmless.
+ * The counter's value is the sum of all slots.
+ */
+final class GCounter {
+
+    private final AtomicLongArray slots;
+    private final long expiresAt; // epoch millis after which the counter's window no longer matters
+
+    GCounter(int members, long expiresAt) {
+        this.slots = new AtomicLongArray(members);
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Add to this node's own slot; returns the new slot value
+     */
+    long add(int self, long delta) {
+        return slots.addAndGet(self, delta);
+    }
+
+    /**
+     * Add to this node's own slot only if the counter's value stays within limit; returns the new
+     * value, or -1 when the add would exceed it. Concurrent local adds cannot both pass the check:
+     * the slot is compare-and-set against the value the check was made on.
+     */
+    long addIfWithin(int self, long delta, long limit) {
+        long own;
+        long value;
+        do {
+            own = slots.get(self);
+            value = value();
+            if (value + delta > limit) {
+                return -1;
+            }
+        } while (!slots.compareAndSet(self, own, own + delta));
+        return value + delta;
+    }
+
+    /**
+     * Merge a peer's view of a slot; true when it moved the slot forward
+     */
+    boolean merge(int member, long value) {
+        long current;
+        do {
+            current = slots.get(member);
+            if (value <= current) {
+                return false;
+            }
+        } while (!slots.compareAndSet(member, current, value));
+        return true;
+    }
+
+    long slot(int member) {
+        return slots.get(member);
+    }
+
+    long value() {
+        long sum = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            sum += slots.get(i);
+        }
+        return sum;
+    }
+
+    long expiresAt() {
+        return expiresAt;
+    }
+}
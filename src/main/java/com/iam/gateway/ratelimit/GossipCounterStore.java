@@ -0,0 +1,399 @@
+package com.iam.gateway.ratelimit;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Gossip Counter Store - Rate-limit consumption shared between gateway nodes without Redis
+ * Every counter is a {@link GCounter} with one slot per member of a static member list (identical on
+ * all nodes). Each gossip interval a node sends the slots it changed to every peer over UDP; every
+ * full-sync-rounds intervals it sends all slots of all live counters instead, which repairs lost
+ * datagrams. On startup a node asks its peers for their counters and waits up to seed-timeout for the
+ * first answer, so a restarted node gets its own earlier counts back before it admits requests instead
+ * of counting from 0 until the next full sync. Without loss, peers converge within one interval plus
+ * network delay; with loss, within one full-sync period. Datagrams are only accepted from member
+ * addresses and are not authenticated, so the gossip port must stay on a private network.
+ */
+@Component
+@Slf4j
+public class GossipCounterStore implements DisposableBean {
+
+    private static final int MAGIC = 0x47435452; // "GCTR"
+    private static final int SYNC_REQUEST_MAGIC = 0x47535251; // "GSRQ": send me all your counters
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 1 + 2 + 2;
+    private static final int MAX_KEY_BYTES = 512;
+
+    private final ApiGatewayProperties.Gossip settings;
+    private final boolean enabled;
+    private final List<InetSocketAddress> members = new ArrayList<>();
+    private final Map<CounterKey, GCounter> counters = new ConcurrentHashMap<>();
+    private final Set<CounterKey> dirty = ConcurrentHashMap.newKeySet();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter dropped;
+    private final CountDownLatch seeded = new CountDownLatch(1);
+    private int self = -1;
+    private AtomicLongArray lastHeard;
+    private DatagramChannel channel;
+    private Disposable gossipTask;
+    private volatile long rounds; // written by the gossip task only
+
+    public GossipCounterStore(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getRateLimit().getGossip();
+        this.enabled = properties.getRateLimit().getMode() == ApiGatewayProperties.RateLimitMode.GOSSIP;
+        this.sent = Counter.builder(GatewayConstants.GOSSIP_METRIC_PREFIX + ".datagrams")
+                .tag(GatewayConstants.METRIC_TAG_DIRECTION, GatewayConstants.GOSSIP_DIRECTION_SENT)
+                .register(meterRegistry);
+        this.received = Counter.builder(GatewayConstants.GOSSIP_METRIC_PREFIX + ".datagrams")
+                .tag(GatewayConstants.METRIC_TAG_DIRECTION, GatewayConstants.GOSSIP_DIRECTION_RECEIVED)
+                .register(meterRegistry);
+        this.dropped = Counter.builder(GatewayConstants.GOSSIP_METRIC_PREFIX + ".dropped")
+                .register(meterRegistry);
+        Gauge.builder(GatewayConstants.GOSSIP_METRIC_PREFIX + ".counters", counters, Map::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        for (String member : settings.getMembers()) {
+            members.add(parseAddress(member));
+        }
+        self = members.indexOf(parseAddress(settings.getSelf()));
+        if (self < 0) {
+            throw new IllegalStateException("gateway.rate-limit.gossip.self " + settings.getSelf()
+                    + " is not in gateway.rate-limit.gossip.members " + settings.getMembers());
+        }
+        lastHeard = new AtomicLongArray(members.size());
+
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(settings.getBindHost(), members.get(self).getPort()));
+        Thread.ofPlatform().daemon().name(GatewayConstants.GOSSIP_THREAD_NAME).start(this::receiveLoop);
+        seedFromPeers();
+        long intervalNanos = settings.getInterval().toNanos();
+        gossipTask = Schedulers.parallel().schedulePeriodically(this::gossip, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Rate-limit gossip started (self: {} of {} members, interval: {}, full sync every {} rounds)",
+                self, members.size(), settings.getInterval(), settings.getFullSyncRounds());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cluster-wide value of a counter as this node currently sees it
+     */
+    public long value(String key, long window) {
+        GCounter counter = counters.get(new CounterKey(key, window));
+        return counter != null ? counter.value() : 0;
+    }
+
+    /**
+     * Record local consumption; it reaches peers with the next gossip round
+     */
+    public void add(String key, long window, long expiresAt, long delta) {
+        CounterKey counterKey = new CounterKey(key, window);
+        counters.computeIfAbsent(counterKey, k -> new GCounter(members.size(), expiresAt)).add(self, delta);
+        dirty.add(counterKey);
+    }
+
+    /**
+     * Record local consumption only if the counter, as this node sees it, stays within limit; returns
+     * the new cluster-wide value, or -1 when the consumption is refused and nothing was recorded
+     */
+    public long addIfWithin(String key, long window, long expiresAt, long delta, long limit) {
+        if (delta > limit) {
+            return -1;
+        }
+        CounterKey counterKey = new CounterKey(key, window);
+        long value = counters.computeIfAbsent(counterKey, k -> new GCounter(members.size(), expiresAt))
+                .addIfWithin(self, delta, limit);
+        if (value >= 0) {
+            dirty.add(counterKey);
+        }
+        return value;
+    }
+
+    /**
+     * True when every peer has been heard from within the peer timeout
+     */
+    public boolean isConverging() {
+        if (!enabled) {
+            return false;
+        }
+        long oldest = System.currentTimeMillis() - settings.getPeerTimeout().toMillis();
+        for (int i = 0; i < members.size(); i++) {
+            if (i != self && lastHeard.get(i) < oldest) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put(GatewayConstants.ENABLED_KEY, enabled);
+        if (!enabled) {
+            return snapshot;
+        }
+        long now = System.currentTimeMillis();
+        long[] totals = new long[members.size()];
+        counters.values().forEach(counter -> {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counter.slot(i);
+            }
+        });
+        List<Map<String, Object>> peers = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            Map<String, Object> peer = new LinkedHashMap<>();
+            peer.put(GatewayConstants.ADDRESS_KEY, settings.getMembers().get(i));
+            peer.put(GatewayConstants.SELF_KEY, i == self);
+            peer.put(GatewayConstants.LAST_HEARD_MS_KEY, i == self || lastHeard.get(i) == 0 ? null : now - lastHeard.get(i));
+            peer.put(GatewayConstants.SLOT_TOTAL_KEY, totals[i]); // compare across nodes to measure divergence
+            peers.add(peer);
+        }
+        snapshot.put(GatewayConstants.MEMBERS_KEY, peers);
+        snapshot.put(GatewayConstants.COUNTERS_KEY, counters.size());
+        snapshot.put(GatewayConstants.ROUNDS_KEY, rounds);
+        snapshot.put(GatewayConstants.CONVERGING_KEY, isConverging());
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (gossipTask != null) {
+            gossipTask.dispose();
+        }
+        if (channel != null) {
+            channel.close(); // unblocks the receiver thread
+        }
+    }
+
+    /**
+     * Ask every peer for its counters and wait up to seed-timeout for the first answer. A peer's full
+     * state includes this node's own slots as the peer last saw them, which merge restores.
+     */
+    private void seedFromPeers() {
+        if (members.size() < 2) {
+            return;
+        }
+        ByteBuffer request = ByteBuffer.allocate(HEADER_BYTES);
+        request.putInt(SYNC_REQUEST_MAGIC).put(VERSION).putShort((short) self).putShort((short) 0);
+        send(List.of(request.flip()));
+        if (settings.getSeedTimeout().isZero()) {
+            return;
+        }
+        try {
+            if (seeded.await(settings.getSeedTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.info("Rate-limit counters seeded from peers ({} counters)", counters.size());
+            } else {
+                log.warn("No gossip peer answered within {}; counting from the next full sync", settings.getSeedTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One gossip round: changed slots to every peer, or everything on a full-sync round
+     */
+    private void gossip() {
+        try {
+            long now = System.currentTimeMillis();
+            counters.entrySet().removeIf(entry -> entry.getValue().expiresAt() < now);
+            boolean fullSync = ++rounds % settings.getFullSyncRounds() == 0;
+            if (fullSync) {
+                dirty.clear(); // everything goes out this round; later changes are marked again
+            }
+            send(encode((fullSync ? counters.keySet() : dirty).iterator(), fullSync));
+        } catch (RuntimeException e) {
+            log.warn("Rate-limit gossip round failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Datagrams carrying all slots of the given counters, or only this node's slot of changed counters
+     * (consumed from the dirty set as they are encoded)
+     */
+    private List<ByteBuffer> encode(Iterator<CounterKey> keys, boolean allSlots) {
+        List<ByteBuffer> datagrams = new ArrayList<>();
+        ByteBuffer datagram = null;
+        int entries = 0;
+        while (keys.hasNext()) {
+            CounterKey key = keys.next();
+            if (!allSlots) {
+                keys.remove(); // before the slot is read, so a concurrent add marks it again
+            }
+            GCounter counter = counters.get(key);
+            byte[] name = key.key().getBytes(StandardCharsets.UTF_8);
+            if (counter == null || name.length > MAX_KEY_BYTES) {
+                continue;
+            }
+            int slots = allSlots ? members.size() : 1;
+            int size = 2 + name.length + 8 + 8 + 2 + slots * (2 + 8);
+            if (datagram == null || datagram.remaining() < size) {
+                if (datagram != null) {
+                    datagrams.add(finish(datagram, entries));
+                }
+                datagram = ByteBuffer.allocate(Math.max(settings.getMaxDatagramBytes(), HEADER_BYTES + size));
+                datagram.putInt(MAGIC).put(VERSION).putShort((short) self).putShort((short) 0);
+                entries = 0;
+            }
+            datagram.putShort((short) name.length).put(name).putLong(key.window()).putLong(counter.expiresAt());
+            datagram.putShort((short) slots);
+            for (int member = 0; member < members.size(); member++) {
+                if (allSlots || member == self) {
+                    datagram.putShort((short) member).putLong(counter.slot(member));
+                }
+            }
+            entries++;
+        }
+        if (allSlots) {
+            // Empty full syncs still tell peers this node is alive (and answer a seed request)
+            datagrams.add(finish(datagram != null ? datagram : emptyDatagram(), entries));
+        } else if (datagram != null) {
+            datagrams.add(finish(datagram, entries));
+        }
+        return datagrams;
+    }
+
+    private ByteBuffer emptyDatagram() {
+        ByteBuffer datagram = ByteBuffer.allocate(HEADER_BYTES);
+        datagram.putInt(MAGIC).put(VERSION).putShort((short) self).putShort((short) 0);
+        return datagram;
+    }
+
+    private static ByteBuffer finish(ByteBuffer datagram, int entries) {
+        datagram.putShort(4 + 1 + 2, (short) entries);
+        return datagram.flip();
+    }
+
+    private void send(List<ByteBuffer> datagrams) {
+        for (int member = 0; member < members.size(); member++) {
+            if (member != self) {
+                sendTo(datagrams, member);
+            }
+        }
+    }
+
+    private void sendTo(List<ByteBuffer> datagrams, int member) {
+        for (ByteBuffer datagram : datagrams) {
+            try {
+                channel.send(datagram.duplicate(), members.get(member));
+                sent.increment();
+            } catch (IOException e) {
+                log.debug("Gossip to {} failed: {}", members.get(member), e.toString());
+            }
+        }
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buffer = ByteBuffer.allocate(GatewayConstants.GOSSIP_MAX_DATAGRAM_BYTES);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress source = channel.receive(buffer);
+                buffer.flip();
+                if (!merge(source, buffer)) {
+                    dropped.increment();
+                }
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                dropped.increment();
+                log.debug("Dropped gossip datagram: {}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * Merge one datagram, or answer a peer's seed request with all counters; false when it is not from
+     * a member or is malformed
+     */
+    private boolean merge(SocketAddress source, ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return false;
+        }
+        int magic = buffer.getInt();
+        if ((magic != MAGIC && magic != SYNC_REQUEST_MAGIC) || buffer.get() != VERSION) {
+            return false;
+        }
+        int sender = buffer.getShort();
+        if (sender < 0 || sender >= members.size() || sender == self || !members.get(sender).equals(source)) {
+            return false;
+        }
+        received.increment();
+        lastHeard.set(sender, System.currentTimeMillis());
+        if (magic == SYNC_REQUEST_MAGIC) {
+            sendTo(encode(counters.keySet().iterator(), true), sender); // the peer (re)started
+            return true;
+        }
+
+        int entries = buffer.getShort();
+        long now = System.currentTimeMillis();
+        boolean fullState = true; // a full sync, which carries every slot, not a delta of the sender's own
+        for (int i = 0; i < entries; i++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            long window = buffer.getLong();
+            long expiresAt = buffer.getLong();
+            int slots = buffer.getShort();
+            fullState &= slots == members.size();
+            GCounter counter = expiresAt < now ? null : counters.computeIfAbsent(
+                    new CounterKey(new String(name, StandardCharsets.UTF_8), window),
+                    k -> new GCounter(members.size(), expiresAt));
+            for (int s = 0; s < slots; s++) {
+                int member = buffer.getShort();
+                long value = buffer.getLong();
+                if (counter != null && member >= 0 && member < members.size()) {
+                    counter.merge(member, value); // includes our own slot, restored after a restart
+                }
+            }
+        }
+        if (fullState) {
+            seeded.countDown();
+        }
+        return true;
+    }
+
+    private static InetSocketAddress parseAddress(String hostPort) {
+        int colon = hostPort.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalStateException("Gossip member must be host:port, got " + hostPort);
+        }
+        return new InetSocketAddress(hostPort.substring(0, colon), Integer.parseInt(hostPort.substring(colon + 1)));
+    }
+
+    private record CounterKey(String key, long window) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.iam.gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Gossip Rate Limiter - Redis-free stand-in for RedisRateLimiter, backed by {@link GossipCounterStore}
+ * The token bucket (replenishRate per second, burstCapacity) becomes a sliding window of
+ * burstCapacity / replenishRate seconds admitting burstCapacity tokens: same long-run rate, same burst.
+ * Usage is the current window's cluster-wide count plus the previous window's, weighted by how much
+ * of it still overlaps. On one node the check and the add are a single atomic step, so concurrent
+ * requests never overshoot the limit locally. Peers' consumption shows up within the gossip
+ * convergence time, so a key can briefly exceed its limit by what other nodes admitted in that time.
+ * Responses carry the same X-RateLimit-* headers as the Redis limiter.
+ */
+public class GossipRateLimiter extends AbstractRateLimiter<GossipRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "gossip-rate-limiter";
+
+    private final GossipCounterStore store;
+    private final String name;
+    private final int replenishRate;
+    private final int burstCapacity;
+    private final int requestedTokens;
+    private final long windowMillis;
+
+    public GossipRateLimiter(GossipCounterStore store, String name, int replenishRate, int burstCapacity, int requestedTokens) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, (ConfigurationService) null);
+        this.store = store;
+        this.name = name;
+        this.replenishRate = replenishRate;
+        this.burstCapacity = burstCapacity;
+        this.requestedTokens = requestedTokens;
+        this.windowMillis = Math.max(1, burstCapacity * 1000L / Math.max(1, replenishRate));
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        String key = name + '|' + id; // one budget per caller across routes, as with the Redis limiter's keys
+        long now = System.currentTimeMillis();
+        long window = now / windowMillis;
+        double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+        double previous = store.value(key, window - 1) * previousWeight;
+
+        long expiresAt = (window + 2) * windowMillis; // still read as "previous" next window
+        // Check and add in one step, so event loops admitting the same key at once cannot both take the last tokens
+        long current = store.addIfWithin(key, window, expiresAt, requestedTokens, (long) Math.floor(burstCapacity - previous));
+        boolean allowed = current >= 0;
+        if (!allowed) {
+            current = store.value(key, window);
+        }
+        long remaining = Math.max(0, (long) Math.floor(burstCapacity - previous - current));
+        return Mono.just(new Response(allowed, headers(remaining)));
+    }
+
+    private Map<String, String> headers(long remaining) {
+        return Map.of(
+                RedisRateLimiter.REMAINING_HEADER, Long.toString(remaining),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(replenishRate),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(burstCapacity),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(requestedTokens));
+    }
+
+    /**
+     * Limits are fixed per limiter instance; there is no per-route configuration
+     */
+    public static class Config {
+    }
+}
@@ -0,0 +1,115 @@
+package com.iam.gateway.routing;
+
+import com.iam.gateway.util.Hashing;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Bounded-Load Hash Ring - Consistent hashing with virtual nodes and a per-instance load cap
+ * Each instance owns virtual-nodes points on a 64-bit ring, hashed from its URI, so adding or removing
+ * an instance only moves the keys on that instance's arcs. A key goes to the first instance clockwise
+ * from its hash whose in-flight count is below load-factor x the average; hot instances spill to their
+ * ring successors instead of the whole assignment being reshuffled. Lookup is a binary search over
+ * instances x virtual-nodes points.
+ */
+public final class BoundedLoadHashRing {
+
+    private static final long INSTANCE_SEED = 0x5bd1e9955bd1e995L;
+    private static final long KEY_SEED = 0x27d4eb2f165667c5L;
+
+    private final URI[] instances;
+    private final long[] points;
+    private final int[] owners;
+    private final double loadFactor;
+    private final AtomicIntegerArray inFlight;
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+
+    public BoundedLoadHashRing(List<URI> instances, int virtualNodes, double loadFactor) {
+        if (instances.isEmpty()) {
+            throw new IllegalArgumentException("Hash ring needs at least one instance");
+        }
+        this.instances = instances.toArray(new URI[0]);
+        this.loadFactor = Math.max(1.0, loadFactor);
+        this.inFlight = new AtomicIntegerArray(this.instances.length);
+
+        List<long[]> ring = new ArrayList<>(this.instances.length * virtualNodes);
+        for (int owner = 0; owner < this.instances.length; owner++) {
+            String name = this.instances[owner].toString();
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.add(new long[]{Hashing.hash(name + '#' + node, INSTANCE_SEED), owner});
+            }
+        }
+        ring.sort(Comparator.comparingLong(point -> point[0]));
+        this.points = new long[ring.size()];
+        this.owners = new int[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i)[0];
+            owners[i] = (int) ring.get(i)[1];
+        }
+    }
+
+    /**
+     * Instance the key maps to when every instance is under its load cap
+     */
+    public int primary(CharSequence key) {
+        return owners[position(Hashing.hash(key, KEY_SEED))];
+    }
+
+    /**
+     * Pick an instance for the key and count the request against it; pair with {@link #release(int)}
+     */
+    public int acquire(CharSequence key) {
+        int capacity = (int) Math.ceil(loadFactor * (totalInFlight.get() + 1) / instances.length);
+        int start = position(Hashing.hash(key, KEY_SEED));
+        int chosen = owners[start];
+        for (int step = 0; step < points.length; step++) {
+            int owner = owners[(start + step) % points.length];
+            if (inFlight.get(owner) < capacity) {
+                chosen = owner;
+                break;
+            }
+        }
+        inFlight.incrementAndGet(chosen);
+        totalInFlight.incrementAndGet();
+        return chosen;
+    }
+
+    public void release(int instance) {
+        inFlight.decrementAndGet(instance);
+        totalInFlight.decrementAndGet();
+    }
+
+    public URI instance(int index) {
+        return instances[index];
+    }
+
+    public int size() {
+        return instances.length;
+    }
+
+    public int totalInFlight() {
+        return totalInFlight.get();
+    }
+
+    public int maxInFlight() {
+        int max = 0;
+        for (int i = 0; i < inFlight.length(); i++) {
+            max = Math.max(max, inFlight.get(i));
+        }
+        return max;
+    }
+
+    private int position(long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+}
@@ -0,0 +1,182 @@
+package com.iam.gateway.security;
+
+import com.iam.gateway.cache.UserContext;
+import com.iam.gateway.config.ApiGatewayProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authorization Policy - Route permission rules compiled once at startup
+ * Every permission name is interned to a bit index, roles become permission bitsets and
+ * rules become required/accepted masks, so a check is a handful of long ANDs with no allocation.
+ * Roles and permissions are separate ID spaces: a role grants exactly its configured permissions,
+ * and a role without a mapping grants nothing, whatever its name.
+ */
+@Component
+@Slf4j
+public class AuthorizationPolicy {
+
+    private final boolean enabled;
+    private final Map<String, Integer> permissionIds = new HashMap<>();
+    private final Map<String, Integer> roleIds = new HashMap<>();
+    private final long[][] roleMasks;
+    private final Map<String, CompiledRule> rulesByRoute = new LinkedHashMap<>();
+    private final int words;
+
+    public AuthorizationPolicy(ApiGatewayProperties properties) {
+        ApiGatewayProperties.Authorization authorization = properties.getAuthorization();
+        this.enabled = authorization.isEnabled();
+
+        // Intern every permission name first so all masks share one width
+        authorization.getRolePermissions().values().forEach(permissions -> permissions.forEach(this::intern));
+        authorization.getRules().forEach(rule -> {
+            rule.getAllOf().forEach(this::intern);
+            rule.getAnyOf().forEach(this::intern);
+            rule.getTenantBypass().forEach(this::intern);
+        });
+        this.words = Math.max(1, (permissionIds.size() + 63) >>> 6);
+
+        this.roleMasks = new long[authorization.getRolePermissions().size()][];
+        authorization.getRolePermissions().forEach((role, permissions) -> {
+            int id = roleIds.size();
+            roleIds.put(role, id);
+            roleMasks[id] = mask(permissions);
+        });
+        authorization.getRules().forEach(rule -> rulesByRoute.put(rule.getRouteId(), new CompiledRule(
+                rule.getRouteId(),
+                mask(rule.getAllOf()),
+                mask(rule.getAnyOf()),
+                !rule.getAnyOf().isEmpty(),
+                rule.getTenantPathPrefix(),
+                mask(rule.getTenantBypass())
+        )));
+
+        log.info("Authorization policy compiled: {} permissions, {} roles, {} route rules (enabled: {})",
+                permissionIds.size(), roleIds.size(), rulesByRoute.size(), enabled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rule for a route, or null when the route only requires authentication
+     */
+    public CompiledRule ruleFor(String routeId) {
+        return rulesByRoute.get(routeId);
+    }
+
+    /**
+     * Compile a user's roles into a permission bitset - done once per user-context load
+     */
+    public long[] compileRoles(List<String> roles) {
+        long[] bits = new long[words];
+        for (String role : roles) {
+            Integer id = roleIds.get(role);
+            if (id != null) {
+                or(bits, roleMasks[id]);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Evaluate a rule against a user context - allocation free
+     */
+    public boolean isAllowed(CompiledRule rule, UserContext userContext, String path) {
+        if (!enabled || rule == null) {
+            return true;
+        }
+        long[] bits = userContext.permissionBits();
+        if (!containsAll(bits, rule.allOf())) {
+            return false;
+        }
+        if (rule.hasAnyOf() && !intersects(bits, rule.anyOf())) {
+            return false;
+        }
+        if (rule.tenantPathPrefix() == null || intersects(bits, rule.tenantBypass())) {
+            return true;
+        }
+        return isMemberOfPathTenant(userContext.organizationIds(), path, rule.tenantPathPrefix());
+    }
+
+    private boolean isMemberOfPathTenant(List<String> organizationIds, String path, String prefix) {
+        if (!path.startsWith(prefix)) {
+            return true; // collection endpoints are not tenant scoped
+        }
+        int start = prefix.length();
+        int end = path.indexOf('/', start);
+        if (end < 0 && start == path.length()) {
+            return true; // the collection itself, with a trailing slash
+        }
+        int length = (end < 0 ? path.length() : end) - start;
+        if (length == 0) {
+            return false; // empty org segment: upstream may collapse "//" and serve the next one
+        }
+        for (int i = 0; i < organizationIds.size(); i++) {
+            String organizationId = organizationIds.get(i);
+            if (organizationId.length() == length && path.regionMatches(start, organizationId, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAll(long[] bits, long[] required) {
+        for (int i = 0; i < required.length; i++) {
+            long word = i < bits.length ? bits[i] : 0L;
+            if ((word & required[i]) != required[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean intersects(long[] bits, long[] accepted) {
+        for (int i = 0; i < accepted.length && i < bits.length; i++) {
+            if ((bits[i] & accepted[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void intern(String permission) {
+        permissionIds.putIfAbsent(permission, permissionIds.size());
+    }
+
+    private long[] mask(Collection<String> permissions) {
+        long[] mask = new long[words];
+        permissions.forEach(permission -> set(mask, permissionIds.get(permission)));
+        return mask;
+    }
+
+    private static void set(long[] mask, int id) {
+        mask[id >>> 6] |= 1L << id;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= source[i];
+        }
+    }
+
+    /**
+     * Route rule with permission names replaced by bit masks
+     */
+    public record CompiledRule(
+            String routeId,
+            long[] allOf,
+            long[] anyOf,
+            boolean hasAnyOf,
+            String tenantPathPrefix,
+            long[] tenantBypass
+    ) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.iam.gateway.security;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Decaying Count-Min sketch over 64-bit key hashes (see {@link com.iam.gateway.util.Hashing})
+ * Memory is fixed at depth * width ints however many distinct keys are seen. Estimates never
+ * undercount; collisions can only inflate them. {@link #decay()} halves every counter so counts
+ * reflect recent traffic. Lock-free: concurrent increments and decay may race, which only makes
+ * the (already approximate) counts slightly less exact.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicIntegerArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicIntegerArray(depth * width);
+    }
+
+    /**
+     * Count one occurrence and return the updated estimate
+     */
+    public int add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = Math.floorMod(h1 + row * h2, width);
+            int value = counters.incrementAndGet(row * width + column);
+            if (value < estimate) {
+                estimate = value;
+            }
+        }
+        return estimate;
+    }
+
+    public int estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = Math.floorMod(h1 + row * h2, width);
+            estimate = Math.min(estimate, counters.get(row * width + column));
+        }
+        return estimate;
+    }
+
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            int value = counters.get(i);
+            if (value != 0) {
+                counters.set(i, value >>> 1);
+            }
+        }
+    }
+
+    public long sizeInBytes() {
+        return (long) depth * width * Integer.BYTES;
+    }
+}
@@ -0,0 +1,537 @@
+package com.iam.gateway.security;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fast JWT Verifier - Gateway-side signature verification that only reads sub, exp and nbf
+ * The header's alg and kid select a pre-built key from the JwtKeyring; the signature is checked over the
+ * raw token bytes before the payload is decoded, and the payload is then scanned in one pass for the three
+ * claims without building a claims map. Every failure is reported as a {@link JwtVerification} status, so
+ * bad tokens cost no exception. Algorithms the keyring does not support (and compressed or unsigned tokens)
+ * come back UNSUPPORTED for the caller to hand to JwtTokenProvider. Until gateway.jwt.fast-path-rejections-final
+ * is set, the caller also hands rejected tokens to the provider and reports any it accepts as disagreements.
+ */
+@Component
+@Slf4j
+public class FastJwtVerifier {
+
+    private static final byte[] BASE64URL = new byte[128];
+    private static final byte[] ALG = "alg".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KID = "kid".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ZIP = "zip".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRIT = "crit".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUB = "sub".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP = "exp".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NBF = "nbf".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final boolean enabled;
+    private final boolean rejectionsFinal;
+    private final JwtKeyring keyring;
+    private final Map<JwtVerification.Status, Counter> outcomes = new EnumMap<>(JwtVerification.Status.class);
+    private final Map<JwtVerification.Status, Counter> disagreements = new EnumMap<>(JwtVerification.Status.class);
+
+    public FastJwtVerifier(ApiGatewayProperties properties, JwtKeyring keyring, MeterRegistry meterRegistry) {
+        this.enabled = properties.getJwt().isFastPath();
+        this.rejectionsFinal = properties.getJwt().isFastPathRejectionsFinal();
+        this.keyring = keyring;
+        for (JwtVerification.Status status : JwtVerification.Status.values()) {
+            String outcome = status.name().toLowerCase(Locale.ROOT);
+            outcomes.put(status, Counter.builder(GatewayConstants.JWT_FAST_PATH_METRIC)
+                    .tag(GatewayConstants.METRIC_TAG_OUTCOME, outcome)
+                    .register(meterRegistry));
+            disagreements.put(status, Counter.builder(GatewayConstants.JWT_FAST_PATH_DISAGREEMENT_METRIC)
+                    .tag(GatewayConstants.METRIC_TAG_OUTCOME, outcome)
+                    .register(meterRegistry));
+        }
+        log.info("JWT fast path {}{}", enabled ? "enabled" : "disabled",
+                enabled && !rejectionsFinal ? " (rejections re-checked by JwtTokenProvider)" : "");
+    }
+
+    /**
+     * Whether a fast-path rejection is the final answer, or only a hint to re-check with the provider
+     */
+    public boolean isRejectionFinal() {
+        return rejectionsFinal;
+    }
+
+    /**
+     * The provider accepted a token the fast path rejected with this status
+     */
+    public void recordDisagreement(JwtVerification.Status status) {
+        disagreements.get(status).increment();
+    }
+
+    public JwtVerification verify(String token) {
+        return verify(token, System.currentTimeMillis());
+    }
+
+    /**
+     * Signature and time checks only, for callers that need to know whether a token is genuine before the
+     * JWT filter runs (load-shedding priority); not counted in the outcome metrics
+     */
+    public boolean isValid(String token) {
+        return enabled && doVerify(token, System.currentTimeMillis()).isValid();
+    }
+
+    JwtVerification verify(String token, long nowMillis) {
+        JwtVerification result = enabled ? doVerify(token, nowMillis) : JwtVerification.of(JwtVerification.Status.UNSUPPORTED);
+        outcomes.get(result.status()).increment();
+        return result;
+    }
+
+    private JwtVerification doVerify(String token, long nowMillis) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second < 0 || second == first + 1 || token.indexOf('.', second + 1) >= 0) {
+            return JwtVerification.of(JwtVerification.Status.MALFORMED);
+        }
+        if (second == token.length() - 1) {
+            return JwtVerification.of(JwtVerification.Status.UNSUPPORTED); // unsigned token, let the provider reject it
+        }
+
+        byte[] raw = token.getBytes(StandardCharsets.US_ASCII);
+        byte[] header = decode(raw, 0, first);
+        if (header == null) {
+            return JwtVerification.of(JwtVerification.Status.MALFORMED);
+        }
+        Fields headerFields = new Fields();
+        if (!scan(header, headerFields, true)) {
+            return JwtVerification.of(JwtVerification.Status.MALFORMED);
+        }
+        if (headerFields.alg == null || !JwtKey.isSupported(headerFields.alg) || headerFields.unsupported) {
+            return JwtVerification.of(JwtVerification.Status.UNSUPPORTED);
+        }
+        JwtKey key = keyring.find(headerFields.kid, headerFields.alg);
+        if (key == null) {
+            // No kid and no default key for the algorithm (secret too short for it): the provider decides
+            return JwtVerification.of(headerFields.kid == null
+                    ? JwtVerification.Status.UNSUPPORTED : JwtVerification.Status.UNKNOWN_KEY);
+        }
+
+        byte[] signature = decode(raw, second + 1, raw.length);
+        if (signature == null) {
+            return JwtVerification.of(JwtVerification.Status.MALFORMED);
+        }
+        if (!key.verify(raw, second, signature)) {
+            return JwtVerification.of(JwtVerification.Status.BAD_SIGNATURE);
+        }
+
+        byte[] payload = decode(raw, first + 1, second);
+        Fields claims = new Fields();
+        if (payload == null || !scan(payload, claims, false)) {
+            return JwtVerification.of(JwtVerification.Status.MALFORMED);
+        }
+        if (claims.exp != Long.MIN_VALUE && nowMillis > claims.exp * 1000) {
+            return JwtVerification.of(JwtVerification.Status.EXPIRED);
+        }
+        if (claims.nbf != Long.MIN_VALUE && nowMillis < claims.nbf * 1000) {
+            return JwtVerification.of(JwtVerification.Status.NOT_YET_VALID);
+        }
+        if (claims.sub == null || claims.sub.isBlank()) {
+            return JwtVerification.of(JwtVerification.Status.MISSING_SUBJECT);
+        }
+        return JwtVerification.valid(claims.sub, claims.exp);
+    }
+
+    /**
+     * Unpadded base64url decode of raw[from, to); null on any character outside the alphabet
+     */
+    static byte[] decode(byte[] raw, int from, int to) {
+        int length = to - from;
+        if (length <= 0 || length % 4 == 1) {
+            return null;
+        }
+        byte[] out = new byte[length * 3 / 4];
+        int bits = 0;
+        int bitCount = 0;
+        int written = 0;
+        for (int i = from; i < to; i++) {
+            int c = raw[i];
+            int value = c >= 0 && c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return null;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[written++] = (byte) (bits >> bitCount);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * One pass over a JSON object, keeping only the fields the gateway needs; false when not well-formed
+     */
+    private static boolean scan(byte[] json, Fields fields, boolean header) {
+        Scanner scanner = new Scanner(json);
+        if (!scanner.expect('{')) {
+            return false;
+        }
+        if (scanner.peek() == '}') {
+            scanner.position++;
+            return scanner.atEnd();
+        }
+        while (true) {
+            scanner.skipWhitespace();
+            int keyStart = scanner.position + 1;
+            if (!scanner.skipString()) {
+                return false;
+            }
+            int keyEnd = scanner.position - 1;
+            if (!scanner.expect(':')) {
+                return false;
+            }
+            scanner.skipWhitespace();
+            boolean ok;
+            if (header && scanner.keyEquals(keyStart, keyEnd, ALG)) {
+                fields.alg = scanner.readString();
+                ok = fields.alg != null;
+            } else if (header && scanner.keyEquals(keyStart, keyEnd, KID)) {
+                fields.kid = scanner.readString();
+                ok = fields.kid != null;
+            } else if (header && (scanner.keyEquals(keyStart, keyEnd, ZIP) || scanner.keyEquals(keyStart, keyEnd, CRIT))) {
+                fields.unsupported = true;
+                ok = scanner.skipValue(0);
+            } else if (!header && scanner.keyEquals(keyStart, keyEnd, SUB)) {
+                fields.sub = scanner.readString();
+                ok = fields.sub != null;
+            } else if (!header && scanner.keyEquals(keyStart, keyEnd, EXP)) {
+                fields.exp = scanner.readSeconds();
+                ok = fields.exp != Long.MIN_VALUE;
+            } else if (!header && scanner.keyEquals(keyStart, keyEnd, NBF)) {
+                fields.nbf = scanner.readSeconds();
+                ok = fields.nbf != Long.MIN_VALUE;
+            } else {
+                ok = scanner.skipValue(0);
+            }
+            if (!ok) {
+                return false;
+            }
+            scanner.skipWhitespace();
+            int next = scanner.next();
+            if (next == '}') {
+                return scanner.atEnd();
+            }
+            if (next != ',') {
+                return false;
+            }
+        }
+    }
+
+    private static final class Fields {
+        private String alg;
+        private String kid;
+        private boolean unsupported;
+        private String sub;
+        private long exp = Long.MIN_VALUE;
+        private long nbf = Long.MIN_VALUE;
+    }
+
+    /**
+     * Minimal JSON cursor; every method reports failure by return value
+     */
+    private static final class Scanner {
+
+        private static final int MAX_DEPTH = 32;
+
+        private final byte[] json;
+        private int position;
+
+        Scanner(byte[] json) {
+            this.json = json;
+        }
+
+        int peek() {
+            skipWhitespace();
+            return position < json.length ? json[position] : -1;
+        }
+
+        int next() {
+            return position < json.length ? json[position++] : -1;
+        }
+
+        boolean expect(char c) {
+            skipWhitespace();
+            return next() == c;
+        }
+
+        boolean atEnd() {
+            skipWhitespace();
+            return position == json.length;
+        }
+
+        void skipWhitespace() {
+            while (position < json.length) {
+                byte b = json[position];
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        /**
+         * Compares a member name with an ASCII key; names written with JSON escapes are decoded first
+         */
+        boolean keyEquals(int start, int end, byte[] key) {
+            for (int i = start; i < end; i++) {
+                if (json[i] == '\\') {
+                    String name = unescape(start, end);
+                    return name != null && name.equals(new String(key, StandardCharsets.US_ASCII));
+                }
+            }
+            return end - start == key.length && Arrays.equals(json, start, end, key, 0, key.length);
+        }
+
+        /**
+         * Positioned on an opening quote; leaves the cursor after the closing quote
+         */
+        boolean skipString() {
+            skipWhitespace();
+            if (next() != '"') {
+                return false;
+            }
+            while (position < json.length) {
+                byte b = json[position++];
+                if (b == '"') {
+                    return true;
+                }
+                if (b == '\\') {
+                    if (!skipEscape()) {
+                        return false;
+                    }
+                } else if (b >= 0 && b < 0x20) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Positioned after a backslash; only the escapes JSON defines are accepted, as a full parser would
+         */
+        private boolean skipEscape() {
+            if (position >= json.length) {
+                return false;
+            }
+            switch (json[position++]) {
+                case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> {
+                    return true;
+                }
+                case 'u' -> {
+                    for (int k = 0; k < 4; k++) {
+                        if (position >= json.length || Character.digit(json[position++], 16) < 0) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        String readString() {
+            if (position >= json.length || json[position] != '"') {
+                return null;
+            }
+            int start = position + 1;
+            if (!skipString()) {
+                return null;
+            }
+            int end = position - 1;
+            for (int i = start; i < end; i++) {
+                if (json[i] == '\\') {
+                    return unescape(start, end);
+                }
+            }
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        private String unescape(int start, int end) {
+            StringBuilder out = new StringBuilder(end - start);
+            int i = start;
+            while (i < end) {
+                byte b = json[i];
+                if (b != '\\') {
+                    int runEnd = i;
+                    while (runEnd < end && json[runEnd] != '\\') {
+                        runEnd++;
+                    }
+                    out.append(new String(json, i, runEnd - i, StandardCharsets.UTF_8));
+                    i = runEnd;
+                    continue;
+                }
+                if (i + 1 >= end) {
+                    return null;
+                }
+                byte escaped = json[i + 1];
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append((char) escaped);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (i + 6 > end) {
+                            return null;
+                        }
+                        int code = 0;
+                        for (int k = i + 2; k < i + 6; k++) {
+                            int digit = Character.digit(json[k], 16);
+                            if (digit < 0) {
+                                return null;
+                            }
+                            code = (code << 4) | digit;
+                        }
+                        out.append((char) code);
+                        i += 4;
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+                i += 2;
+            }
+            return out.toString();
+        }
+
+        /**
+         * NumericDate in seconds; a fractional part is truncated. Long.MIN_VALUE when not a number
+         */
+        long readSeconds() {
+            int start = position;
+            boolean negative = position < json.length && json[position] == '-';
+            if (negative) {
+                position++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+                if (digits++ > 17) {
+                    return Long.MIN_VALUE;
+                }
+                value = value * 10 + (json[position++] - '0');
+            }
+            if (digits == 0) {
+                position = start;
+                return Long.MIN_VALUE;
+            }
+            if (position < json.length && json[position] == '.') {
+                position++;
+                int fraction = position;
+                while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+                    position++;
+                }
+                if (position == fraction) {
+                    return Long.MIN_VALUE;
+                }
+            }
+            if (position < json.length && (json[position] == 'e' || json[position] == 'E')) {
+                return Long.MIN_VALUE; // exponent notation is valid JSON but never used for NumericDate
+            }
+            return negative ? -value : value;
+        }
+
+        boolean skipValue(int depth) {
+            if (depth > MAX_DEPTH) {
+                return false;
+            }
+            skipWhitespace();
+            if (position >= json.length) {
+                return false;
+            }
+            byte b = json[position];
+            switch (b) {
+                case '"':
+                    return skipString();
+                case '{':
+                case '[':
+                    return skipContainer(b == '{' ? '}' : ']', b == '{', depth);
+                case 't':
+                    return skipLiteral("true");
+                case 'f':
+                    return skipLiteral("false");
+                case 'n':
+                    return skipLiteral("null");
+                default:
+                    return skipNumber();
+            }
+        }
+
+        private boolean skipContainer(char close, boolean object, int depth) {
+            position++;
+            if (peek() == close) {
+                position++;
+                return true;
+            }
+            while (true) {
+                if (object) {
+                    if (!skipString() || !expect(':')) {
+                        return false;
+                    }
+                }
+                if (!skipValue(depth + 1)) {
+                    return false;
+                }
+                skipWhitespace();
+                int next = next();
+                if (next == close) {
+                    return true;
+                }
+                if (next != ',') {
+                    return false;
+                }
+            }
+        }
+
+        private boolean skipLiteral(String literal) {
+            if (position + literal.length() > json.length) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json[position + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            position += literal.length();
+            return true;
+        }
+
+        private boolean skipNumber() {
+            int start = position;
+            while (position < json.length) {
+                byte b = json[position];
+                if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            return position > start;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.iam.gateway.security;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.util.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heavy Hitter Detector - Local pre-filter for credential-stuffing floods on auth endpoints
+ * Client IPs and login usernames (hashed, never stored in clear) are counted in one decaying
+ * Count-Min sketch; keys over their threshold are rejected before the Redis rate limiter is called.
+ * The hot path is a handful of atomic increments. Keys already near a threshold are periodically
+ * offered to the small Space-Saving style top-K table that backs the offenders endpoint.
+ */
+@Component
+@Slf4j
+public class HeavyHitterDetector implements DisposableBean {
+
+    private static final long IP_SEED = 0x9e3779b97f4a7c15L;
+    private static final long USERNAME_SEED = 0xc2b2ae3d27d4eb4fL;
+    private static final int TOP_K_SAMPLE_MASK = 15; // refresh top-K on every 16th count of a hot key
+
+    private final ApiGatewayProperties.HeavyHitter settings;
+    private final CountMinSketch sketch;
+    private final TopK topK;
+    private final Counter blockedIps;
+    private final Counter blockedUsernames;
+    private Disposable decayTask;
+
+    public HeavyHitterDetector(ApiGatewayProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getRateLimit().getHeavyHitter();
+        this.sketch = new CountMinSketch(settings.getDepth(), settings.getWidth());
+        this.topK = new TopK(settings.getTopK());
+        this.blockedIps = Counter.builder(GatewayConstants.HEAVY_HITTER_METRIC_PREFIX + ".blocked")
+                .tag(GatewayConstants.METRIC_TAG_KIND, GatewayConstants.HEAVY_HITTER_KIND_IP)
+                .register(meterRegistry);
+        this.blockedUsernames = Counter.builder(GatewayConstants.HEAVY_HITTER_METRIC_PREFIX + ".blocked")
+                .tag(GatewayConstants.METRIC_TAG_KIND, GatewayConstants.HEAVY_HITTER_KIND_USERNAME)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!settings.isEnabled()) {
+            log.info("Heavy hitter detection disabled");
+            return;
+        }
+        long intervalNanos = settings.getDecayInterval().toNanos();
+        decayTask = Schedulers.parallel().schedulePeriodically(this::decay, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Heavy hitter detection enabled (sketch: {}x{} = {} bytes, ipThreshold: {}, usernameThreshold: {}, paths: {})",
+                settings.getDepth(), settings.getWidth(), sketch.sizeInBytes(),
+                settings.getIpThreshold(), settings.getUsernameThreshold(), settings.getPaths());
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Count a request from the IP; true when the IP is over its threshold and should be rejected
+     */
+    public boolean recordIp(String ip) {
+        long hash = Hashing.hash(ip, IP_SEED);
+        int estimate = sketch.add(hash);
+        if (estimate >= settings.getIpThreshold() / 2 && (estimate & TOP_K_SAMPLE_MASK) == 0) {
+            topK.offer(GatewayConstants.HEAVY_HITTER_KIND_IP, ip, estimate);
+        }
+        if (estimate > settings.getIpThreshold()) {
+            blockedIps.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Count a login attempt for the decoded username; true when the username should be rejected
+     */
+    public boolean recordUsername(String username) {
+        long hash = Hashing.hash(username.toLowerCase(Locale.ROOT), USERNAME_SEED);
+        int estimate = sketch.add(hash);
+        if (estimate >= settings.getUsernameThreshold() / 2 && (estimate & TOP_K_SAMPLE_MASK) == 0) {
+            topK.offer(GatewayConstants.HEAVY_HITTER_KIND_USERNAME, Long.toHexString(hash), estimate);
+        }
+        if (estimate > settings.getUsernameThreshold()) {
+            blockedUsernames.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public long getDecayIntervalSeconds() {
+        return Math.max(1, settings.getDecayInterval().toSeconds());
+    }
+
+    /**
+     * Current top offenders, heaviest first
+     */
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> offenders = new ArrayList<>();
+        for (TopK.Entry entry : topK.entries()) {
+            long threshold = GatewayConstants.HEAVY_HITTER_KIND_IP.equals(entry.kind())
+                    ? settings.getIpThreshold() : settings.getUsernameThreshold();
+            Map<String, Object> offender = new LinkedHashMap<>();
+            offender.put(GatewayConstants.KIND_KEY, entry.kind());
+            offender.put(GatewayConstants.KEY_KEY, entry.key());
+            offender.put(GatewayConstants.ESTIMATE_KEY, entry.count());
+            offender.put(GatewayConstants.BLOCKED_KEY, entry.count() > threshold);
+            offenders.add(offender);
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put(GatewayConstants.ENABLED_KEY, settings.isEnabled());
+        snapshot.put(GatewayConstants.THRESHOLDS_KEY, Map.of(
+                GatewayConstants.HEAVY_HITTER_KIND_IP, settings.getIpThreshold(),
+                GatewayConstants.HEAVY_HITTER_KIND_USERNAME, settings.getUsernameThreshold()));
+        snapshot.put(GatewayConstants.SKETCH_BYTES_KEY, sketch.sizeInBytes());
+        snapshot.put(GatewayConstants.HEAVY_HITTERS_KEY, offenders);
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        if (decayTask != null) {
+            decayTask.dispose();
+        }
+    }
+
+    private void decay() {
+        sketch.decay();
+        topK.decay();
+    }
+
+    /**
+     * Bounded table of the heaviest keys. When full, a new key replaces the lightest entry only if
+     * its estimate is higher. Only touched for keys near a threshold, so the lock is uncontended.
+     */
+    private static final class TopK {
+
+        record Entry(String kind, String key, long count) {
+        }
+
+        private final int capacity;
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void offer(String kind, String key, long count) {
+            String id = kind + GatewayConstants.HEAVY_HITTER_KEY_SEPARATOR + key;
+            Entry existing = entries.get(id);
+            if (existing != null || entries.size() < capacity) {
+                entries.put(id, new Entry(kind, key, Math.max(count, existing != null ? existing.count() : 0)));
+                return;
+            }
+            Map.Entry<String, Entry> lightest = null;
+            for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+                if (lightest == null || candidate.getValue().count() < lightest.getValue().count()) {
+                    lightest = candidate;
+                }
+            }
+            if (lightest != null && count > lightest.getValue().count()) {
+                entries.remove(lightest.getKey());
+                entries.put(id, new Entry(kind, key, count));
+            }
+        }
+
+        synchronized void decay() {
+            entries.replaceAll((id, entry) -> new Entry(entry.kind(), entry.key(), entry.count() >>> 1));
+            entries.values().removeIf(entry -> entry.count() == 0);
+        }
+
+        synchronized List<Entry> entries() {
+            List<Entry> sorted = new ArrayList<>(entries.values());
+            sorted.sort(Comparator.comparingLong(Entry::count).reversed());
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.iam.gateway.security;
+
+import com.iam.gateway.constants.GatewayConstants;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Internal Request Token - Per-process secret marking requests the gateway sends to itself
+ * Used by batch dispatch so sub-requests skip a second JWT validation. The value is random per
+ * process start, never leaves the process (stripped before routing) and is only honored on
+ * loopback connections. Warm-up requests carry a second, separate value: holding the internal
+ * token (as every batch sub-request does) is not enough to pose as warm-up traffic.
+ */
+@Component
+public class InternalRequestToken {
+
+    private final String value;
+    private final byte[] valueBytes;
+    private final String warmupValue;
+    private final byte[] warmupValueBytes;
+
+    public InternalRequestToken() {
+        SecureRandom random = new SecureRandom();
+        this.value = randomHex(random);
+        this.valueBytes = value.getBytes(StandardCharsets.US_ASCII);
+        this.warmupValue = randomHex(random);
+        this.warmupValueBytes = warmupValue.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Sent by WarmupRunner only, in the warm-up header
+     */
+    public String warmupValue() {
+        return warmupValue;
+    }
+
+    /**
+     * True when the request carries the token and arrived over loopback
+     */
+    public boolean isTrusted(ServerHttpRequest request) {
+        String presented = request.getHeaders().getFirst(GatewayConstants.HEADER_INTERNAL_TOKEN);
+        if (presented == null) {
+            return false;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null || !remoteAddress.getAddress().isLoopbackAddress()) {
+            return false;
+        }
+        return MessageDigest.isEqual(valueBytes, presented.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * True when the request is trusted and its warm-up header carries the warm-up token
+     */
+    public boolean isWarmup(ServerHttpRequest request) {
+        String presented = request.getHeaders().getFirst(GatewayConstants.HEADER_WARMUP);
+        return presented != null && isTrusted(request)
+                && MessageDigest.isEqual(warmupValueBytes, presented.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String randomHex(SecureRandom random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
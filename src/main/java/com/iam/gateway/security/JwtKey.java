@@ -0,0 +1,153 @@
+package com.iam.gateway.security;
+
+import io.micrometer.core.instrument.Counter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * JWT Key - One verification key bound to a single algorithm
+ * The JCA Mac/Signature is initialized once per thread and reused; event-loop threads are few and
+ * long-lived, so no verifier object is created on the request path. EC signatures use the JWS
+ * (R || S) encoding directly via the P1363 JCA variants. HMAC secrets shorter than the hash output are
+ * refused (RFC 7518 section 3.2), as jjwt refuses them.
+ */
+public final class JwtKey {
+
+    private static final Map<String, String> HMAC = Map.of(
+            "HS256", "HmacSHA256", "HS384", "HmacSHA384", "HS512", "HmacSHA512");
+    private static final Map<String, String> RSA = Map.of(
+            "RS256", "SHA256withRSA", "RS384", "SHA384withRSA", "RS512", "SHA512withRSA");
+    private static final Map<String, String> EC = Map.of(
+            "ES256", "SHA256withECDSAinP1363Format", "ES384", "SHA384withECDSAinP1363Format",
+            "ES512", "SHA512withECDSAinP1363Format");
+
+    private final String kid;
+    private final String algorithm;
+    private final ThreadLocal<Mac> mac;
+    private final ThreadLocal<Signature> signature;
+    private final Counter verifications;
+    private volatile long lastUsedMillis;
+
+    private JwtKey(String kid, String algorithm, ThreadLocal<Mac> mac, ThreadLocal<Signature> signature, Counter verifications) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.mac = mac;
+        this.signature = signature;
+        this.verifications = verifications;
+    }
+
+    public static boolean isSupported(String algorithm) {
+        return HMAC.containsKey(algorithm) || RSA.containsKey(algorithm) || EC.containsKey(algorithm);
+    }
+
+    public static JwtKey hmac(String kid, String algorithm, byte[] secret, Counter verifications) throws GeneralSecurityException {
+        String jcaName = HMAC.get(algorithm);
+        if (jcaName == null) {
+            throw new GeneralSecurityException("Not an HMAC algorithm: " + algorithm);
+        }
+        int minimum = minimumSecretBytes(algorithm);
+        if (secret.length < minimum) {
+            throw new GeneralSecurityException(algorithm + " needs a secret of at least " + minimum + " bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret, jcaName);
+        Mac.getInstance(jcaName).init(key); // fail at load time, not on first request
+        return new JwtKey(kid, algorithm, ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(jcaName);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }), null, verifications);
+    }
+
+    /**
+     * Smallest HMAC secret accepted for the algorithm: the size of its hash output
+     */
+    public static int minimumSecretBytes(String algorithm) {
+        return Integer.parseInt(algorithm.substring(2)) / Byte.SIZE;
+    }
+
+    public static JwtKey publicKey(String kid, String algorithm, String pem, Counter verifications) throws GeneralSecurityException {
+        String jcaName = RSA.containsKey(algorithm) ? RSA.get(algorithm) : EC.get(algorithm);
+        if (jcaName == null) {
+            throw new GeneralSecurityException("Not an RSA/EC algorithm: " + algorithm);
+        }
+        String body = pem.replaceAll("-----(BEGIN|END) PUBLIC KEY-----", "").replaceAll("\\s", "");
+        KeyFactory factory = KeyFactory.getInstance(RSA.containsKey(algorithm) ? "RSA" : "EC");
+        PublicKey key = factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(body)));
+        Signature.getInstance(jcaName).initVerify(key);
+        return new JwtKey(kid, algorithm, null, ThreadLocal.withInitial(() -> {
+            try {
+                Signature instance = Signature.getInstance(jcaName);
+                instance.initVerify(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }), verifications);
+    }
+
+    /**
+     * Verify the signature over signed[0, length); counts successful verifications against this key
+     */
+    public boolean verify(byte[] signed, int length, byte[] tokenSignature) {
+        boolean valid;
+        if (mac != null) {
+            Mac instance = mac.get();
+            instance.update(signed, 0, length);
+            valid = MessageDigest.isEqual(tokenSignature, instance.doFinal());
+        } else {
+            Signature instance = signature.get();
+            try {
+                instance.update(signed, 0, length);
+                valid = instance.verify(tokenSignature);
+            } catch (SignatureException e) {
+                signature.remove(); // undecodable signature; start this thread over with a fresh instance
+                valid = false;
+            }
+        }
+        if (valid) {
+            verifications.increment();
+            lastUsedMillis = System.currentTimeMillis();
+        }
+        return valid;
+    }
+
+    /**
+     * HMAC over data with this key's secret, for tokens the gateway mints itself (warm-up); HMAC keys only
+     */
+    public byte[] sign(byte[] data) {
+        if (mac == null) {
+            throw new IllegalStateException("Key " + kid + " (" + algorithm + ") cannot sign");
+        }
+        return mac.get().doFinal(data);
+    }
+
+    public String kid() {
+        return kid;
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public long verificationCount() {
+        return (long) verifications.count();
+    }
+
+    public long lastUsedMillis() {
+        return lastUsedMillis;
+    }
+}
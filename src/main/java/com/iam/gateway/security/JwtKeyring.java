@@ -0,0 +1,280 @@
+package com.iam.gateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT Keyring - Verification keys indexed by the JWS kid header, reloadable without a restart
+ * Keys come from gateway.jwt.keys, an optional JSON file and an optional Redis string, merged by kid
+ * (later sources win). Tokens without a kid are checked against gateway.jwt.secret, so tokens issued
+ * before kids were introduced keep working. HMAC key bytes are derived from secrets per
+ * gateway.jwt.secret-encoding, which must match how JwtTokenProvider derives its key; a default secret too
+ * short for an algorithm gets no key, leaving those tokens to the provider. To rotate: publish the new key next to the old one, switch
+ * the issuer to the new kid, and retire the old key once its verification count stops moving.
+ * A source that fails to load keeps its previous keys.
+ */
+@Component
+@Slf4j
+public class JwtKeyring implements DisposableBean {
+
+    private static final String SOURCE_PROPERTIES = "properties";
+    private static final String SOURCE_FILE = "file";
+    private static final String SOURCE_REDIS = "redis";
+    private static final String[] DEFAULT_ALGORITHMS = {"HS256", "HS384", "HS512"};
+
+    private final ApiGatewayProperties.Jwt settings;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, List<ApiGatewayProperties.SigningKey>> sources = new LinkedHashMap<>();
+    private final Map<String, JwtKey> defaultKeys = new HashMap<>();
+    private volatile Map<String, JwtKey> keysByKid = Map.of();
+    private volatile Map<ApiGatewayProperties.SigningKey, JwtKey> built = Map.of();
+    private volatile long fileModifiedMillis = -1;
+    private Disposable reloadTask;
+
+    public JwtKeyring(ApiGatewayProperties properties, @Nullable ReactiveRedisTemplate<String, String> redisTemplate,
+                      ObjectMapper objectMapper, MeterRegistry meterRegistry) throws GeneralSecurityException {
+        this.settings = properties.getJwt();
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        byte[] secret = secretBytes(settings.getSecret());
+        Counter defaultCounter = verificationCounter(GatewayConstants.JWT_DEFAULT_KID);
+        List<String> tooWeak = new ArrayList<>();
+        for (String algorithm : DEFAULT_ALGORITHMS) {
+            if (secret.length < JwtKey.minimumSecretBytes(algorithm)) {
+                tooWeak.add(algorithm);
+                continue;
+            }
+            defaultKeys.put(algorithm, JwtKey.hmac(GatewayConstants.JWT_DEFAULT_KID, algorithm, secret, defaultCounter));
+        }
+        if (!tooWeak.isEmpty()) {
+            log.warn("gateway.jwt.secret is {} bytes, too short for {}; those tokens are left to JwtTokenProvider",
+                    secret.length, tooWeak);
+        }
+        sources.put(SOURCE_PROPERTIES, List.copyOf(settings.getKeys()));
+        rebuild();
+
+        Gauge.builder(GatewayConstants.JWT_KEY_METRIC_PREFIX + ".count", this, keyring -> keyring.keysByKid.size())
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (redisTemplate == null && settings.getKeysRedisKey() != null && !settings.getKeysRedisKey().isBlank()) {
+            log.warn("gateway.jwt.keys-redis-key {} is set but Redis is not configured; keys come from properties and file only",
+                    settings.getKeysRedisKey());
+        }
+        reloadFile();
+        reloadRedis();
+        if (hasFile() || hasRedis()) {
+            long interval = settings.getKeysReloadInterval().toMillis();
+            reloadTask = Schedulers.boundedElastic().schedulePeriodically(() -> {
+                reloadFile();
+                reloadRedis();
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Key for a token's kid, or the legacy secret for the algorithm when the token has no kid;
+     * null when there is no usable key
+     */
+    public JwtKey find(String kid, String algorithm) {
+        if (kid == null) {
+            return defaultKeys.get(algorithm);
+        }
+        JwtKey key = keysByKid.get(kid);
+        return key != null && key.algorithm().equals(algorithm) ? key : null;
+    }
+
+    /**
+     * Per-key usage, used to decide when a previous key can be retired
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        defaultKeys.values().stream().findFirst()
+                .ifPresent(key -> keys.put(GatewayConstants.JWT_DEFAULT_KID, usage(key)));
+        keysByKid.forEach((kid, key) -> keys.put(kid, usage(key)));
+
+        Map<String, Object> sourceSizes = new LinkedHashMap<>();
+        synchronized (sources) {
+            sources.forEach((source, list) -> sourceSizes.put(source, list.size()));
+        }
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put(GatewayConstants.ENTRIES_KEY, keys);
+        snapshot.put(GatewayConstants.SOURCES_KEY, sourceSizes);
+        return snapshot;
+    }
+
+    private Map<String, Object> usage(JwtKey key) {
+        Map<String, Object> usage = new HashMap<>();
+        usage.put(GatewayConstants.ALGORITHM_KEY, key.algorithm());
+        usage.put(GatewayConstants.VERIFICATIONS_KEY, key.verificationCount());
+        usage.put(GatewayConstants.LAST_USED_KEY, key.lastUsedMillis());
+        return usage;
+    }
+
+    private void reloadFile() {
+        if (!hasFile()) {
+            return;
+        }
+        Path path = Path.of(settings.getKeysFile());
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == fileModifiedMillis) {
+                return;
+            }
+            update(SOURCE_FILE, parse(Files.readString(path)));
+            fileModifiedMillis = modified;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load JWT keys from {}, keeping previous keys: {}", path, e.toString());
+        }
+    }
+
+    private void reloadRedis() {
+        if (!hasRedis()) {
+            return;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(settings.getKeysRedisKey()).block(Duration.ofSeconds(5));
+            if (json != null) {
+                update(SOURCE_REDIS, parse(json));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load JWT keys from Redis key {}, keeping previous keys: {}", settings.getKeysRedisKey(), e.toString());
+        }
+    }
+
+    private List<ApiGatewayProperties.SigningKey> parse(String json) throws IOException {
+        KeySet keySet = objectMapper.readValue(json, KeySet.class);
+        return keySet.keys() != null ? List.copyOf(keySet.keys()) : List.of();
+    }
+
+    private void update(String source, List<ApiGatewayProperties.SigningKey> keys) {
+        synchronized (sources) {
+            if (keys.equals(sources.get(source))) {
+                return;
+            }
+            sources.put(source, keys);
+            rebuild();
+        }
+    }
+
+    /**
+     * Build verifiers for new or changed keys and reuse the rest, then swap the index in one write
+     */
+    private void rebuild() {
+        Map<String, ApiGatewayProperties.SigningKey> merged = new LinkedHashMap<>();
+        sources.values().forEach(list -> list.forEach(key -> {
+            if (key.getKid() != null && !key.getKid().isBlank()) {
+                merged.put(key.getKid(), key);
+            }
+        }));
+
+        Map<ApiGatewayProperties.SigningKey, JwtKey> previous = built;
+        Map<ApiGatewayProperties.SigningKey, JwtKey> nextBuilt = new HashMap<>();
+        Map<String, JwtKey> nextIndex = new HashMap<>();
+        List<String> rejected = new ArrayList<>();
+        merged.forEach((kid, definition) -> {
+            JwtKey key = previous.get(definition);
+            if (key == null) {
+                try {
+                    key = build(definition);
+                } catch (GeneralSecurityException | IllegalArgumentException e) {
+                    rejected.add(kid + " (" + e.getMessage() + ")");
+                    return;
+                }
+            }
+            nextBuilt.put(definition, key);
+            nextIndex.put(kid, key);
+        });
+        built = nextBuilt;
+        keysByKid = Map.copyOf(nextIndex);
+
+        if (!rejected.isEmpty()) {
+            log.warn("Skipped invalid JWT keys: {}", rejected);
+        }
+        log.info("JWT keyring loaded (kids: {})", nextIndex.keySet());
+    }
+
+    private JwtKey build(ApiGatewayProperties.SigningKey definition) throws GeneralSecurityException {
+        String algorithm = definition.getAlgorithm();
+        if (!JwtKey.isSupported(algorithm)) {
+            throw new GeneralSecurityException("unsupported algorithm " + algorithm);
+        }
+        Counter counter = verificationCounter(definition.getKid());
+        if (algorithm.startsWith("HS")) {
+            if (definition.getSecret() == null) {
+                throw new GeneralSecurityException("missing secret");
+            }
+            return JwtKey.hmac(definition.getKid(), algorithm, secretBytes(definition.getSecret()), counter);
+        }
+        if (definition.getPublicKey() == null) {
+            throw new GeneralSecurityException("missing public key");
+        }
+        return JwtKey.publicKey(definition.getKid(), algorithm, definition.getPublicKey(), counter);
+    }
+
+    private byte[] secretBytes(String secret) {
+        return GatewayConstants.JWT_SECRET_ENCODING_BASE64.equalsIgnoreCase(settings.getSecretEncoding())
+                ? Base64.getDecoder().decode(secret)
+                : secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Counter verificationCounter(String kid) {
+        return Counter.builder(GatewayConstants.JWT_KEY_METRIC_PREFIX + ".verifications")
+                .tag(GatewayConstants.METRIC_TAG_KID, kid)
+                .register(meterRegistry);
+    }
+
+    private boolean hasFile() {
+        return settings.getKeysFile() != null && !settings.getKeysFile().isBlank();
+    }
+
+    private boolean hasRedis() {
+        return redisTemplate != null && settings.getKeysRedisKey() != null && !settings.getKeysRedisKey().isBlank();
+    }
+
+    @Override
+    public void destroy() {
+        if (reloadTask != null) {
+            reloadTask.dispose();
+        }
+    }
+
+    /**
+     * File / Redis format: {"keys":[{"kid":"...","algorithm":"RS256","publicKey":"-----BEGIN PUBLIC KEY-----..."}]}
+     */
+    record KeySet(List<ApiGatewayProperties.SigningKey> keys) {
+    }
+}
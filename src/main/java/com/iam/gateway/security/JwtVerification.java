@@ -0,0 +1,39 @@
+package com.iam.gateway.security;
+
+/**
+ * JWT Verification - Outcome of the gateway-side fast path, returned instead of thrown
+ */
+public record JwtVerification(Status status, String subject, long expiresAtSeconds) {
+
+    private static final JwtVerification MALFORMED = new JwtVerification(Status.MALFORMED, null, 0);
+    private static final JwtVerification BAD_SIGNATURE = new JwtVerification(Status.BAD_SIGNATURE, null, 0);
+    private static final JwtVerification UNSUPPORTED = new JwtVerification(Status.UNSUPPORTED, null, 0);
+
+    public enum Status {
+        VALID,
+        MALFORMED,
+        BAD_SIGNATURE,
+        UNKNOWN_KEY, // kid not in the keyring, or its algorithm differs from the token's
+        EXPIRED,
+        NOT_YET_VALID,
+        MISSING_SUBJECT,
+        UNSUPPORTED // not an algorithm the fast path handles; use the full provider
+    }
+
+    public static JwtVerification valid(String subject, long expiresAtSeconds) {
+        return new JwtVerification(Status.VALID, subject, expiresAtSeconds);
+    }
+
+    public static JwtVerification of(Status status) {
+        return switch (status) {
+            case MALFORMED -> MALFORMED;
+            case BAD_SIGNATURE -> BAD_SIGNATURE;
+            case UNSUPPORTED -> UNSUPPORTED;
+            default -> new JwtVerification(status, null, 0);
+        };
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+}
@@ -0,0 +1,89 @@
+package com.iam.gateway.tracing;
+
+/**
+ * Trace Context - W3C trace-context identity of one gateway hop
+ * spanId is the gateway's own span, parentSpanId the caller's (null when the gateway started the trace).
+ * Downstream calls carry traceparent with the gateway span as their parent; tracestate is passed through
+ * untouched.
+ */
+public record TraceContext(String traceId, String spanId, String parentSpanId, String flags,
+                           String traceState, String requestId) {
+
+    static final String VERSION = "00";
+    static final String FLAGS_SAMPLED = "01";
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    /**
+     * traceparent value for a request sent on behalf of this span
+     */
+    public String traceparent() {
+        return VERSION + '-' + traceId + '-' + spanId + '-' + flags;
+    }
+
+    public boolean isSampled() {
+        return (Character.digit(flags.charAt(1), 16) & 1) != 0;
+    }
+
+    /**
+     * Same trace, new span whose parent is this one; used for calls the gateway makes itself
+     */
+    public TraceContext child(String childSpanId) {
+        return new TraceContext(traceId, childSpanId, spanId, flags, traceState, requestId);
+    }
+
+    /**
+     * Continue an incoming trace, or null when the traceparent is absent or invalid (tracestate is then
+     * ignored as well, per the spec)
+     */
+    static TraceContext continueFrom(String traceparent, String traceState, String spanId, String requestId) {
+        if (!isValid(traceparent)) {
+            return null;
+        }
+        String traceId = traceparent.substring(3, 35);
+        String parentSpanId = traceparent.substring(36, 52);
+        String flags = traceparent.substring(53, 55);
+        return new TraceContext(traceId, spanId, parentSpanId, flags, traceState,
+                requestId != null ? requestId : traceId);
+    }
+
+    /**
+     * version-traceid-parentid-flags, lowercase hex; future versions may append fields after a dash
+     */
+    private static boolean isValid(String value) {
+        if (value == null || value.length() < TRACEPARENT_LENGTH) {
+            return false;
+        }
+        if (value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-') {
+            return false;
+        }
+        if (!isHex(value, 0, 2) || value.startsWith("ff")) {
+            return false;
+        }
+        if (value.startsWith(VERSION) ? value.length() != TRACEPARENT_LENGTH
+                : value.length() > TRACEPARENT_LENGTH && value.charAt(TRACEPARENT_LENGTH) != '-') {
+            return false;
+        }
+        return isHex(value, 3, 35) && !isZero(value, 3, 35)
+                && isHex(value, 36, 52) && !isZero(value, 36, 52)
+                && isHex(value, 53, 55);
+    }
+
+    private static boolean isHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.iam.gateway.tracing;
+
+import io.prometheus.client.exemplars.tracer.common.SpanContextSupplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trace Exemplars - Supplies the current trace to Prometheus exemplar sampling
+ * Reactive requests hop threads, so there is no ambient span; metrics recorded inside
+ * {@link #record} carry that trace's IDs on their histogram buckets instead.
+ */
+@Component
+public class TraceExemplars implements SpanContextSupplier {
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    public void record(TraceContext trace, Runnable recording) {
+        CURRENT.set(trace);
+        try {
+            recording.run();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    @Override
+    public String getTraceId() {
+        TraceContext trace = CURRENT.get();
+        return trace != null ? trace.traceId() : null;
+    }
+
+    @Override
+    public String getSpanId() {
+        TraceContext trace = CURRENT.get();
+        return trace != null ? trace.spanId() : null;
+    }
+
+    @Override
+    public boolean isSampled() {
+        TraceContext trace = CURRENT.get();
+        return trace != null && trace.isSampled();
+    }
+}
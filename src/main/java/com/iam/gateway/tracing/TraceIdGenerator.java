@@ -0,0 +1,77 @@
+package com.iam.gateway.tracing;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trace ID Generator - Lock-free 128-bit trace IDs and 64-bit span IDs
+ * Every ID is a bijective mix of one shared sequence, so no two IDs from this process can collide
+ * (until 2^64 IDs), no matter how many arrive on the same loop in the same millisecond. The high half of
+ * a trace ID adds the epoch second and a random per-process node value to keep replicas apart. One
+ * atomic increment and one hex string per ID.
+ */
+@Component
+public class TraceIdGenerator {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final AtomicLong sequence;
+    private final long node;
+    private final long traceSalt;
+    private final long spanSalt;
+
+    public TraceIdGenerator() {
+        SecureRandom random = new SecureRandom();
+        this.sequence = new AtomicLong(random.nextLong());
+        this.node = random.nextLong() >>> 32;
+        this.traceSalt = random.nextLong();
+        this.spanSalt = random.nextLong();
+    }
+
+    /**
+     * Start a new sampled trace for a request that arrived without a valid traceparent
+     */
+    public TraceContext newTrace(String requestId) {
+        String traceId = newTraceId();
+        return new TraceContext(traceId, newSpanId(), null, TraceContext.FLAGS_SAMPLED, null,
+                requestId != null ? requestId : traceId);
+    }
+
+    public String newTraceId() {
+        long high = (System.currentTimeMillis() / 1000) << 32 | node;
+        long low = mix(sequence.getAndIncrement() ^ traceSalt);
+        byte[] out = new byte[32];
+        writeHex(high, out, 0);
+        writeHex(low, out, 16);
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    public String newSpanId() {
+        long id;
+        do {
+            id = mix(sequence.getAndIncrement() ^ spanSalt);
+        } while (id == 0); // all-zero span IDs are invalid
+        byte[] out = new byte[16];
+        writeHex(id, out, 0);
+        return new String(out, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * SplitMix64 finalizer: a bijection on longs, so distinct inputs give distinct, well-spread outputs
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void writeHex(long value, byte[] out, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            out[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.iam.gateway.util;
+
+import com.iam.gateway.constants.GatewayConstants;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Client Address - The address a request is counted against by IP rate limits and heavy-hitter detection
+ * Normally the connection's remote address. Batch sub-requests arrive over loopback, so for those the
+ * batch caller's address is carried in an exchange attribute set by InternalRequestFilter.
+ */
+public final class ClientAddress {
+
+    private ClientAddress() {
+    }
+
+    public static String of(ServerWebExchange exchange) {
+        String original = exchange.getAttribute(GatewayConstants.CLIENT_ADDRESS_ATTR);
+        return original != null ? original : remote(exchange.getRequest());
+    }
+
+    /**
+     * Host address of the connection itself, or "unknown"
+     */
+    public static String remote(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : GatewayConstants.RATE_LIMIT_KEY_UNKNOWN;
+    }
+}
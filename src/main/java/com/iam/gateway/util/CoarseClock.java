@@ -0,0 +1,29 @@
+package com.iam.gateway.util;
+
+import com.iam.gateway.constants.GatewayConstants;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Coarse Clock - Current local time as a string, formatted at most once per tick
+ * For headers that only need second-level precision; readers in the same tick share one String.
+ */
+@Component
+public class CoarseClock {
+
+    private volatile Tick tick = new Tick(-1, "");
+
+    public String now() {
+        long bucket = System.currentTimeMillis() / GatewayConstants.COARSE_CLOCK_TICK_MILLIS;
+        Tick current = tick;
+        if (current.bucket() != bucket) {
+            current = new Tick(bucket, LocalDateTime.now().toString()); // racing loops format the same tick; harmless
+            tick = current;
+        }
+        return current.text();
+    }
+
+    private record Tick(long bucket, String text) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.iam.gateway.util;
+
+/**
+ * Hashing - Seeded 64-bit string hashes shared by the sketches and the routing ring
+ * FNV-1a over the input followed by a murmur3 finalizer, so nearby inputs ("host#1", "host#2") land
+ * far apart. Allocation-free; not for anything security-sensitive.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit FNV-1a over a string's chars, mixed with a seed so different key kinds do not collide
+     */
+    public static long hash(CharSequence value, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * 64-bit FNV-1a over a byte range, ASCII-lowercased, mixed with a seed
+     */
+    public static long hashLowercase(byte[] bytes, int from, int to, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 32;
+            }
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,23 @@
+package com.iam.gateway.warmup;
+
+import com.iam.gateway.constants.GatewayConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warm-up Health Indicator - Holds the readiness group at OUT_OF_SERVICE until warm-up has finished
+ */
+@Component(GatewayConstants.WARMUP_HEALTH_INDICATOR)
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupRunner.isComplete() ? Health.up() : Health.outOfService();
+        return builder.withDetails(warmupRunner.snapshot()).build();
+    }
+}
@@ -0,0 +1,317 @@
+package com.iam.gateway.warmup;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.config.GatewayTransport;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.security.InternalRequestToken;
+import com.iam.gateway.security.JwtKey;
+import com.iam.gateway.security.JwtKeyring;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warmup Runner - Synthetic traffic through the real filter chain before the pod reports ready
+ * Once the server is up: opens connections to every upstream in the routing pool and touches Redis, then
+ * sends rounds of the configured requests to the gateway over loopback, signed with synthetic JWTs. In
+ * stub mode routed requests are answered by the gateway's own stub endpoint, so no upstream sees load.
+ * Warm-up requests are read-only by default, use a synthetic user context instead of user-service and
+ * count against their own rate-limit buckets.
+ * Rounds continue until JIT compilation settles (compile time per round stays under jit-plateau) after
+ * min-requests, or until the time budget runs out. WarmupHealthIndicator holds readiness until then.
+ */
+@Component
+@Slf4j
+public class WarmupRunner {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String TOKEN_ALGORITHM = "HS256";
+
+    private final ApiGatewayProperties.Warmup settings;
+    private final ApiGatewayProperties properties;
+    private final RouteLocator routeLocator;
+    private final HttpClient gatewayHttpClient;
+    private final GatewayTransport gatewayTransport;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final InternalRequestToken internalRequestToken;
+    private final JwtKeyring keyring;
+    private final List<ApiGatewayProperties.WarmupRequest> requests;
+    private final CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+
+    private final AtomicLong requestsSent = new AtomicLong();
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+    private final Set<String> failuresReported = ConcurrentHashMap.newKeySet();
+    private volatile int rounds;
+    private volatile int settledRounds;
+    private volatile long startedNanos;
+    private volatile long durationMillis;
+    private volatile long jitMillis;
+    private volatile String reason;
+    private volatile boolean complete;
+    private volatile int port = -1;
+
+    public WarmupRunner(ApiGatewayProperties properties, RouteLocator routeLocator, HttpClient gatewayHttpClient,
+                        GatewayTransport gatewayTransport, @Nullable ReactiveRedisTemplate<String, String> redisTemplate,
+                        InternalRequestToken internalRequestToken, JwtKeyring keyring) {
+        this.settings = properties.getWarmup();
+        this.properties = properties;
+        this.routeLocator = routeLocator;
+        this.gatewayHttpClient = gatewayHttpClient;
+        this.gatewayTransport = gatewayTransport;
+        this.redisTemplate = redisTemplate;
+        this.internalRequestToken = internalRequestToken;
+        this.keyring = keyring;
+        this.requests = warmupRequests(settings);
+        if (!settings.isEnabled() || requests.isEmpty()) {
+            finish(GatewayConstants.WARMUP_DONE_DISABLED);
+        }
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        this.port = event.getWebServer().getPort();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (complete) {
+            return;
+        }
+        startedNanos = System.nanoTime();
+        long jitStart = compileMillis();
+        log.info("Warm-up started (target: {}, budget: {}, requests: {})",
+                settings.getTarget(), settings.getTimeBudget(), requests.size());
+
+        WebClient client = loopbackClient();
+        List<String> tokens = syntheticTokens();
+        Mono.when(openUpstreamConnections(), touchRedis())
+                .then(Flux.range(0, Integer.MAX_VALUE)
+                        .concatMap(round -> runRound(client, tokens))
+                        .takeUntil(settled -> settled)
+                        .take(settings.getTimeBudget())
+                        .then())
+                .doFinally(signal -> {
+                    jitMillis = compileMillis() - jitStart;
+                    finish(settledRounds >= settings.getPlateauRounds()
+                            ? GatewayConstants.WARMUP_DONE_JIT_SETTLED
+                            : GatewayConstants.WARMUP_DONE_TIME_BUDGET);
+                })
+                .subscribe(null, e -> log.warn("Warm-up aborted: {}", e.toString()));
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put(GatewayConstants.COMPLETE_KEY, complete);
+        snapshot.put(GatewayConstants.REASON_KEY, reason);
+        snapshot.put(GatewayConstants.REQUESTS_KEY, requestsSent.get());
+        snapshot.put(GatewayConstants.ROUNDS_KEY, rounds);
+        snapshot.put(GatewayConstants.CONNECTIONS_KEY, connectionsOpened.get());
+        snapshot.put(GatewayConstants.JIT_MILLIS_KEY, jitMillis);
+        snapshot.put(GatewayConstants.DURATION_MS_KEY, complete ? durationMillis
+                : startedNanos == 0 ? 0 : (System.nanoTime() - startedNanos) / 1_000_000);
+        return snapshot;
+    }
+
+    /**
+     * One round of round-size requests; emits true once the JIT has settled
+     */
+    private Mono<Boolean> runRound(WebClient client, List<String> tokens) {
+        long compileBefore = compileMillis();
+        return Flux.range(0, settings.getRoundSize())
+                .flatMap(i -> send(client, requests.get(i % requests.size()), tokens.isEmpty() ? null : tokens.get(i % tokens.size())),
+                        settings.getConcurrency())
+                .then(Mono.fromSupplier(() -> {
+                    rounds++;
+                    long compiled = compileMillis() - compileBefore;
+                    boolean quiet = compiled <= settings.getJitPlateau().toMillis(); // always quiet without JIT monitoring
+                    settledRounds = requestsSent.get() >= settings.getMinRequests() && quiet ? settledRounds + 1 : 0;
+                    return settledRounds >= settings.getPlateauRounds();
+                }));
+    }
+
+    /**
+     * The configured requests; in read-only mode anything but GET, HEAD and OPTIONS is dropped, since
+     * it could change state in Redis or, in upstream mode, in the services behind the gateway
+     */
+    private static List<ApiGatewayProperties.WarmupRequest> warmupRequests(ApiGatewayProperties.Warmup settings) {
+        if (!settings.isReadOnly()) {
+            return List.copyOf(settings.getRequests());
+        }
+        List<ApiGatewayProperties.WarmupRequest> safe = new ArrayList<>();
+        for (ApiGatewayProperties.WarmupRequest request : settings.getRequests()) {
+            if (SAFE_METHODS.contains(request.getMethod().toUpperCase(Locale.ROOT))) {
+                safe.add(request);
+            } else {
+                log.warn("Warm-up request {} {} skipped: warm-up is read-only", request.getMethod(), request.getPath());
+            }
+        }
+        return List.copyOf(safe);
+    }
+
+    private Mono<Void> send(WebClient client, ApiGatewayProperties.WarmupRequest request, String token) {
+        WebClient.RequestBodySpec spec = client.method(HttpMethod.valueOf(request.getMethod().toUpperCase(Locale.ROOT)))
+                .uri(request.getPath())
+                .header(GatewayConstants.HEADER_INTERNAL_TOKEN, internalRequestToken.value())
+                .header(GatewayConstants.HEADER_WARMUP, internalRequestToken.warmupValue());
+        if (request.isAuthenticated() && token != null) {
+            spec.header(HttpHeaders.AUTHORIZATION, GatewayConstants.JWT_TOKEN_PREFIX + token);
+        }
+        WebClient.RequestHeadersSpec<?> ready = request.getBody() != null
+                ? spec.contentType(MediaType.APPLICATION_JSON).bodyValue(request.getBody())
+                : spec;
+        return ready.exchangeToMono(response -> {
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        reportFailure(request, response.statusCode().value());
+                    }
+                    return response.releaseBody();
+                })
+                .timeout(settings.getRequestTimeout())
+                .doOnTerminate(requestsSent::incrementAndGet)
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * A warm-up request that is not answered with 2xx exercises an error path instead of the one it was
+     * meant to warm; reported once per request and status so a misconfiguration is visible, not repeated
+     */
+    private void reportFailure(ApiGatewayProperties.WarmupRequest request, int status) {
+        if (failuresReported.add(request.getMethod() + ' ' + request.getPath() + ' ' + status)) {
+            log.warn("Warm-up request {} {} answered {}; check its path and the gateway.jwt settings it is signed with",
+                    request.getMethod(), request.getPath(), status);
+        }
+    }
+
+    /**
+     * Open connections-per-upstream connections to each upstream at once through the routing client, so
+     * they sit in its pool when real traffic arrives
+     */
+    private Mono<Void> openUpstreamConnections() {
+        return upstreams().flatMap(upstream -> Flux.range(0, settings.getConnectionsPerUpstream())
+                        .flatMap(i -> gatewayHttpClient.get()
+                                .uri(upstream + settings.getUpstreamPath())
+                                .responseSingle((response, body) -> body.then())
+                                .timeout(settings.getRequestTimeout())
+                                .doOnSuccess(ignored -> connectionsOpened.incrementAndGet())
+                                .onErrorResume(e -> {
+                                    log.debug("Warm-up connection to {} failed: {}", upstream, e.toString());
+                                    return Mono.empty();
+                                }), settings.getConnectionsPerUpstream()))
+                .then();
+    }
+
+    private Flux<String> upstreams() {
+        Set<String> sticky = new LinkedHashSet<>();
+        properties.getStickyRouting().getRoutes().values().forEach(route -> sticky.addAll(route.getInstances()));
+        return routeLocator.getRoutes()
+                .map(Route::getUri)
+                .concatWith(Flux.fromIterable(sticky).map(URI::create))
+                .filter(uri -> uri.getHost() != null)
+                .map(uri -> httpScheme(uri.getScheme()) + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : ""))
+                .distinct();
+    }
+
+    private static String httpScheme(String scheme) {
+        if (GatewayConstants.SCHEME_WSS.equals(scheme) || GatewayConstants.SCHEME_HTTPS.equals(scheme)) {
+            return GatewayConstants.SCHEME_HTTPS;
+        }
+        return "http";
+    }
+
+    private Mono<Void> touchRedis() {
+        if (redisTemplate == null) {
+            return Mono.empty(); // edge mode
+        }
+        return redisTemplate.hasKey(GatewayConstants.REDIS_HEALTH_CHECK_KEY)
+                .timeout(settings.getRequestTimeout())
+                .onErrorResume(e -> {
+                    log.debug("Warm-up Redis call failed: {}", e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private WebClient loopbackClient() {
+        HttpClient httpClient = gatewayTransport.configure(HttpClient.create());
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .baseUrl("http://" + GatewayConstants.LOOPBACK_HOST + ":" + port)
+                .build();
+    }
+
+    /**
+     * HS256 tokens for synthetic subjects, signed with the keyring's key for gateway.jwt.secret (so with the
+     * configured secret-encoding, as the verifiers expect); valid for the whole budget. None when the
+     * secret is too short for HS256, in which case warm-up requests go out without a token.
+     */
+    private List<String> syntheticTokens() {
+        JwtKey key = keyring.find(null, TOKEN_ALGORITHM);
+        if (key == null) {
+            log.warn("gateway.jwt.secret cannot sign {}; authenticated warm-up requests are sent without a token", TOKEN_ALGORITHM);
+            return List.of();
+        }
+        long now = System.currentTimeMillis() / 1000;
+        long expires = now + settings.getTimeBudget().toSeconds() + 60;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString(("{\"alg\":\"" + TOKEN_ALGORITHM + "\",\"typ\":\"JWT\"}").getBytes(StandardCharsets.UTF_8));
+        List<String> tokens = new ArrayList<>(settings.getSyntheticUsers());
+        for (int i = 0; i < Math.max(1, settings.getSyntheticUsers()); i++) {
+            String payload = encoder.encodeToString(String.format("{\"sub\":\"%s%d\",\"iat\":%d,\"exp\":%d}",
+                    GatewayConstants.WARMUP_SUBJECT_PREFIX, i, now, expires).getBytes(StandardCharsets.UTF_8));
+            String signed = header + "." + payload;
+            tokens.add(signed + "." + encoder.encodeToString(key.sign(signed.getBytes(StandardCharsets.US_ASCII))));
+        }
+        return tokens;
+    }
+
+    private long compileMillis() {
+        return jit != null && jit.isCompilationTimeMonitoringSupported() ? jit.getTotalCompilationTime() : 0;
+    }
+
+    private void finish(String reason) {
+        this.reason = reason;
+        this.durationMillis = startedNanos == 0 ? 0 : (System.nanoTime() - startedNanos) / 1_000_000;
+        this.complete = true;
+        if (!GatewayConstants.WARMUP_DONE_DISABLED.equals(reason)) {
+            log.info("Warm-up finished ({}) after {} ms: {} requests in {} rounds, {} ms JIT compilation, {} upstream connections",
+                    reason, durationMillis, requestsSent.get(), rounds, jitMillis, connectionsOpened.get());
+        }
+    }
+}
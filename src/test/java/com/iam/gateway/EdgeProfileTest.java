@@ -0,0 +1,57 @@
+package com.iam.gateway;
+
+import com.iam.gateway.cache.IdempotencyStore;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.ratelimit.GossipRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The edge profile boots and rate-limits routed requests with no Redis configured at all
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gateway.warmup.enabled=false",
+        "gateway.rate-limit.gossip.self=127.0.0.1:0", // single node on an ephemeral port
+        "gateway.rate-limit.gossip.members=127.0.0.1:0"
+})
+@ActiveProfiles({"test", "edge"})
+class EdgeProfileTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void noRedisBeansAndRedisBackedFeaturesAreOff() {
+        assertThat(context.getBeanNamesForType(ReactiveRedisConnectionFactory.class)).isEmpty();
+        assertThat(context.getBeanNamesForType(ReactiveRedisTemplate.class)).isEmpty();
+        assertThat(context.getBean(GatewayConstants.BEAN_DEFAULT_RATE_LIMITER, RateLimiter.class))
+                .isInstanceOf(GossipRateLimiter.class);
+        assertThat(idempotencyStore.isEnabledFor(GatewayConstants.USER_SERVICE_PROTECTED_ROUTE)).isFalse();
+    }
+
+    @Test
+    void routedRequestIsRateLimitedWithoutRedis() {
+        // The upstream is not running: the breaker's fallback answers, after the gossip limiter admitted the request
+        webTestClient.get().uri("/api/v1/auth/validate")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().exists(RedisRateLimiter.REMAINING_HEADER);
+    }
+}
@@ -0,0 +1,153 @@
+package com.iam.gateway.cache;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.security.AuthorizationPolicy;
+import com.iam.gateway.tracing.TraceContext;
+import com.iam.gateway.tracing.TraceIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserContextCacheTest {
+
+    private static final String USER = "{\"roles\":[\"USER\"],\"organizationIds\":[\"org-1\"]}";
+    private static final String ADMIN = "{\"roles\":[\"ADMIN\"],\"organizationIds\":[\"org-1\"]}";
+
+    private final AtomicInteger userServiceCalls = new AtomicInteger();
+    private final ApiGatewayProperties properties = new ApiGatewayProperties();
+
+    @Test
+    void loadRunsInTheCallersTraceContext() {
+        AtomicReference<TraceContext> seenByUserService = new AtomicReference<>();
+        WebClient.Builder userService = WebClient.builder().exchangeFunction(request -> Mono.deferContextual(context -> {
+            seenByUserService.set(context.getOrDefault(TraceContext.class, null));
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"roles\":[\"USER\"],\"organizationIds\":[\"org-1\"]}")
+                    .build());
+        }));
+        UserContextCache cache = new UserContextCache(properties, userService, new AuthorizationPolicy(properties),
+                new SimpleMeterRegistry());
+        TraceContext trace = new TraceIdGenerator().newTrace("request-1");
+
+        StepVerifier.create(cache.get("alice").contextWrite(context -> context.put(TraceContext.class, trace)))
+                .assertNext(context -> assertThat(context.resolved()).isTrue())
+                .verifyComplete();
+
+        assertThat(seenByUserService.get()).isSameAs(trace);
+    }
+
+    @Test
+    void missingUserIsCachedForTheNegativeTtlOnly() throws Exception {
+        properties.getUserContext().setNegativeTtl(Duration.ofMillis(200));
+        UserContextCache cache = cache(() -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+
+        StepVerifier.create(cache.get("ghost"))
+                .assertNext(context -> assertThat(context.resolved()).isFalse())
+                .verifyComplete();
+        StepVerifier.create(cache.get("ghost"))
+                .assertNext(context -> assertThat(context.resolved()).isFalse())
+                .verifyComplete();
+        assertThat(userServiceCalls).hasValue(1);
+
+        Thread.sleep(300);
+        StepVerifier.create(cache.get("ghost")).expectNextCount(1).verifyComplete();
+        assertThat(userServiceCalls).hasValue(2);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        UserContextCache cache = cache(() -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(cache.get("alice"))
+                    .assertNext(context -> assertThat(context.resolved()).isFalse())
+                    .verifyComplete();
+        }
+        assertThat(userServiceCalls).hasValue(2);
+    }
+
+    @Test
+    void staleEntryIsServedWhileItRefreshesInTheBackground() throws Exception {
+        properties.getUserContext().setRefreshAfter(Duration.ofMillis(100));
+        AtomicReference<String> body = new AtomicReference<>(USER);
+        UserContextCache cache = cache(() -> Mono.just(json(body.get())));
+
+        StepVerifier.create(cache.get("alice"))
+                .assertNext(context -> assertThat(context.roles()).containsExactly("USER"))
+                .verifyComplete();
+
+        body.set(ADMIN); // role change in user-service
+        Thread.sleep(200);
+        StepVerifier.create(cache.get("alice"))
+                .assertNext(context -> assertThat(context.roles()).containsExactly("USER")) // no wait for the reload
+                .verifyComplete();
+
+        awaitTrue(() -> cache.get("alice").block(Duration.ofSeconds(1)).roles().equals(List.of("ADMIN")));
+        assertThat(userServiceCalls.get()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        Sinks.Empty<Void> userServiceAnswers = Sinks.empty();
+        UserContextCache cache = cache(() -> userServiceAnswers.asMono().then(Mono.fromSupplier(() -> json(USER))));
+        int callers = 32;
+
+        StepVerifier.create(Flux.range(0, callers)
+                        .parallel()
+                        .runOn(Schedulers.parallel())
+                        .flatMap(i -> cache.get("alice"))
+                        .sequential())
+                .thenAwait(Duration.ofMillis(100)) // every caller subscribed and waiting on the load
+                .then(userServiceAnswers::tryEmitEmpty)
+                .recordWith(ArrayList::new)
+                .expectNextCount(callers)
+                .consumeRecordedWith(contexts -> assertThat(contexts).allMatch(UserContext::resolved))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(userServiceCalls).hasValue(1);
+    }
+
+    private UserContextCache cache(Supplier<Mono<ClientResponse>> userService) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            userServiceCalls.incrementAndGet();
+            return userService.get();
+        });
+        return new UserContextCache(properties, builder, new AuthorizationPolicy(properties), new SimpleMeterRegistry());
+    }
+
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
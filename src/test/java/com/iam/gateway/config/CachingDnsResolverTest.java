@@ -0,0 +1,214 @@
+package com.iam.gateway.config;
+
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.codec.dns.DatagramDnsQuery;
+import io.netty.handler.codec.dns.DatagramDnsQueryDecoder;
+import io.netty.handler.codec.dns.DatagramDnsResponse;
+import io.netty.handler.codec.dns.DatagramDnsResponseEncoder;
+import io.netty.handler.codec.dns.DefaultDnsRawRecord;
+import io.netty.handler.codec.dns.DnsQuestion;
+import io.netty.handler.codec.dns.DnsRecordType;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.handler.codec.dns.DnsSection;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingDnsResolverTest {
+
+    private static final String HOST = "user-service.test";
+    private static final byte[] ADDRESS = {10, 0, 0, 7};
+
+    private final StubDnsServer dns = new StubDnsServer();
+    private final List<CachingDnsResolver> resolvers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        dns.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        resolvers.forEach(CachingDnsResolver::destroy);
+        dns.stop();
+    }
+
+    @Test
+    void cachesPositiveAnswers() throws Exception {
+        CachingDnsResolver resolver = resolver(Duration.ofSeconds(30));
+
+        assertThat(resolve(resolver, HOST)).containsExactly(InetAddress.getByAddress(HOST, ADDRESS));
+        int queries = dns.queries.get(); // A, plus AAAA where the host prefers dual stack
+
+        assertThat(resolve(resolver, HOST)).containsExactly(InetAddress.getByAddress(HOST, ADDRESS));
+        assertThat(dns.queries.get()).isEqualTo(queries);
+    }
+
+    @Test
+    void concurrentMissesShareOneQuery() throws Exception {
+        CachingDnsResolver warm = resolver(Duration.ofSeconds(30));
+        resolve(warm, "other.test");
+        int queriesPerLookup = dns.queries.getAndSet(0);
+        CachingDnsResolver resolver = resolver(Duration.ofSeconds(30));
+
+        List<Promise<List<InetAddress>>> promises = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Promise<List<InetAddress>> promise = GlobalEventExecutor.INSTANCE.newPromise();
+            resolver.resolveAll(HOST, promise);
+            promises.add(promise);
+        }
+        for (Promise<List<InetAddress>> promise : promises) {
+            assertThat(promise.get(5, TimeUnit.SECONDS)).hasSize(1);
+        }
+
+        assertThat(dns.queries.get()).isEqualTo(queriesPerLookup);
+    }
+
+    @Test
+    void servesStaleAnswerWhileDnsFails() throws Exception {
+        CachingDnsResolver resolver = resolver(Duration.ofMillis(200));
+        assertThat(resolve(resolver, HOST)).hasSize(1);
+
+        dns.failing.set(true);
+        Thread.sleep(400); // past the positive TTL, inside max-stale
+
+        assertThat(resolve(resolver, HOST)).containsExactly(InetAddress.getByAddress(HOST, ADDRESS));
+    }
+
+    @Test
+    void cachesFailures() throws Exception {
+        dns.failing.set(true);
+        CachingDnsResolver resolver = resolver(Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> resolve(resolver, HOST)).isInstanceOf(ExecutionException.class);
+        int queries = dns.queries.get();
+        assertThatThrownBy(() -> resolve(resolver, HOST))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(UnknownHostException.class);
+
+        assertThat(dns.queries.get()).isEqualTo(queries);
+    }
+
+    @Test
+    void createsNoLoopWhenDisabled() {
+        int loopsBefore = dnsLoopThreads();
+        ApiGatewayProperties properties = properties(Duration.ofSeconds(30));
+        properties.getDns().setEnabled(false);
+
+        CachingDnsResolver resolver = new CachingDnsResolver(properties, new SimpleMeterRegistry());
+        resolvers.add(resolver);
+
+        assertThat(resolver.isEnabled()).isFalse();
+        assertThat(dnsLoopThreads()).isEqualTo(loopsBefore);
+        assertThatThrownBy(resolver::addressResolverGroup).isInstanceOf(IllegalStateException.class);
+    }
+
+    private CachingDnsResolver resolver(Duration positiveTtl) {
+        CachingDnsResolver resolver = new CachingDnsResolver(properties(positiveTtl), new SimpleMeterRegistry());
+        resolvers.add(resolver);
+        return resolver;
+    }
+
+    private ApiGatewayProperties properties(Duration positiveTtl) {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        ApiGatewayProperties.Dns settings = properties.getDns();
+        settings.setPositiveTtl(positiveTtl);
+        settings.setNegativeTtl(Duration.ofSeconds(30));
+        settings.setMaxStale(Duration.ofSeconds(30));
+        settings.setQueryTimeout(Duration.ofMillis(500));
+        settings.setNameServers(List.of("127.0.0.1:" + dns.port()));
+        return properties;
+    }
+
+    private static List<InetAddress> resolve(CachingDnsResolver resolver, String host) throws Exception {
+        Promise<List<InetAddress>> promise = GlobalEventExecutor.INSTANCE.newPromise();
+        resolver.resolveAll(host, promise);
+        return promise.get(5, TimeUnit.SECONDS);
+    }
+
+    private static int dnsLoopThreads() {
+        return (int) Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.isAlive() && thread.getName().startsWith(GatewayConstants.DNS_LOOP_PREFIX))
+                .count();
+    }
+
+    /**
+     * Answers A queries for any name with ADDRESS, or SERVFAIL while failing is set
+     */
+    private static final class StubDnsServer {
+
+        private final NioEventLoopGroup group = new NioEventLoopGroup(1);
+        private final AtomicInteger queries = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private Channel channel;
+
+        void start() throws InterruptedException {
+            channel = new Bootstrap()
+                    .group(group)
+                    .channel(NioDatagramChannel.class)
+                    .handler(new ChannelInitializer<NioDatagramChannel>() {
+                        @Override
+                        protected void initChannel(NioDatagramChannel ch) {
+                            ch.pipeline().addLast(new DatagramDnsQueryDecoder(), new DatagramDnsResponseEncoder(),
+                                    new SimpleChannelInboundHandler<DatagramDnsQuery>() {
+                                        @Override
+                                        protected void channelRead0(ChannelHandlerContext ctx, DatagramDnsQuery query) {
+                                            ctx.writeAndFlush(answer(query));
+                                        }
+                                    });
+                        }
+                    })
+                    .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                    .sync()
+                    .channel();
+        }
+
+        private DatagramDnsResponse answer(DatagramDnsQuery query) {
+            queries.incrementAndGet();
+            DnsQuestion question = query.recordAt(DnsSection.QUESTION);
+            DatagramDnsResponse response = new DatagramDnsResponse(query.recipient(), query.sender(), query.id());
+            response.addRecord(DnsSection.QUESTION, question);
+            if (failing.get()) {
+                response.setCode(DnsResponseCode.SERVFAIL);
+            } else if (question.type() == DnsRecordType.A) {
+                response.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(question.name(), DnsRecordType.A, 60,
+                        Unpooled.wrappedBuffer(ADDRESS)));
+            }
+            return response;
+        }
+
+        int port() {
+            return ((InetSocketAddress) channel.localAddress()).getPort();
+        }
+
+        void stop() {
+            channel.close().syncUninterruptibly();
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.iam.gateway.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iam.common.jwt.JwtTokenProvider;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.security.FastJwtVerifier;
+import com.iam.gateway.security.InternalRequestToken;
+import com.iam.gateway.security.JwtKeyring;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchControllerTest {
+
+    private static final String OLD_SECRET = "batch-test-old-signing-secret-0123456789abcdef";
+    private static final String NEW_SECRET = "batch-test-new-signing-secret-0123456789abcdef";
+
+    @TempDir
+    Path keysDirectory;
+
+    private JwtKeyring keyring;
+
+    @AfterEach
+    void tearDown() {
+        if (keyring != null) {
+            keyring.destroy();
+        }
+    }
+
+    @Test
+    void authenticatesThroughTheKeyringAcrossKidRotation() throws Exception {
+        Path keysFile = keysDirectory.resolve("jwt-keys.json");
+        writeKeys(keysFile, "{\"keys\":[" + key("k1", OLD_SECRET) + "]}", 1_000);
+
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getJwt().setKeysFile(keysFile.toString());
+        properties.getJwt().setKeysReloadInterval(Duration.ofMillis(20));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        keyring = new JwtKeyring(properties, null, new ObjectMapper(), meterRegistry);
+        keyring.start();
+        FastJwtVerifier verifier = new FastJwtVerifier(properties, keyring, meterRegistry);
+
+        JwtTokenProvider provider = mock(JwtTokenProvider.class);
+        when(provider.validateToken(anyString())).thenReturn(Mono.error(new IllegalArgumentException("invalid token")));
+        BatchController controller = new BatchController(properties, provider, verifier, new InternalRequestToken(),
+                new ObjectMapper(), WebClient.builder(), meterRegistry);
+
+        String oldToken = token("k1", OLD_SECRET, "alice");
+        String newToken = token("k2", NEW_SECRET, "bob");
+        StepVerifier.create(controller.authenticate(oldToken)).expectNext("alice").verifyComplete();
+
+        // Publish the new key next to the old one: tokens signed with either are accepted
+        writeKeys(keysFile, "{\"keys\":[" + key("k1", OLD_SECRET) + "," + key("k2", NEW_SECRET) + "]}", 2_000);
+        awaitTrue(() -> keyring.find("k2", "HS256") != null);
+        StepVerifier.create(controller.authenticate(oldToken)).expectNext("alice").verifyComplete();
+        StepVerifier.create(controller.authenticate(newToken)).expectNext("bob").verifyComplete();
+        verify(provider, never()).validateToken(anyString());
+
+        // Retire the old key: its tokens fall through to the provider, which refuses them too
+        writeKeys(keysFile, "{\"keys\":[" + key("k2", NEW_SECRET) + "]}", 3_000);
+        awaitTrue(() -> keyring.find("k1", "HS256") == null);
+        StepVerifier.create(controller.authenticate(oldToken)).expectError(IllegalArgumentException.class).verify();
+        StepVerifier.create(controller.authenticate(newToken)).expectNext("bob").verifyComplete();
+    }
+
+    @Test
+    void identityWarmupAndAddressHeadersFromAnItemNeverReachTheGateway() throws Exception {
+        Path keysFile = keysDirectory.resolve("jwt-keys.json");
+        writeKeys(keysFile, "{\"keys\":[" + key("k1", OLD_SECRET) + "]}", 1_000);
+
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getJwt().setKeysFile(keysFile.toString());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        keyring = new JwtKeyring(properties, null, new ObjectMapper(), meterRegistry);
+        keyring.start();
+        FastJwtVerifier verifier = new FastJwtVerifier(properties, keyring, meterRegistry);
+        InternalRequestToken internalRequestToken = new InternalRequestToken();
+        BatchController controller = new BatchController(properties, mock(JwtTokenProvider.class), verifier,
+                internalRequestToken, new ObjectMapper(), WebClient.builder(), meterRegistry);
+
+        // Stands in for the gateway's own port: records what a sub-request arrives with
+        AtomicReference<HttpHeaders> received = new AtomicReference<>();
+        DisposableServer loopback = HttpServer.create()
+                .host(GatewayConstants.LOOPBACK_HOST)
+                .port(0)
+                .handle((request, response) -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    request.requestHeaders().forEach(entry -> headers.add(entry.getKey(), entry.getValue()));
+                    received.set(headers);
+                    return response.header(HttpHeaders.CONTENT_TYPE, "application/json").sendString(Mono.just("{}"));
+                })
+                .bindNow();
+        try {
+            WebServer webServer = mock(WebServer.class);
+            when(webServer.getPort()).thenReturn(loopback.port());
+            WebServerInitializedEvent event = mock(WebServerInitializedEvent.class);
+            when(event.getWebServer()).thenReturn(webServer);
+            controller.onWebServerInitialized(event);
+
+            BatchController.BatchItem item = new BatchController.BatchItem("1", "GET", "/api/v1/users/42", Map.of(
+                    GatewayConstants.HEADER_WARMUP, "true",
+                    GatewayConstants.HEADER_INTERNAL_TOKEN, "forged",
+                    GatewayConstants.HEADER_USER_ID, "victim",
+                    GatewayConstants.HEADER_CLIENT_ADDRESS, "198.51.100.99",
+                    "X-Client-Tag", "kept"), null);
+            MockServerHttpRequest caller = MockServerHttpRequest.post("/api/v1/gateway/batch")
+                    .remoteAddress(new InetSocketAddress("203.0.113.7", 51000))
+                    .build();
+            StepVerifier.create(controller.batch(
+                            GatewayConstants.JWT_TOKEN_PREFIX + token("k1", OLD_SECRET, "alice"), List.of(item), caller)
+                    .flatMapMany(response -> response.getBody()))
+                    .assertNext(result -> assertThat(result.status()).isEqualTo(HttpStatus.OK.value()))
+                    .verifyComplete();
+        } finally {
+            loopback.disposeNow();
+        }
+
+        HttpHeaders headers = received.get();
+        assertThat(headers.containsKey(GatewayConstants.HEADER_WARMUP)).isFalse();
+        assertThat(headers.get(GatewayConstants.HEADER_INTERNAL_TOKEN)).containsExactly(internalRequestToken.value());
+        assertThat(headers.get(GatewayConstants.HEADER_USER_ID)).containsExactly("alice");
+        assertThat(headers.get(GatewayConstants.HEADER_CLIENT_ADDRESS)).containsExactly("203.0.113.7");
+        assertThat(headers.getFirst("X-Client-Tag")).isEqualTo("kept");
+    }
+
+    private static String key(String kid, String secret) {
+        return "{\"kid\":\"" + kid + "\",\"algorithm\":\"HS256\",\"secret\":\"" + secret + "\"}";
+    }
+
+    private static void writeKeys(Path file, String json, long modifiedMillis) throws Exception {
+        Files.writeString(file, json);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMillis));
+    }
+
+    private static String token(String kid, String secret, String subject) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        long expires = System.currentTimeMillis() / 1000 + 300;
+        String signingInput = encoder.encodeToString(("{\"alg\":\"HS256\",\"kid\":\"" + kid + "\"}").getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(("{\"sub\":\"" + subject + "\",\"exp\":" + expires + "}").getBytes(StandardCharsets.UTF_8));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return signingInput + "." + encoder.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/v1/users/42",
+            "/api/v1/users/42?fields=name,email",
+            "/api/v1/organizations/org%201/members",
+            "/api/v1/users/me..json"
+    })
+    void routablePaths(String path) {
+        assertThat(BatchController.isRoutablePath(path)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/v1/gateway/batch",
+            "/api/v1/users/../gateway/batch",
+            "/api/v1/users/%2e%2e/gateway/batch",
+            "/api/v1/users/%2E%2E/%2E%2E/actuator",
+            "/api/v1/users/.%2e/gateway/metrics",
+            "/api/v1/users%2f..%2fgateway/batch",
+            "/api/v1/users/%252e%252e/gateway/batch",
+            "/api/v1/users/..;/gateway/batch",
+            "/api/v1/users/%5c..%5cgateway",
+            "/api/v1/users/./42",
+            "/api//v1/users/42",
+            "/api/v1/users/{id}",
+            "//evil.example.com/api/v1/users",
+            "http://evil.example.com/api/v1/users",
+            "/actuator/health",
+            "api/v1/users/42"
+    })
+    void traversalAndNonApiPathsAreRejected(String path) {
+        assertThat(BatchController.isRoutablePath(path)).isFalse();
+    }
+}
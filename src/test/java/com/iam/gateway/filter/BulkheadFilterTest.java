@@ -0,0 +1,114 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadFilterTest {
+
+    private static final String ROUTE = "bulkhead-test";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Sinks.Empty<Void> upstream = Sinks.empty();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        ApiGatewayProperties.BulkheadRoute limits = new ApiGatewayProperties.BulkheadRoute();
+        limits.setMaxConcurrent(1);
+        limits.setMaxQueue(2);
+        limits.setMaxWait(Duration.ofMillis(100));
+        properties.getBulkhead().getRoutes().put(ROUTE, limits);
+        filter = new BulkheadFilter(properties, meterRegistry).apply(new BulkheadFilter.Config().routeId(ROUTE));
+    }
+
+    @Test
+    void timedOutWaitersGiveTheirQueueSlotsBack() {
+        Disposable holder = request().subscribe(); // takes the only permit and keeps it
+
+        MockServerWebExchange first = exchange();
+        MockServerWebExchange second = exchange();
+        StepVerifier.create(Mono.when(filter(first), filter(second)))
+                .verifyComplete();
+        assertThat(first.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(queueDepth()).isZero();
+
+        // Both slots are free again: two new waiters queue instead of being rejected outright
+        MockServerWebExchange queued = exchange();
+        Disposable waiting = filter(queued).subscribe();
+        Disposable alsoWaiting = request().subscribe();
+        assertThat(queueDepth()).isEqualTo(2);
+        assertThat(queued.getResponse().getStatusCode()).isNull();
+
+        upstream.tryEmitEmpty(); // the holder finishes and the head waiter gets its permit
+        assertThat(upstreamCalls).hasValue(3);
+        assertThat(queueDepth()).isZero();
+        holder.dispose();
+        waiting.dispose();
+        alsoWaiting.dispose();
+    }
+
+    @Test
+    void cancelledWaiterBehindALiveWaiterLeavesTheQueueAtOnce() {
+        Disposable holder = request().subscribe();
+        Disposable live = request().subscribe();
+        Disposable gone = request().subscribe();
+        assertThat(queueDepth()).isEqualTo(2);
+
+        gone.dispose(); // client disconnects while queued behind the live waiter
+        assertThat(queueDepth()).isEqualTo(1);
+
+        MockServerWebExchange next = exchange();
+        Disposable waiting = filter(next).subscribe();
+        assertThat(next.getResponse().getStatusCode()).isNull();
+        assertThat(queueDepth()).isEqualTo(2);
+
+        MockServerWebExchange overflow = exchange();
+        StepVerifier.create(filter(overflow)).verifyComplete();
+        assertThat(overflow.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        holder.dispose();
+        live.dispose();
+        waiting.dispose();
+    }
+
+    private Mono<Void> request() {
+        return filter(exchange());
+    }
+
+    private Mono<Void> filter(MockServerWebExchange exchange) {
+        return filter.filter(exchange, ignored -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        });
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/me"));
+    }
+
+    private double queueDepth() {
+        return meterRegistry.get(GatewayConstants.BULKHEAD_METRIC_PREFIX + ".queue.depth")
+                .tag(GatewayConstants.METRIC_TAG_ROUTE, ROUTE)
+                .gauge()
+                .value();
+    }
+}
@@ -0,0 +1,121 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.fallback.FallbackResponseWriter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerFallbackFilterTest {
+
+    private static final String ROUTE = "breaker-test";
+    private static final int CALLS = 6;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final FallbackResponseWriter fallbackResponseWriter = mock(FallbackResponseWriter.class);
+    private DeadlineFilter deadlineFilter;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(fallbackResponseWriter.write(any(), anyString())).thenAnswer(invocation -> {
+            ServerWebExchange exchange = invocation.getArgument(0);
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return Mono.empty();
+        });
+
+        ReactiveResilience4JCircuitBreakerFactory factory = new ReactiveResilience4JCircuitBreakerFactory(
+                circuitBreakerRegistry, TimeLimiterRegistry.ofDefaults(), new Resilience4JConfigurationProperties());
+        factory.configureDefault(id -> new Resilience4JConfigBuilder(id)
+                .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                        .slidingWindowSize(4)
+                        .minimumNumberOfCalls(4)
+                        .failureRateThreshold(50)
+                        .build())
+                .timeLimiterConfig(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(10)).build())
+                .build());
+
+        deadlineFilter = new DeadlineFilter(new ApiGatewayProperties(), new SimpleMeterRegistry());
+        filter = new CircuitBreakerFallbackFilter(factory, fallbackResponseWriter, deadlineFilter)
+                .apply(new CircuitBreakerFallbackFilter.Config().name(ROUTE).service(GatewayConstants.USER_SERVICE));
+    }
+
+    @Test
+    void shortClientDeadlineIsA504AndNeverOpensTheBreaker() {
+        for (int i = 0; i < CALLS; i++) {
+            MockServerWebExchange exchange = exchange(Duration.ofMillis(30));
+            StepVerifier.create(filter.filter(exchange, upstream(Mono.never())))
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        }
+
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker(ROUTE);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        verify(fallbackResponseWriter, never()).write(any(), anyString());
+    }
+
+    @Test
+    void upstreamFailuresStillOpenTheBreaker() {
+        for (int i = 0; i < CALLS; i++) {
+            MockServerWebExchange exchange = exchange(Duration.ofSeconds(5));
+            StepVerifier.create(filter.filter(exchange, upstream(Mono.error(new IOException("connection refused")))))
+                    .verifyComplete();
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker(ROUTE).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    /**
+     * The rest of the chain as on a real route: the routing-time deadline check, then the upstream call
+     */
+    private GatewayFilterChain upstream(Mono<Void> call) {
+        GatewayFilterChain routing = exchange -> call;
+        return exchange -> deadlineFilter.enforce(exchange, routing);
+    }
+
+    private static MockServerWebExchange exchange(Duration budget) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/42"));
+        Route route = Route.async()
+                .id(ROUTE)
+                .uri("http://localhost:8081")
+                .predicate(e -> true)
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(GatewayConstants.DEADLINE_ATTR, System.nanoTime() + TimeUnit.NANOSECONDS.convert(budget));
+        return exchange;
+    }
+}
@@ -0,0 +1,106 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.security.HeavyHitterDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHitterFilterTest {
+
+    private static final String LOGIN_PATH = "/api/v1/auth/login";
+
+    private final List<String> forwardedBodies = new ArrayList<>();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getRateLimit().getHeavyHitter().setUsernameThreshold(3);
+        HeavyHitterDetector detector = new HeavyHitterDetector(properties, new SimpleMeterRegistry());
+        filter = new HeavyHitterFilter(detector, properties).apply(new HeavyHitterFilter.Config());
+    }
+
+    @Test
+    void loginBodyReachesTheServiceUnchanged() {
+        String body = "{\"username\":\"alice\",\"password\":\"secret\"}";
+        MockServerWebExchange exchange = login(body);
+
+        StepVerifier.create(filter.filter(exchange, upstream())).verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(forwardedBodies).containsExactly(body);
+    }
+
+    @Test
+    void repeatedUsernameFieldIsRefusedBeforeAnythingIsCounted() {
+        for (String body : List.of(
+                "{\"username\":\"rand1\",\"username\":\"victim\"}",
+                "{\"username\":\"rand1\",\"Username\":\"victim\"}",
+                "{\"email\":\"rand1@example.com\",\"email\":\"victim@example.com\"}",
+                "{\"username\":\"rand1\",\"user\\u006eame\":\"victim\"}")) {
+            MockServerWebExchange exchange = login(body);
+            StepVerifier.create(filter.filter(exchange, upstream())).verifyComplete();
+
+            assertThat(exchange.getResponse().getStatusCode()).as(body).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(exchange.getResponse().getHeaders().getFirst(GatewayConstants.HEADER_GATEWAY_ERROR))
+                    .isEqualTo(GatewayConstants.HEADER_VALUE_LOGIN_FIELD_REPEATED);
+        }
+        assertThat(forwardedBodies).isEmpty();
+    }
+
+    @Test
+    void escapedSpellingsOfOneUsernameShareOneCounter() {
+        List<String> spellings = List.of("victim", "vict\\u0069m", "\\u0056ICTIM", "v\\u0069ctim");
+        List<HttpStatus> statuses = new ArrayList<>();
+        for (String spelling : spellings) {
+            MockServerWebExchange exchange = login("{\"username\":\"" + spelling + "\",\"password\":\"guess\"}");
+            StepVerifier.create(filter.filter(exchange, upstream())).verifyComplete();
+            statuses.add(HttpStatus.valueOf(exchange.getResponse().getStatusCode().value()));
+        }
+
+        assertThat(statuses).containsExactly(HttpStatus.OK, HttpStatus.OK, HttpStatus.OK, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void loginUsernamesAreTheTopLevelDecodedValues() {
+        assertThat(HeavyHitterFilter.loginUsernames(
+                "{\"profile\":{\"username\":\"nested\"},\"email\":\"a\\u0040example.com\",\"username\":\"alice\"}"
+                        .getBytes(StandardCharsets.UTF_8)))
+                .containsExactly("alice", "a@example.com");
+        assertThat(HeavyHitterFilter.loginUsernames("not json".getBytes(StandardCharsets.UTF_8))).isEmpty();
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+                .doOnNext(buffer -> {
+                    forwardedBodies.add(buffer.toString(StandardCharsets.UTF_8));
+                    DataBufferUtils.release(buffer);
+                })
+                .then(Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(HttpStatus.OK)));
+    }
+
+    private static MockServerWebExchange login(String body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post(LOGIN_PATH)
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 51000))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+    }
+}
@@ -0,0 +1,194 @@
+package com.iam.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iam.gateway.cache.IdempotencyStore;
+import com.iam.gateway.cache.UserContext;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    private static final String ROUTE = "organization-service";
+    private static final String PATH = "/api/v1/organizations";
+    private static final String BODY = "{\"name\":\"acme\"}";
+    private static final byte[] CREATED = "{\"id\":\"org-1\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReactiveValueOperations<String, String> values;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        values = mock(ReactiveValueOperations.class);
+        when(values.get(anyString())).thenAnswer(invocation -> Mono.justOrEmpty(redis.get(invocation.<String>getArgument(0))));
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation ->
+                Mono.just(redis.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null));
+        when(values.set(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            redis.put(invocation.getArgument(0), invocation.getArgument(1));
+            return Mono.just(true);
+        });
+        when(values.delete(anyString())).thenAnswer(invocation -> Mono.just(redis.remove(invocation.<String>getArgument(0)) != null));
+        ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getIdempotency().setWaitTimeout(Duration.ofMillis(200));
+        IdempotencyStore store = new IdempotencyStore(properties, redisTemplate, new ObjectMapper(), meterRegistry);
+        filter = new IdempotencyFilter(store).apply(new IdempotencyFilter.Config().routeId(ROUTE));
+    }
+
+    @Test
+    void retryGetsTheStoredResponseWithItsEncoding() {
+        MockServerWebExchange original = exchange("key-1", BODY);
+        StepVerifier.create(filter.filter(original, upstream(Mono.empty()))).verifyComplete();
+        assertThat(original.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        MockServerWebExchange retry = exchange("key-1", BODY);
+        StepVerifier.create(filter.filter(retry, upstream(Mono.empty()))).verifyComplete();
+
+        assertThat(upstreamCalls).hasValue(1);
+        HttpHeaders headers = retry.getResponse().getHeaders();
+        assertThat(retry.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(headers.getFirst(GatewayConstants.HEADER_IDEMPOTENT_REPLAYED)).isEqualTo(GatewayConstants.HEADER_VALUE_TRUE);
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(headers.getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(headers.getLocation()).hasToString(PATH + "/org-1");
+        assertThat(body(retry)).isEqualTo(CREATED);
+        assertThat(outcome(GatewayConstants.IDEMPOTENCY_OUTCOME_REPLAYED)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheOriginal() {
+        Sinks.Empty<Void> upstreamDone = Sinks.empty();
+        Disposable original = filter.filter(exchange("key-1", BODY), upstream(upstreamDone.asMono())).subscribe();
+
+        MockServerWebExchange duplicate = exchange("key-1", BODY);
+        StepVerifier.create(filter.filter(duplicate, upstream(Mono.empty())))
+                .then(upstreamDone::tryEmitEmpty)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(duplicate.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(body(duplicate)).isEqualTo(CREATED);
+        assertThat(outcome(GatewayConstants.IDEMPOTENCY_OUTCOME_WAITED)).isEqualTo(1);
+        original.dispose();
+    }
+
+    @Test
+    void keyReusedForADifferentRequestIs422() {
+        StepVerifier.create(filter.filter(exchange("key-1", BODY), upstream(Mono.empty()))).verifyComplete();
+
+        MockServerWebExchange reused = exchange("key-1", "{\"name\":\"other\"}");
+        StepVerifier.create(filter.filter(reused, upstream(Mono.empty()))).verifyComplete();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(reused.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(reused.getResponse().getHeaders().getFirst(GatewayConstants.HEADER_GATEWAY_ERROR))
+                .isEqualTo(GatewayConstants.HEADER_VALUE_IDEMPOTENCY_REJECTED);
+    }
+
+    @Test
+    void duplicateOfARequestStillRunningAfterTheWaitIs409() {
+        Disposable original = filter.filter(exchange("key-1", BODY), upstream(Mono.never())).subscribe();
+
+        MockServerWebExchange duplicate = exchange("key-1", BODY);
+        StepVerifier.create(filter.filter(duplicate, upstream(Mono.empty()))).expectComplete().verify(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(duplicate.getResponse().getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(duplicate.getResponse().getHeaders().getFirst(GatewayConstants.HEADER_RETRY_AFTER)).isEqualTo("1");
+        original.dispose();
+    }
+
+    @Test
+    void redisOutagePassesTheRequestThrough() {
+        when(values.get(anyString())).thenReturn(Mono.error(new RedisConnectionFailureException("connection refused")));
+
+        MockServerWebExchange exchange = exchange("key-1", BODY);
+        StepVerifier.create(filter.filter(exchange, upstream(Mono.empty()))).verifyComplete();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(outcome(GatewayConstants.IDEMPOTENCY_OUTCOME_BYPASSED)).isEqualTo(1);
+    }
+
+    /**
+     * Creates the organization once {@code ready} completes, answering with a gzip-labelled body
+     */
+    private GatewayFilterChain upstream(Mono<Void> ready) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return ready.then(Mono.defer(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+                HttpHeaders headers = exchange.getResponse().getHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+                headers.set(HttpHeaders.LOCATION, PATH + "/org-1");
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(CREATED)));
+            }));
+        };
+    }
+
+    private static MockServerWebExchange exchange(String idempotencyKey, String body) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(PATH)
+                .header(GatewayConstants.HEADER_IDEMPOTENCY_KEY, idempotencyKey)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+        exchange.getAttributes().put(GatewayConstants.USER_CONTEXT_ATTR,
+                UserContext.of("user-1", List.of("USER"), List.of(), new long[0]));
+        return exchange;
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.counter(GatewayConstants.IDEMPOTENCY_METRIC_PREFIX + ".requests",
+                GatewayConstants.METRIC_TAG_OUTCOME, outcome).count();
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        return DataBufferUtils.join(exchange.getResponse().getBody())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block(Duration.ofSeconds(5));
+    }
+}
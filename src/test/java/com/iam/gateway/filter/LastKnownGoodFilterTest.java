@@ -0,0 +1,143 @@
+package com.iam.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iam.gateway.cache.LastKnownGoodCache;
+import com.iam.gateway.cache.StaleResponse;
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import com.iam.gateway.fallback.FallbackResponseWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LastKnownGoodFilterTest {
+
+    private static final String ROUTE = "organization-service";
+    private static final String PATH = "/api/v1/organizations/org-1";
+    private static final int MAX_ENTRY_BYTES = 64;
+    private static final byte[] JSON = "{\"id\":\"org-1\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] GZIP_BYTES = {0x1f, (byte) 0x8b, 0x08, 0x00, 0x01, 0x02, 0x03};
+
+    private LastKnownGoodCache cache;
+    private FallbackResponseWriter fallbackResponseWriter;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        ApiGatewayProperties.StaleCache staleCache = properties.getFallback().getStaleCache();
+        staleCache.setMaxEntryBytes(MAX_ENTRY_BYTES);
+        staleCache.getRoutes().put(ROUTE, Duration.ofMinutes(5));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cache = new LastKnownGoodCache(properties, meterRegistry);
+        fallbackResponseWriter = new FallbackResponseWriter(new ObjectMapper(), new MockEnvironment(), cache,
+                properties, meterRegistry);
+        filter = new LastKnownGoodFilter(cache).apply(new LastKnownGoodFilter.Config().routeId(ROUTE));
+    }
+
+    @Test
+    void successfulResponseIsStoredAndServedWhenTheCircuitOpens() {
+        MockServerWebExchange recorded = exchange(null);
+        run(recorded, upstream(JSON, headers -> { }));
+        StaleResponse stored = cache.lookup(recorded.getAttribute(GatewayConstants.STALE_CACHE_KEY_ATTR));
+        assertThat(stored).isNotNull();
+        assertThat(stored.body()).isEqualTo(JSON);
+        assertThat(stored.contentEncoding()).isNull();
+
+        MockServerWebExchange served = exchange(null);
+        run(served, fallback());
+        assertThat(served.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(served.getResponse().getHeaders().getFirst(GatewayConstants.HEADER_WARNING))
+                .isEqualTo(GatewayConstants.HEADER_VALUE_STALE_WARNING);
+        assertThat(served.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(body(served)).isEqualTo(JSON);
+    }
+
+    @Test
+    void encodedBodyKeepsItsEncodingAndOnlyReachesClientsThatAskedTheSameWay() {
+        run(exchange("gzip"), upstream(GZIP_BYTES, headers -> headers.set(HttpHeaders.CONTENT_ENCODING, "gzip")));
+
+        MockServerWebExchange sameClient = exchange("gzip");
+        run(sameClient, fallback());
+        assertThat(sameClient.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(sameClient.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(sameClient.getResponse().getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(body(sameClient)).isEqualTo(GZIP_BYTES);
+
+        MockServerWebExchange identityClient = exchange(null);
+        run(identityClient, fallback());
+        assertThat(identityClient.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void noStoreResponseIsNotRecorded() {
+        MockServerWebExchange exchange = exchange(null);
+        run(exchange, upstream(JSON, headers -> headers.setCacheControl(GatewayConstants.HEADER_VALUE_NO_STORE)));
+
+        assertThat(cache.lookup(exchange.getAttribute(GatewayConstants.STALE_CACHE_KEY_ATTR))).isNull();
+    }
+
+    @Test
+    void bodyOverTheEntryCapIsNotRecorded() {
+        byte[] large = new byte[MAX_ENTRY_BYTES + 1];
+        MockServerWebExchange exchange = exchange(null);
+        run(exchange, upstream(large, headers -> { }));
+
+        assertThat(cache.lookup(exchange.getAttribute(GatewayConstants.STALE_CACHE_KEY_ATTR))).isNull();
+        assertThat(body(exchange)).hasSize(large.length); // still streamed to the client in full
+    }
+
+    private void run(MockServerWebExchange exchange, GatewayFilterChain chain) {
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+    }
+
+    private static GatewayFilterChain upstream(byte[] body, Consumer<HttpHeaders> headers) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            headers.accept(exchange.getResponse().getHeaders());
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        };
+    }
+
+    private GatewayFilterChain fallback() {
+        return exchange -> fallbackResponseWriter.write(exchange, GatewayConstants.ORGANIZATION_SERVICE);
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(PATH)
+                .header(GatewayConstants.HEADER_USER_ID, "user-1");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        return DataBufferUtils.join(exchange.getResponse().getBody())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,76 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecomputedCorsWebFilterTest {
+
+    private static final String ORIGIN = "https://app.example.com";
+
+    @Test
+    void patchPreflightIsAllowedByDefault() {
+        MockServerWebExchange exchange = preflight(HttpMethod.PATCH);
+        AtomicBoolean reachedChain = new AtomicBoolean();
+
+        StepVerifier.create(new PrecomputedCorsWebFilter(new ApiGatewayProperties()).filter(exchange, chain(reachedChain)))
+                .verifyComplete();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(headers.getAccessControlAllowOrigin()).isEqualTo(ORIGIN);
+        assertThat(headers.getAccessControlAllowMethods()).contains(HttpMethod.PATCH);
+        assertThat(headers.getAccessControlAllowHeaders()).containsExactly("Idempotency-Key");
+        assertThat(reachedChain).isFalse();
+    }
+
+    @Test
+    void wildcardMethodsEchoTheRequestedMethod() {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getCors().setAllowedMethods(new String[]{"*"});
+        MockServerWebExchange exchange = preflight(HttpMethod.PATCH);
+
+        StepVerifier.create(new PrecomputedCorsWebFilter(properties).filter(exchange, chain(new AtomicBoolean())))
+                .verifyComplete();
+
+        assertThat(exchange.getResponse().getHeaders().getAccessControlAllowMethods()).containsExactly(HttpMethod.PATCH);
+    }
+
+    @Test
+    void preflightFromDisallowedOriginIsRefused() {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getCors().setAllowedOrigins("https://*.example.org");
+        MockServerWebExchange exchange = preflight(HttpMethod.PATCH);
+
+        StepVerifier.create(new PrecomputedCorsWebFilter(properties).filter(exchange, chain(new AtomicBoolean())))
+                .verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(exchange.getResponse().getHeaders().getAccessControlAllowOrigin()).isNull();
+    }
+
+    private static MockServerWebExchange preflight(HttpMethod method) {
+        return MockServerWebExchange.from(MockServerHttpRequest.options("https://gateway.example.com/api/v1/users/42")
+                .header(HttpHeaders.ORIGIN, ORIGIN)
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, method.name())
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "Idempotency-Key"));
+    }
+
+    private static WebFilterChain chain(AtomicBoolean reached) {
+        return exchange -> {
+            reached.set(true);
+            return Mono.empty();
+        };
+    }
+}
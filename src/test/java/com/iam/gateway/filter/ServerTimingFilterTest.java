@@ -0,0 +1,131 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private static final String DEBUG_HEADER = "X-Debug-Timing";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void disabledModeLeavesRouteFiltersAndTheChainUntouched() {
+        ServerTimingFilter serverTimingFilter = serverTimingFilter(false);
+        GatewayFilter jwt = (exchange, chain) -> chain.filter(exchange);
+
+        assertThat(serverTimingFilter.timed(GatewayConstants.STAGE_JWT, jwt)).isSameAs(jwt);
+
+        MockServerWebExchange exchange = exchange(true);
+        StepVerifier.create(serverTimingFilter.filter(exchange, route(serverTimingFilter, jwt))).verifyComplete();
+        assertThat(exchange.getAttributes()).doesNotContainKey(GatewayConstants.SERVER_TIMING_ATTR);
+        assertThat(exchange.getResponse().getHeaders().containsKey(GatewayConstants.HEADER_SERVER_TIMING)).isFalse();
+        assertThat(meterRegistry.find(GatewayConstants.SERVER_TIMING_METRIC).timers()).isEmpty();
+    }
+
+    @Test
+    void routedRequestReportsEveryStageInChainOrder() {
+        ServerTimingFilter serverTimingFilter = serverTimingFilter(true);
+        GatewayFilter jwt = serverTimingFilter.timed(GatewayConstants.STAGE_JWT, (exchange, chain) -> chain.filter(exchange));
+        GatewayFilter authz = serverTimingFilter.timed(GatewayConstants.STAGE_AUTHORIZATION, (exchange, chain) -> chain.filter(exchange));
+
+        MockServerWebExchange exchange = exchange(true);
+        GatewayFilterChain chain = route(serverTimingFilter, jwt, authz);
+        StepVerifier.create(serverTimingFilter.filter(exchange, chain)).verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getFirst(GatewayConstants.HEADER_SERVER_TIMING))
+                .matches("jwt;dur=\\d+\\.\\d{3}, authz;dur=\\d+\\.\\d{3}, upstream;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}");
+        for (String stage : List.of(GatewayConstants.STAGE_JWT, GatewayConstants.STAGE_AUTHORIZATION,
+                GatewayConstants.STAGE_UPSTREAM, GatewayConstants.STAGE_TOTAL)) {
+            assertThat(stageCount(stage)).as(stage).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void jwtRejectionClosesItsStageWithoutAnUpstream() {
+        ServerTimingFilter serverTimingFilter = serverTimingFilter(true);
+        GatewayFilter jwt = serverTimingFilter.timed(GatewayConstants.STAGE_JWT, (exchange, chain) -> {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        });
+        GatewayFilter authz = serverTimingFilter.timed(GatewayConstants.STAGE_AUTHORIZATION, (exchange, chain) -> chain.filter(exchange));
+
+        MockServerWebExchange exchange = exchange(true);
+        StepVerifier.create(serverTimingFilter.filter(exchange, route(serverTimingFilter, jwt, authz))).verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getFirst(GatewayConstants.HEADER_SERVER_TIMING))
+                .matches("jwt;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}");
+        assertThat(stageCount(GatewayConstants.STAGE_JWT)).isEqualTo(1);
+        assertThat(stageCount(GatewayConstants.STAGE_AUTHORIZATION)).isZero();
+        assertThat(stageCount(GatewayConstants.STAGE_UPSTREAM)).isZero();
+    }
+
+    @Test
+    void unsampledRequestFeedsTheHistogramsWithoutTheHeader() {
+        ServerTimingFilter serverTimingFilter = serverTimingFilter(true);
+        GatewayFilter jwt = serverTimingFilter.timed(GatewayConstants.STAGE_JWT, (exchange, chain) -> chain.filter(exchange));
+
+        MockServerWebExchange exchange = exchange(false);
+        StepVerifier.create(serverTimingFilter.filter(exchange, route(serverTimingFilter, jwt))).verifyComplete();
+
+        assertThat(exchange.getResponse().getHeaders().containsKey(GatewayConstants.HEADER_SERVER_TIMING)).isFalse();
+        assertThat(stageCount(GatewayConstants.STAGE_JWT)).isEqualTo(1);
+        assertThat(stageCount(GatewayConstants.STAGE_TOTAL)).isEqualTo(1);
+    }
+
+    private ServerTimingFilter serverTimingFilter(boolean enabled) {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getServerTiming().setEnabled(enabled);
+        properties.getServerTiming().setDebugHeader(DEBUG_HEADER);
+        return new ServerTimingFilter(properties, meterRegistry);
+    }
+
+    /**
+     * The route filters in order, then UpstreamTimingFilter's mark and an upstream answering 200
+     */
+    private static GatewayFilterChain route(ServerTimingFilter serverTimingFilter, GatewayFilter... filters) {
+        GatewayFilterChain chain = exchange -> {
+            serverTimingFilter.markUpstream(exchange);
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            byte[] body = "{\"id\":\"42\"}".getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        };
+        for (int i = filters.length - 1; i >= 0; i--) {
+            GatewayFilter filter = filters[i];
+            GatewayFilterChain next = chain;
+            chain = exchange -> filter.filter(exchange, next);
+        }
+        return chain;
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.find(GatewayConstants.SERVER_TIMING_METRIC)
+                .tag(GatewayConstants.METRIC_TAG_STAGE, stage)
+                .timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private static MockServerWebExchange exchange(boolean debug) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/users/42");
+        if (debug) {
+            request.header(DEBUG_HEADER, "1");
+        }
+        return MockServerWebExchange.from(request);
+    }
+}
@@ -0,0 +1,53 @@
+package com.iam.gateway.filter;
+
+import com.iam.gateway.constants.GatewayConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingsTest {
+
+    @Test
+    void headerValueIsMillisecondsWithThreeZeroPaddedDecimals() {
+        ServerTimings timings = new ServerTimings(0, true);
+        timings.enter(GatewayConstants.STAGE_JWT, 0);
+        timings.exit(GatewayConstants.STAGE_JWT, 412_345);
+        timings.enter(GatewayConstants.STAGE_RATE_LIMIT, 500_000);
+        timings.exit(GatewayConstants.STAGE_RATE_LIMIT, 505_999); // 5 us
+        timings.enter(GatewayConstants.STAGE_AUTHORIZATION, 600_000);
+        timings.exit(GatewayConstants.STAGE_AUTHORIZATION, 650_000); // 50 us
+        timings.upstreamStarted(1_088_000);
+        timings.complete(13_118_999, GatewayConstants.STAGE_UPSTREAM, GatewayConstants.STAGE_TOTAL);
+
+        assertThat(timings.headerValue())
+                .isEqualTo("jwt;dur=0.412, rate-limit;dur=0.005, authz;dur=0.050, upstream;dur=12.030, total;dur=13.118");
+    }
+
+    @Test
+    void stageThatRejectsEarlyIsClosedWhenTheResponseCommits() {
+        ServerTimings timings = new ServerTimings(0, true);
+        timings.enter(GatewayConstants.STAGE_JWT, 100_000);
+        // JWT answers 401 itself and never hands off to the rest of the chain
+        timings.complete(2_100_000, GatewayConstants.STAGE_UPSTREAM, GatewayConstants.STAGE_TOTAL);
+
+        assertThat(timings.size()).isEqualTo(2);
+        assertThat(timings.stage(0)).isEqualTo(GatewayConstants.STAGE_JWT);
+        assertThat(timings.durationNanos(0)).isEqualTo(2_000_000);
+        assertThat(timings.stage(1)).isEqualTo(GatewayConstants.STAGE_TOTAL);
+        assertThat(timings.durationNanos(1)).isEqualTo(2_100_000);
+        assertThat(timings.headerValue()).isEqualTo("jwt;dur=2.000, total;dur=2.100");
+    }
+
+    @Test
+    void exitOfAStageThatIsNotOpenIsIgnored() {
+        ServerTimings timings = new ServerTimings(0, false);
+        timings.enter(GatewayConstants.STAGE_JWT, 0);
+        timings.exit(GatewayConstants.STAGE_AUTHORIZATION, 1_000);
+        timings.exit(GatewayConstants.STAGE_JWT, 2_000);
+        timings.exit(GatewayConstants.STAGE_JWT, 3_000);
+
+        assertThat(timings.size()).isEqualTo(1);
+        assertThat(timings.durationNanos(0)).isEqualTo(2_000);
+        assertThat(timings.isReportHeader()).isFalse();
+    }
+}
@@ -0,0 +1,114 @@
+package com.iam.gateway.monitoring;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.config.GatewayTransport;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventLoopLagMonitorTest {
+
+    private static final String PREFIX = "test-loop";
+    private static final String LOOP = PREFIX + "-0";
+    private static final Duration STALL_THRESHOLD = Duration.ofMillis(50); // as in application-test.yml
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DefaultEventLoopGroup group;
+    private EventLoopLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        group = new DefaultEventLoopGroup(1);
+        GatewayTransport gatewayTransport = mock(GatewayTransport.class);
+        when(gatewayTransport.workerGroups()).thenReturn(Map.of(PREFIX, group));
+        when(gatewayTransport.getTransportName()).thenReturn("nio");
+
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        ApiGatewayProperties.EventLoopMonitor settings = properties.getEventLoopMonitor();
+        settings.setProbeInterval(Duration.ofMillis(10));
+        settings.setStallThreshold(STALL_THRESHOLD);
+        settings.setBlockingDetection(true);
+        monitor = new EventLoopLagMonitor(properties, gatewayTransport, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+        group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void loopBlockedBeforeItsFirstProbeIsReportedWithItsStack() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        monitor.start();
+        group.execute(() -> awaitQuietly(release)); // ahead of the first probe, which is one interval away
+
+        try {
+            awaitTrue(() -> !monitor.recentBlockingEvents().isEmpty());
+            BlockingEvent event = monitor.recentBlockingEvents().get(0);
+            assertThat(event.loop()).isEqualTo(LOOP);
+            assertThat(event.stalledMillis()).isGreaterThanOrEqualTo(STALL_THRESHOLD.toMillis());
+            assertThat(event.stackTrace()).anyMatch(frame -> frame.contains("awaitQuietly"));
+            assertThat(lagGauge()).isGreaterThanOrEqualTo(STALL_THRESHOLD.toMillis());
+            assertThat(monitor.currentMaxLagNanos()).isGreaterThanOrEqualTo(STALL_THRESHOLD.toNanos());
+        } finally {
+            release.countDown();
+        }
+
+        awaitTrue(() -> lagGauge() < STALL_THRESHOLD.toMillis());
+        assertThat(monitor.recentBlockingEvents()).hasSize(1); // one report per stall
+        assertThat(meterRegistry.get(GatewayConstants.EVENT_LOOP_METRIC_PREFIX + ".stalls")
+                .tag(GatewayConstants.METRIC_TAG_LOOP, LOOP).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void idleLoopRecordsProbesWithoutStalls() throws Exception {
+        monitor.start();
+
+        awaitTrue(() -> meterRegistry.get(GatewayConstants.EVENT_LOOP_METRIC_PREFIX + ".lag")
+                .tag(GatewayConstants.METRIC_TAG_LOOP, LOOP).timer().count() >= 5);
+        assertThat(lagGauge()).isLessThan(STALL_THRESHOLD.toMillis());
+        assertThat(monitor.recentBlockingEvents()).isEmpty();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> loop = (Map<String, Object>) ((Map<String, Object>) monitor.snapshot()
+                .get(GatewayConstants.LOOPS_KEY)).get(LOOP);
+        assertThat(loop.get(GatewayConstants.STALLS_KEY)).isEqualTo(0L);
+        assertThat((long) loop.get(GatewayConstants.PROBES_KEY)).isGreaterThanOrEqualTo(5);
+    }
+
+    private double lagGauge() {
+        Gauge gauge = meterRegistry.get(GatewayConstants.EVENT_LOOP_METRIC_PREFIX + ".lag.current")
+                .tag(GatewayConstants.METRIC_TAG_LOOP, LOOP).gauge();
+        return gauge.value();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.iam.gateway.ratelimit;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.DatagramChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GossipCounterStoreTest {
+
+    private static final String KEY = "default|alice";
+    private static final long WINDOW = 1;
+    private static final Duration INTERVAL = Duration.ofMillis(10);
+    private static final int NODES = 4;
+    private static final int THREADS_PER_NODE = 4;
+    private static final int ADDS_PER_THREAD = 500;
+
+    private final List<GossipCounterStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (GossipCounterStore store : stores) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void restartedNodeGetsItsCountsBackBeforeItServes() throws Exception {
+        List<String> members = List.of("127.0.0.1:" + freePort(), "127.0.0.1:" + freePort());
+        GossipCounterStore first = start(members, 0);
+        GossipCounterStore second = start(members, 1);
+
+        second.add(KEY, WINDOW, Long.MAX_VALUE, 5);
+        awaitTrue(() -> first.value(KEY, WINDOW) == 5);
+        second.destroy();
+        stores.remove(second);
+
+        // Full syncs are far apart, so only the startup seed can restore the count
+        GossipCounterStore restarted = start(members, 1);
+        assertThat(restarted.value(KEY, WINDOW)).isEqualTo(5);
+
+        restarted.add(KEY, WINDOW, Long.MAX_VALUE, 1);
+        awaitTrue(() -> first.value(KEY, WINDOW) == 6);
+    }
+
+    @Test
+    void firstNodeOfAClusterStartsWithoutWaitingForever() throws Exception {
+        List<String> members = List.of("127.0.0.1:" + freePort(), "127.0.0.1:" + freePort());
+        long started = System.nanoTime();
+        GossipCounterStore alone = start(members, 0);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(alone.value(KEY, WINDOW)).isZero();
+    }
+
+    @Test
+    void concurrentAddsOnEveryNodeConvergeWithinAnIntervalAndExactlyAfterAFullSync() throws Exception {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            members.add("127.0.0.1:" + freePort());
+        }
+        int fullSyncRounds = 100; // a second apart, so the first check is normally down to the deltas
+        List<GossipCounterStore> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(start(members, i, fullSyncRounds));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            for (GossipCounterStore node : nodes) {
+                for (int t = 0; t < THREADS_PER_NODE; t++) {
+                    executor.execute(() -> {
+                        awaitQuietly(go);
+                        for (int n = 0; n < ADDS_PER_THREAD; n++) {
+                            node.add(KEY, WINDOW, Long.MAX_VALUE, 1);
+                        }
+                    });
+                }
+            }
+            go.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        long total = (long) NODES * THREADS_PER_NODE * ADDS_PER_THREAD;
+
+        // Without loss, deltas reach every peer within one interval plus delivery; allow scheduler jitter
+        Thread.sleep(INTERVAL.toMillis() * 5);
+        assertThat(divergence(nodes)).as("max divergence one interval after the last add").isZero();
+        assertThat(nodes.get(0).value(KEY, WINDOW)).isEqualTo(total);
+
+        long[] fullSyncAt = nodes.stream().mapToLong(node -> (rounds(node) / fullSyncRounds + 1) * fullSyncRounds).toArray();
+        awaitTrue(() -> {
+            for (int i = 0; i < NODES; i++) {
+                if (rounds(nodes.get(i)) <= fullSyncAt[i]) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        assertThat(divergence(nodes)).as("max divergence after a full sync").isZero();
+        for (GossipCounterStore node : nodes) {
+            assertThat(node.value(KEY, WINDOW)).isEqualTo(total); // full state merged by max, never double-counted
+        }
+    }
+
+    @Test
+    void concurrentChecksOnOneNodeNeverAdmitPastTheLimit() throws Exception {
+        GossipCounterStore node = start(List.of("127.0.0.1:" + freePort()), 0);
+        long limit = 100;
+        AtomicLong admitted = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    awaitQuietly(go);
+                    for (int n = 0; n < 50; n++) {
+                        if (node.addIfWithin(KEY, WINDOW, Long.MAX_VALUE, 1, limit) >= 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            go.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admitted).hasValue(limit);
+        assertThat(node.value(KEY, WINDOW)).isEqualTo(limit);
+        assertThat(node.addIfWithin(KEY, WINDOW, Long.MAX_VALUE, 1, limit)).isEqualTo(-1);
+    }
+
+    private GossipCounterStore start(List<String> members, int self) throws IOException {
+        return start(members, self, 100_000); // full syncs far apart
+    }
+
+    private GossipCounterStore start(List<String> members, int self, int fullSyncRounds) throws IOException {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getRateLimit().setMode(ApiGatewayProperties.RateLimitMode.GOSSIP);
+        ApiGatewayProperties.Gossip gossip = properties.getRateLimit().getGossip();
+        gossip.setMembers(members);
+        gossip.setSelf(members.get(self));
+        gossip.setBindHost("127.0.0.1");
+        gossip.setInterval(INTERVAL);
+        gossip.setFullSyncRounds(fullSyncRounds);
+        gossip.setSeedTimeout(Duration.ofMillis(500));
+
+        GossipCounterStore store = new GossipCounterStore(properties, new SimpleMeterRegistry());
+        store.start();
+        stores.add(store);
+        return store;
+    }
+
+    private static long divergence(List<GossipCounterStore> nodes) {
+        long[] values = nodes.stream().mapToLong(node -> node.value(KEY, WINDOW)).toArray();
+        return LongStream.of(values).max().orElse(0) - LongStream.of(values).min().orElse(0);
+    }
+
+    private static long rounds(GossipCounterStore node) {
+        Map<String, Object> snapshot = node.snapshot();
+        return (long) snapshot.get(GatewayConstants.ROUNDS_KEY);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.bind(new InetSocketAddress("127.0.0.1", 0));
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.iam.gateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedLoadHashRingTest {
+
+    private static final int VIRTUAL_NODES = 160;
+
+    @Test
+    void spreadsKeysEvenlyAcrossInstances() {
+        int instanceCount = 100;
+        int keys = 200_000;
+        BoundedLoadHashRing ring = new BoundedLoadHashRing(instances(instanceCount), VIRTUAL_NODES, 1.25);
+
+        int[] counts = new int[instanceCount];
+        for (int i = 0; i < keys; i++) {
+            counts[ring.primary("user-" + i)]++;
+        }
+
+        double mean = (double) keys / instanceCount;
+        int max = 0;
+        int min = Integer.MAX_VALUE;
+        for (int count : counts) {
+            max = Math.max(max, count);
+            min = Math.min(min, count);
+        }
+        assertThat(max / mean).isLessThan(1.4);
+        assertThat(min / mean).isGreaterThan(0.6);
+    }
+
+    @Test
+    void addingAnInstanceOnlyMovesKeysToIt() {
+        int keys = 100_000;
+        List<URI> before = instances(10);
+        List<URI> after = instances(11);
+        BoundedLoadHashRing original = new BoundedLoadHashRing(before, VIRTUAL_NODES, 1.25);
+        BoundedLoadHashRing grown = new BoundedLoadHashRing(after, VIRTUAL_NODES, 1.25);
+
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            String key = "user-" + i;
+            URI was = original.instance(original.primary(key));
+            URI is = grown.instance(grown.primary(key));
+            if (!was.equals(is)) {
+                assertThat(is).isEqualTo(after.get(10));
+                moved++;
+            }
+        }
+        // Ideal is 1/11 of the keys
+        assertThat((double) moved / keys).isBetween(0.05, 0.14);
+    }
+
+    @Test
+    void capsInFlightLoadPerInstance() {
+        int instanceCount = 8;
+        BoundedLoadHashRing ring = new BoundedLoadHashRing(instances(instanceCount), VIRTUAL_NODES, 1.25);
+
+        // Every request hashes to the same instance; the cap pushes the overflow to its successors
+        int requests = 400;
+        for (int i = 0; i < requests; i++) {
+            ring.acquire("hot-user");
+        }
+
+        assertThat(ring.totalInFlight()).isEqualTo(requests);
+        assertThat(ring.maxInFlight()).isLessThanOrEqualTo((int) Math.ceil(1.25 * requests / instanceCount));
+    }
+
+    @Test
+    void releaseReturnsCapacity() {
+        BoundedLoadHashRing ring = new BoundedLoadHashRing(instances(4), VIRTUAL_NODES, 1.25);
+
+        int instance = ring.acquire("user-1");
+        assertThat(instance).isEqualTo(ring.primary("user-1"));
+        ring.release(instance);
+
+        assertThat(ring.totalInFlight()).isZero();
+        assertThat(ring.maxInFlight()).isZero();
+    }
+
+    private static List<URI> instances(int count) {
+        List<URI> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(URI.create("http://10.0." + (i / 250) + "." + (i % 250) + ":8080"));
+        }
+        return instances;
+    }
+}
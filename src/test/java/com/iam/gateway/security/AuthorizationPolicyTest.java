@@ -0,0 +1,99 @@
+package com.iam.gateway.security;
+
+import com.iam.gateway.cache.UserContext;
+import com.iam.gateway.config.ApiGatewayProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorizationPolicyTest {
+
+    private static final String ORGANIZATIONS_PATH = "/api/v1/organizations/";
+
+    @Test
+    void unmappedRoleGrantsNothingEvenWhenNamedLikeAPermission() {
+        AuthorizationPolicy policy = policy();
+
+        UserContext user = context(List.of("admin:access", "org:read"), List.of());
+
+        assertThat(user.permissionBits()).containsOnly(0L);
+        assertThat(policy.isAllowed(policy.ruleFor("admin-routes"), user, "/api/v1/admin/users")).isFalse();
+        assertThat(policy.isAllowed(policy.ruleFor("organization-service"), user, ORGANIZATIONS_PATH)).isFalse();
+    }
+
+    @Test
+    void mappedRoleGrantsItsPermissionsButNotItsOwnName() {
+        ApiGatewayProperties properties = properties();
+        properties.getAuthorization().getRules().add(rule("role-named-route", "ADMIN"));
+        AuthorizationPolicy policy = new AuthorizationPolicy(properties);
+
+        UserContext admin = context(policy, List.of("ADMIN"), List.of());
+
+        assertThat(policy.isAllowed(policy.ruleFor("admin-routes"), admin, "/api/v1/admin/users")).isTrue();
+        assertThat(policy.isAllowed(policy.ruleFor("role-named-route"), admin, "/")).isFalse();
+    }
+
+    @Test
+    void tenantRuleRequiresMembershipUnlessBypassed() {
+        AuthorizationPolicy policy = policy();
+        AuthorizationPolicy.CompiledRule rule = policy.ruleFor("organization-service");
+
+        UserContext member = context(policy, List.of("USER"), List.of("org-1"));
+        UserContext admin = context(policy, List.of("ADMIN"), List.of());
+
+        assertThat(policy.isAllowed(rule, member, ORGANIZATIONS_PATH + "org-1/members")).isTrue();
+        assertThat(policy.isAllowed(rule, member, ORGANIZATIONS_PATH + "org-2/members")).isFalse();
+        assertThat(policy.isAllowed(rule, member, ORGANIZATIONS_PATH + "org-10")).isFalse();
+        assertThat(policy.isAllowed(rule, admin, ORGANIZATIONS_PATH + "org-2/members")).isTrue();
+    }
+
+    @Test
+    void emptyTenantSegmentIsDenied() {
+        AuthorizationPolicy policy = policy();
+        AuthorizationPolicy.CompiledRule rule = policy.ruleFor("organization-service");
+
+        UserContext member = context(policy, List.of("USER"), List.of("org-1"));
+
+        assertThat(policy.isAllowed(rule, member, ORGANIZATIONS_PATH)).isTrue();
+        assertThat(policy.isAllowed(rule, member, ORGANIZATIONS_PATH + "/victimOrg/members")).isFalse();
+        assertThat(policy.isAllowed(rule, member, ORGANIZATIONS_PATH + "/org-1/members")).isFalse();
+    }
+
+    private static AuthorizationPolicy policy() {
+        return new AuthorizationPolicy(properties());
+    }
+
+    private static UserContext context(List<String> roles, List<String> organizationIds) {
+        return context(policy(), roles, organizationIds);
+    }
+
+    private static UserContext context(AuthorizationPolicy policy, List<String> roles, List<String> organizationIds) {
+        return UserContext.of("user-1", roles, organizationIds, policy.compileRoles(roles));
+    }
+
+    // Same shape as the defaults in application.yml
+    private static ApiGatewayProperties properties() {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        ApiGatewayProperties.Authorization authorization = properties.getAuthorization();
+        authorization.getRolePermissions().put("ADMIN", List.of("admin:access", "org:read", "org:write"));
+        authorization.getRolePermissions().put("USER", List.of("org:read"));
+        authorization.getRules().add(rule("admin-routes", "admin:access"));
+
+        ApiGatewayProperties.Authorization.Rule organizations = new ApiGatewayProperties.Authorization.Rule();
+        organizations.setRouteId("organization-service");
+        organizations.getAnyOf().add("org:read");
+        organizations.setTenantPathPrefix(ORGANIZATIONS_PATH);
+        organizations.getTenantBypass().add("admin:access");
+        authorization.getRules().add(organizations);
+        return properties;
+    }
+
+    private static ApiGatewayProperties.Authorization.Rule rule(String routeId, String allOf) {
+        ApiGatewayProperties.Authorization.Rule rule = new ApiGatewayProperties.Authorization.Rule();
+        rule.setRouteId(routeId);
+        rule.getAllOf().add(allOf);
+        return rule;
+    }
+}
@@ -0,0 +1,40 @@
+package com.iam.gateway.security;
+
+import com.iam.gateway.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimatesNeverUndercountEvenWhenCrowded() {
+        CountMinSketch sketch = new CountMinSketch(4, 64); // far more keys than columns: collisions guaranteed
+        for (int key = 0; key < 500; key++) {
+            for (int i = 0; i <= key % 7; i++) {
+                sketch.add(Hashing.hash("10.0.0." + key, 1L));
+            }
+        }
+
+        for (int key = 0; key < 500; key++) {
+            assertThat(sketch.estimate(Hashing.hash("10.0.0." + key, 1L))).isGreaterThanOrEqualTo(key % 7 + 1);
+        }
+    }
+
+    @Test
+    void addReturnsTheUpdatedEstimateAndDecayHalvesIt() {
+        CountMinSketch sketch = new CountMinSketch(4, 16384);
+        long hash = Hashing.hash("alice", 1L);
+
+        int estimate = 0;
+        for (int i = 0; i < 40; i++) {
+            estimate = sketch.add(hash);
+        }
+        assertThat(estimate).isEqualTo(40);
+        assertThat(sketch.estimate(Hashing.hash("bob", 1L))).isZero();
+
+        sketch.decay();
+        assertThat(sketch.estimate(hash)).isEqualTo(20);
+        assertThat(sketch.sizeInBytes()).isEqualTo(4L * 16384 * Integer.BYTES);
+    }
+}
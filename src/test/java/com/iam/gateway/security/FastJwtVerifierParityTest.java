@@ -0,0 +1,156 @@
+package com.iam.gateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iam.gateway.config.ApiGatewayProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The fast path must accept exactly the tokens jjwt (which JwtTokenProvider is built on) accepts, with the
+ * same subject, for keys derived the way the provider derives them: Keys.hmacShaKeyFor(secret bytes)
+ */
+class FastJwtVerifierParityTest {
+
+    private static final String SECRET = "parity-test-secret-that-is-long-enough-for-every-hmac-algorithm!";
+    private static final long NOW = 1_760_000_000_000L;
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    @ParameterizedTest
+    @EnumSource(value = SignatureAlgorithm.class, names = {"HS256", "HS384", "HS512"})
+    void agreesOnProviderIssuedTokens(SignatureAlgorithm algorithm) throws Exception {
+        FastJwtVerifier verifier = verifier(SECRET, "utf-8");
+        List<String> tokens = new ArrayList<>();
+        tokens.add(Jwts.builder().setSubject("alice").setExpiration(new Date(NOW + 60_000)).signWith(key, algorithm).compact());
+        tokens.add(Jwts.builder().setSubject("bob").setExpiration(new Date(NOW - 60_000)).signWith(key, algorithm).compact());
+        tokens.add(Jwts.builder().setSubject("carol").setNotBefore(new Date(NOW + 60_000)).signWith(key, algorithm).compact());
+        tokens.add(Jwts.builder().setSubject("dave").claim("roles", List.of("a", "b")).signWith(key, algorithm).compact());
+        tokens.add(Jwts.builder().setSubject("erin").setExpiration(new Date(NOW + 60_000))
+                .signWith(Keys.hmacShaKeyFor(("other-" + SECRET).getBytes(StandardCharsets.UTF_8)), algorithm).compact());
+
+        String valid = tokens.get(0);
+        tokens.add(tamperSignature(valid));
+        tokens.add(tamperPayload(valid, "{\"sub\":\"mallory\",\"exp\":" + (NOW / 1000 + 60) + "}"));
+
+        for (String token : tokens) {
+            assertParity(verifier, token);
+        }
+    }
+
+    @Test
+    void honoursClaimNamesWrittenWithEscapes() throws Exception {
+        FastJwtVerifier verifier = verifier(SECRET, "utf-8");
+        long expired = NOW / 1000 - 60;
+
+        String escapedExp = sign("{\"alg\":\"HS256\"}", "{\"sub\":\"alice\",\"\\u0065xp\":" + expired + "}", SECRET);
+        String escapedSub = sign("{\"alg\":\"HS256\"}", "{\"\\u0073ub\":\"alice\",\"exp\":" + (NOW / 1000 + 60) + "}", SECRET);
+
+        assertThat(verifier.verify(escapedExp, NOW).status()).isEqualTo(JwtVerification.Status.EXPIRED);
+        assertParity(verifier, escapedExp);
+        assertThat(verifier.verify(escapedSub, NOW).subject()).isEqualTo("alice");
+        assertParity(verifier, escapedSub);
+    }
+
+    @Test
+    void rejectsInvalidEscapesLikeAFullParser() throws Exception {
+        FastJwtVerifier verifier = verifier(SECRET, "utf-8");
+        String token = sign("{\"alg\":\"HS256\"}", "{\"sub\":\"alice\",\"note\":\"\\q\"}", SECRET);
+
+        assertThat(verifier.verify(token, NOW).status()).isEqualTo(JwtVerification.Status.MALFORMED);
+        assertParity(verifier, token);
+    }
+
+    @Test
+    void leavesSecretsTooShortForTheAlgorithmToTheProvider() throws Exception {
+        String weak = "dev-secret-key"; // 14 bytes: jjwt refuses it for every HMAC algorithm
+        FastJwtVerifier verifier = verifier(weak, "utf-8");
+        String token = sign("{\"alg\":\"HS256\"}", "{\"sub\":\"alice\"}", weak);
+
+        assertThat(verifier.verify(token, NOW).status()).isEqualTo(JwtVerification.Status.UNSUPPORTED);
+    }
+
+    @Test
+    void derivesBase64SecretsLikeTheProvider() throws Exception {
+        byte[] raw = new byte[48];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = (byte) (i * 7);
+        }
+        String encoded = Base64.getEncoder().encodeToString(raw);
+        String token = Jwts.builder().setSubject("alice").signWith(Keys.hmacShaKeyFor(raw), SignatureAlgorithm.HS256).compact();
+
+        assertThat(verifier(encoded, "base64").verify(token, NOW).subject()).isEqualTo("alice");
+        assertThat(verifier(encoded, "utf-8").verify(token, NOW).status()).isEqualTo(JwtVerification.Status.BAD_SIGNATURE);
+    }
+
+    private void assertParity(FastJwtVerifier verifier, String token) {
+        JwtVerification fast = verifier.verify(token, NOW);
+        String providerSubject = providerSubject(token);
+        if (providerSubject != null) {
+            assertThat(fast.isValid()).as("fast path rejected a token jjwt accepts: %s", fast.status()).isTrue();
+            assertThat(fast.subject()).isEqualTo(providerSubject);
+        } else {
+            assertThat(fast.isValid()).as("fast path accepted a token jjwt rejects").isFalse();
+        }
+    }
+
+    private String providerSubject(String token) {
+        try {
+            return Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .setClock(() -> new Date(NOW))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody()
+                    .getSubject();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static FastJwtVerifier verifier(String secret, String encoding) throws Exception {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        properties.getJwt().setSecret(secret);
+        properties.getJwt().setSecretEncoding(encoding);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtKeyring keyring = new JwtKeyring(properties, null, new ObjectMapper(), meterRegistry);
+        return new FastJwtVerifier(properties, keyring, meterRegistry);
+    }
+
+    private static String sign(String header, String payload, String secret) throws Exception {
+        String signingInput = encode(header) + "." + encode(payload);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return signingInput + "." + BASE64URL.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String tamperSignature(String token) {
+        char last = token.charAt(token.length() - 2);
+        return token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+    }
+
+    private static String tamperPayload(String token, String payload) {
+        String[] parts = token.split("\\.");
+        return parts[0] + "." + encode(payload) + "." + parts[2];
+    }
+
+    private static String encode(String json) {
+        return BASE64URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
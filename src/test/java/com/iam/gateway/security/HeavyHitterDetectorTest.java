@@ -0,0 +1,65 @@
+package com.iam.gateway.security;
+
+import com.iam.gateway.config.ApiGatewayProperties;
+import com.iam.gateway.constants.GatewayConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHitterDetectorTest {
+
+    @Test
+    void usernameIsBlockedPastItsThresholdWhateverItsCase() {
+        HeavyHitterDetector detector = detector(2, 1000, 3);
+
+        assertThat(detector.recordUsername("victim")).isFalse();
+        assertThat(detector.recordUsername("Victim")).isFalse();
+        assertThat(detector.recordUsername("VICTIM")).isFalse();
+        assertThat(detector.recordUsername("victim")).isTrue();
+        assertThat(detector.recordUsername("someone-else")).isFalse();
+    }
+
+    @Test
+    void topKKeepsTheHeaviestKeysAndEvictsTheLightest() {
+        HeavyHitterDetector detector = detector(2, 32, 1000);
+
+        record(detector, "198.51.100.1", 48);
+        record(detector, "198.51.100.2", 32);
+        record(detector, "198.51.100.3", 16); // table is full and 16 is lighter than both entries
+        assertThat(offenders(detector)).extracting(offender -> offender.get(GatewayConstants.KEY_KEY))
+                .containsExactly("198.51.100.1", "198.51.100.2");
+
+        record(detector, "198.51.100.3", 48); // now 64: pushes out the lightest entry
+        List<Map<String, Object>> offenders = offenders(detector);
+        assertThat(offenders).extracting(offender -> offender.get(GatewayConstants.KEY_KEY))
+                .containsExactly("198.51.100.3", "198.51.100.1");
+        assertThat(offenders.get(0))
+                .containsEntry(GatewayConstants.KIND_KEY, GatewayConstants.HEAVY_HITTER_KIND_IP)
+                .containsEntry(GatewayConstants.ESTIMATE_KEY, 64L)
+                .containsEntry(GatewayConstants.BLOCKED_KEY, true);
+    }
+
+    private static void record(HeavyHitterDetector detector, String ip, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.recordIp(ip);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> offenders(HeavyHitterDetector detector) {
+        return (List<Map<String, Object>>) detector.snapshot().get(GatewayConstants.HEAVY_HITTERS_KEY);
+    }
+
+    private static HeavyHitterDetector detector(int topK, long ipThreshold, long usernameThreshold) {
+        ApiGatewayProperties properties = new ApiGatewayProperties();
+        ApiGatewayProperties.HeavyHitter settings = properties.getRateLimit().getHeavyHitter();
+        settings.setTopK(topK);
+        settings.setIpThreshold(ipThreshold);
+        settings.setUsernameThreshold(usernameThreshold);
+        return new HeavyHitterDetector(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,25 @@
+package com.iam.gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashingTest {
+
+    @Test
+    void seedSeparatesKeyKinds() {
+        assertThat(Hashing.hash("10.0.0.1", 1L)).isNotEqualTo(Hashing.hash("10.0.0.1", 2L));
+        assertThat(Hashing.hash("10.0.0.1", 1L)).isEqualTo(Hashing.hash(new StringBuilder("10.0.0.1"), 1L));
+    }
+
+    @Test
+    void lowercaseByteHashMatchesStringHashOfLowercasedAscii() {
+        byte[] body = "{\"username\":\"Alice.Smith\"}".getBytes(StandardCharsets.US_ASCII);
+        int from = body.length - 13;
+        int to = body.length - 2;
+
+        assertThat(Hashing.hashLowercase(body, from, to, 7L)).isEqualTo(Hashing.hash("alice.smith", 7L));
+    }
+}